@@ -218,16 +218,18 @@ class Achievements implements ObjectTypesChangeListener
 			achievements = new EnumMap<>(AchievementList.class);
 		}
 	
+		Vector<Achievement> getSortedList(AchievementList listType) {
+			return achievements.get(listType);
+		}
+	
 		Achievement getNextAchievement(double level, AchievementList listType) {
 			Vector<Achievement> list = achievements.get(listType);
 			// pre: list is sorted by level, with level==null at end of list 
-			if (list!=null)
-				for (Achievement a : list) {
-					if (a.level==null)
-						return null;
-					if (a.level.doubleValue()>level)
-						return a;
-				}
+			if (list!=null) {
+				int index = findFirstIndexAbove(list, level);
+				if (index<list.size())
+					return list.get(index).level==null ? null : list.get(index);
+			}
 			return null;
 		}
 	
@@ -237,18 +239,33 @@ class Achievements implements ObjectTypesChangeListener
 			// pre: list is sorted by level, with level==null at end of list 
 			if (list!=null)
 			{
-				double lastAchievementLevel = 0;
-				for (Achievement a : list) {
-					if (a.level==null)
-						return null;
-					double achievementLevel = a.level.doubleValue();
-					if (achievementLevel>level)
-						return (level-lastAchievementLevel) / (achievementLevel-lastAchievementLevel);
-					lastAchievementLevel = achievementLevel;
+				int index = findFirstIndexAbove(list, level);
+				if (index<list.size() && list.get(index).level!=null)
+				{
+					double lastAchievementLevel = index>0 ? list.get(index-1).level.doubleValue() : 0;
+					double achievementLevel = list.get(index).level.doubleValue();
+					return (level-lastAchievementLevel) / (achievementLevel-lastAchievementLevel);
 				}
 			}
 			return null;
 		}
+		
+		static int findFirstIndexAbove(Vector<Achievement> list, double level)
+		{
+			// binary search; level==null counts as above every level
+			int low  = 0;
+			int high = list.size();
+			while (low < high)
+			{
+				int mid = (low + high) >>> 1;
+				Double midLevel = list.get(mid).level;
+				if (midLevel==null || midLevel.doubleValue() > level)
+					high = mid;
+				else
+					low = mid + 1;
+			}
+			return low;
+		}
 	}
 
 	@Override
@@ -0,0 +1,179 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.geom.Point2D;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Vector;
+import java.util.stream.IntStream;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.WorldObject;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.ObjectType;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.ObjectTypeClass;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.PhysicalValue;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.TerraformingCalculation.ActiveWorldObject;
+
+/**
+ * Finds bases by clustering installed WorldObjects (single-linkage):
+ * two objects belong to the same base, if there is a chain of objects between them, where each step is not longer than a given distance.<br>
+ * Neighbors are found via a MapSpatialIndex. Statistics of all bases are computed in parallel.
+ */
+class BaseDetector
+{
+	record Stats(
+			int machines,
+			int storages,
+			double energyProduced,
+			double energyConsumed,
+			EnumMap<PhysicalValue,Double> terraforming, // not boosted
+			long storageCapacity,
+			long storageFilling
+	) {
+		double getEnergyBudget() { return energyProduced - energyConsumed; }
+		Double getStorageFillingRatio() { return storageCapacity<=0 ? null : storageFilling / (double)storageCapacity; }
+	}
+
+	record Base(int index, Vector<WorldObject> objects, Point2D.Double center, double extent, Vector<Point2D.Double> outline, Stats stats) {}
+
+	record Result(Vector<Base> bases, int nObjectsOutsideOfBases) {}
+
+	private final Vector<WorldObject> objects;
+	private final MapSpatialIndex<WorldObject> index;
+
+	BaseDetector(Data data)
+	{
+		objects = new Vector<>();
+		if (data.worldObjects!=null)
+			for (WorldObject wo : data.worldObjects)
+				if (wo!=null && wo.position!=null && wo.isInstalled())
+					objects.add(wo);
+		index = new MapSpatialIndex<>(objects, wo -> wo.position);
+	}
+
+	/**
+	 * @param maxDist     max. distance (in m) between neighboring objects of a base
+	 * @param minObjects  min. number of objects in a base; smaller clusters are ignored
+	 * @param snapshot    source of terraforming values of the objects (can be <code>null</code>)
+	 */
+	Result detect(double maxDist, int minObjects, TerraformingCalculation.Snapshot snapshot)
+	{
+		Vector<Vector<WorldObject>> clusters = findClusters(maxDist);
+
+		int nObjectsOutsideOfBases = 0;
+		Vector<Vector<WorldObject>> baseClusters = new Vector<>();
+		for (Vector<WorldObject> cluster : clusters)
+			if (cluster.size()<minObjects) nObjectsOutsideOfBases += cluster.size();
+			else baseClusters.add(cluster);
+		baseClusters.sort(Comparator.<Vector<WorldObject>>comparingInt(List::size).reversed());
+
+		Vector<Base> bases = new Vector<>(
+			IntStream.range(0, baseClusters.size())
+				.parallel()
+				.mapToObj(i -> createBase(i+1, baseClusters.get(i), snapshot))
+				.toList()
+		);
+		return new Result(bases, nObjectsOutsideOfBases);
+	}
+
+	private Vector<Vector<WorldObject>> findClusters(double maxDist)
+	{
+		int n = index.size();
+		int[] parent = IntStream.range(0, n).toArray();
+		double squaredMaxDist = maxDist*maxDist;
+
+		for (int i=0; i<n; i++)
+		{
+			double x = index.getX(i);
+			double y = index.getY(i);
+			int i_ = i;
+			index.forEachInRect(x-maxDist, y-maxDist, x+maxDist, y+maxDist, j -> {
+				if (j>i_ && index.getSquaredDist(j, x, y) <= squaredMaxDist)
+					union(parent, i_, j);
+			});
+		}
+
+		HashMap<Integer,Vector<WorldObject>> clusters = new HashMap<>();
+		for (int i=0; i<n; i++)
+			clusters.computeIfAbsent(find(parent, i), root -> new Vector<>()).add(index.get(i));
+		return new Vector<>(clusters.values());
+	}
+
+	private static int find(int[] parent, int i)
+	{
+		while (parent[i]!=i)
+		{
+			parent[i] = parent[parent[i]]; // path halving
+			i = parent[i];
+		}
+		return i;
+	}
+
+	private static void union(int[] parent, int i, int j)
+	{
+		int root1 = find(parent, i);
+		int root2 = find(parent, j);
+		if (root1!=root2) parent[Math.max(root1, root2)] = Math.min(root1, root2);
+	}
+
+	private static Base createBase(int index, Vector<WorldObject> objects, TerraformingCalculation.Snapshot snapshot)
+	{
+		int machines = 0;
+		int storages = 0;
+		double energyProduced = 0;
+		double energyConsumed = 0;
+		long storageCapacity = 0;
+		long storageFilling = 0;
+		EnumMap<PhysicalValue,Double> terraforming = new EnumMap<>(PhysicalValue.class);
+		for (PhysicalValue phVal : PhysicalValue.values())
+			terraforming.put(phVal, 0.0);
+
+		Vector<Point2D.Double> points = new Vector<>();
+		double sumX = 0, sumY = 0;
+
+		for (WorldObject wo : objects)
+		{
+			double x = wo.position.getMapX();
+			double y = wo.position.getMapY();
+			points.add(new Point2D.Double(x, y));
+			sumX += x;
+			sumY += y;
+
+			if (snapshot!=null)
+				for (PhysicalValue phVal : PhysicalValue.values())
+				{
+					TerraformingCalculation.TerraformingAspect aspect = snapshot.getAspect(phVal);
+					ActiveWorldObject awo = aspect==null ? null : aspect.getAWO(wo);
+					if (awo!=null) terraforming.merge(phVal, awo.getValue(), Double::sum);
+				}
+
+			ObjectType ot = wo.objectType;
+			if (ot==null) continue;
+
+			if (ot.class_==ObjectTypeClass.Structure_Machine)
+				machines++;
+
+			if (ot.class_==ObjectTypeClass.Structure_Storage && wo.list!=null)
+			{
+				storages++;
+				storageCapacity += wo.list.size;
+				storageFilling  += wo.list.worldObjs==null ? 0 : wo.list.worldObjs.length;
+			}
+
+			if (ot.energy!=null)
+			{
+				double energy = ot.energy.doubleValue();
+				if (energy>0) energyProduced += energy;
+				else          energyConsumed -= energy;
+			}
+		}
+
+		Point2D.Double center = new Point2D.Double(sumX/objects.size(), sumY/objects.size());
+		double extent = 0;
+		for (Point2D.Double p : points)
+			extent = Math.max(extent, center.distance(p));
+
+		Stats stats = new Stats(machines, storages, energyProduced, energyConsumed, terraforming, storageCapacity, storageFilling);
+		return new Base(index, objects, center, extent, WreckAreaProposer.computeConvexHull(points), stats);
+	}
+}
@@ -0,0 +1,305 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Vector;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.SwingConstants;
+import javax.swing.table.TableCellRenderer;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.BaseDetector.Base;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.WorldObject;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.PhysicalValue;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.TwoSidedTablePanel.TablePanelWithTextArea;
+import net.schwarzbaer.java.lib.gui.Tables;
+import net.schwarzbaer.java.lib.gui.ValueListOutput;
+
+class BasesPanel extends JPanel
+{
+	private static final long serialVersionUID = -1904468409342283560L;
+	private static final int MAXDIST_MIN =   5;
+	private static final int MAXDIST_MAX = 200;
+	private static final int MINOBJECTS_MIN =  1;
+	private static final int MINOBJECTS_MAX = 50;
+
+	private final Data data;
+	private final BaseDetector baseDetector;
+	private final BasesTablePanel tablePanel;
+	private final JSlider sliderMaxDist;
+	private final JSlider sliderMinObjects;
+	private final JLabel labResult;
+
+	BasesPanel(Data data, MapPanel mapPanel)
+	{
+		super(new BorderLayout(3,3));
+		this.data = data;
+		baseDetector = new BaseDetector(data);
+		tablePanel = new BasesTablePanel(mapPanel);
+
+		sliderMaxDist    = GUI.createSlider(JSlider.HORIZONTAL, MAXDIST_MIN   , MAXDIST_MAX   , 40, null);
+		sliderMinObjects = GUI.createSlider(JSlider.HORIZONTAL, MINOBJECTS_MIN, MINOBJECTS_MAX,  5, null);
+		JTextField outputMaxDist    = GUI.createOutputTextField(Integer.toString(sliderMaxDist   .getValue()), 5);
+		JTextField outputMinObjects = GUI.createOutputTextField(Integer.toString(sliderMinObjects.getValue()), 5);
+		labResult = new JLabel();
+
+		// bases are detected again, when a slider is released
+		sliderMaxDist.addChangeListener(chev -> {
+			outputMaxDist.setText(Integer.toString(sliderMaxDist.getValue()));
+			if (!sliderMaxDist.getValueIsAdjusting()) updateBases();
+		});
+		sliderMinObjects.addChangeListener(chev -> {
+			outputMinObjects.setText(Integer.toString(sliderMinObjects.getValue()));
+			if (!sliderMinObjects.getValueIsAdjusting()) updateBases();
+		});
+
+		JPanel optionsPanel = new JPanel(new GridBagLayout());
+		optionsPanel.setBorder(BorderFactory.createTitledBorder("Base Detection"));
+		GridBagConstraints c = new GridBagConstraints();
+		c.fill = GridBagConstraints.BOTH;
+		c.weighty = 0;
+		c.gridwidth = 1;
+		c.gridheight = 1;
+
+		c.weightx = 0;
+		c.gridx = 0; c.gridy = 0; optionsPanel.add(new JLabel("Max. Distance between Objects (m): "), c);
+		c.gridx = 0; c.gridy = 1; optionsPanel.add(new JLabel("Min. Objects per Base: "), c);
+		c.weightx = 1;
+		c.gridx = 1; c.gridy = 0; optionsPanel.add(sliderMaxDist   , c);
+		c.gridx = 1; c.gridy = 1; optionsPanel.add(sliderMinObjects, c);
+		c.weightx = 0;
+		c.gridx = 2; c.gridy = 0; optionsPanel.add(outputMaxDist   , c);
+		c.gridx = 2; c.gridy = 1; optionsPanel.add(outputMinObjects, c);
+		c.gridwidth = 3;
+		c.gridx = 0; c.gridy = 2; optionsPanel.add(labResult, c);
+
+		add(optionsPanel, BorderLayout.NORTH);
+		add(tablePanel, BorderLayout.CENTER);
+
+		updateBases();
+	}
+
+	private void updateBases()
+	{
+		TerraformingCalculation.Snapshot snapshot = TerraformingCalculation.getInstance().getSnapshot(data);
+		BaseDetector.Result result = baseDetector.detect(sliderMaxDist.getValue(), sliderMinObjects.getValue(), snapshot);
+		labResult.setText(String.format("%d base(s) found, %d object(s) outside of bases", result.bases().size(), result.nObjectsOutsideOfBases()));
+		tablePanel.setData(result.bases());
+	}
+
+	private static class BasesTablePanel extends TablePanelWithTextArea<Base, BasesTableModel.ColumnID, BasesTableModel>
+	{
+		private static final long serialVersionUID = 4387326009917513416L;
+		private final MapPanel mapPanel;
+
+		BasesTablePanel(MapPanel mapPanel)
+		{
+			super(new BasesTableModel(), true, LayoutPos.Right, new Dimension(300, 200));
+			this.mapPanel = mapPanel;
+		}
+
+		void setData(Vector<Base> bases)
+		{
+			tableModel.setData(bases);
+			setText("");
+			mapPanel.showBase(null);
+		}
+
+		@Override
+		protected void tableSelectionChanged(Base row, int rowM)
+		{
+			super.tableSelectionChanged(row, rowM);
+			mapPanel.showBase(row);
+		}
+	}
+
+	private static class GeneralTCR implements TableCellRenderer {
+
+		private final Tables.LabelRendererComponent standardComp;
+		private final BasesTableModel tableModel;
+
+		GeneralTCR(BasesTableModel tableModel) {
+			this.tableModel = tableModel;
+			standardComp = new Tables.LabelRendererComponent();
+		}
+
+		@Override
+		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int rowV, int columnV) {
+			int columnM = columnV<0 ? -1 : table.convertColumnIndexToModel(columnV);
+			BasesTableModel.ColumnID columnID = tableModel.getColumnID(columnM);
+
+			String valueStr = value != null ? value.toString() : null;
+			if (value instanceof Double dblValue && columnID!=null)
+				valueStr = columnID.formatValue(dblValue);
+
+			standardComp.configureAsTableCellRendererComponent(table, null, valueStr, isSelected, hasFocus);
+			if (value instanceof Number)
+				standardComp.setHorizontalAlignment(SwingConstants.RIGHT);
+			else
+				standardComp.setHorizontalAlignment(SwingConstants.LEFT);
+
+			return standardComp;
+		}
+	}
+
+	static class BasesTableModel extends TwoSidedTablePanel.AbstractTableModel<Base, BasesTableModel.ColumnID>
+	{
+		enum ColumnID implements Tables.SimplifiedColumnIDInterface {
+			Index           ("#"               , Integer.class,  30, null),
+			Objects         ("Objects"         , Integer.class,  55, null),
+			Machines        ("Machines"        , Integer.class,  60, null),
+			CenterX         ("Center X"        , Double .class,  70, "%1.1f"),
+			CenterY         ("Center Y"        , Double .class,  70, "%1.1f"),
+			Extent          ("Extent"          , Double .class,  55, "%1.1f m"),
+			EnergyProduced  ("Energy Prod."    , Double .class,  90, null),
+			EnergyConsumed  ("Energy Cons."    , Double .class,  90, null),
+			EnergyBudget    ("Energy Budget"   , Double .class,  90, null),
+			Heat            ("Heat"            , Double .class,  90, null),
+			Pressure        ("Pressure"        , Double .class,  90, null),
+			Oxygen          ("Oxygen"          , Double .class,  90, null),
+			Plants          ("Plants"          , Double .class,  80, null),
+			Insects         ("Insects"         , Double .class,  80, null),
+			Animals         ("Animals"         , Double .class,  80, null),
+			Storages        ("Storages"        , Integer.class,  60, null),
+			StorageCapacity ("Storage Capacity", Long   .class,  95, null),
+			StorageFilling  ("Stored Objects"  , Long   .class,  90, null),
+			StorageRatio    ("Filling"         , Double .class,  55, null),
+			;
+			private final Tables.SimplifiedColumnConfig cfg;
+			private final String format;
+			ColumnID(String name, Class<?> colClass, int width, String format) {
+				this.format = format;
+				cfg = new Tables.SimplifiedColumnConfig(name, colClass, 20, -1, width, width);
+			}
+			@Override public Tables.SimplifiedColumnConfig getColumnConfig() {
+				return cfg;
+			}
+
+			PhysicalValue getPhysicalValue()
+			{
+				switch (this) {
+					case Heat    : return PhysicalValue.Heat;
+					case Pressure: return PhysicalValue.Pressure;
+					case Oxygen  : return PhysicalValue.Oxygen;
+					case Plants  : return PhysicalValue.Plants;
+					case Insects : return PhysicalValue.Insects;
+					case Animals : return PhysicalValue.Animals;
+					default: return null;
+				}
+			}
+
+			String formatValue(double value)
+			{
+				PhysicalValue phVal = getPhysicalValue();
+				if (phVal!=null) return phVal.formatRate(value);
+				switch (this) {
+					case EnergyProduced:
+					case EnergyConsumed:
+					case EnergyBudget  : return ObjectTypes.formatEnergyRate(value);
+					case StorageRatio  : return String.format(Locale.ENGLISH, "%1.1f%%", value*100);
+					default: return format==null ? Double.toString(value) : String.format(Locale.ENGLISH, format, value);
+				}
+			}
+		}
+
+		BasesTableModel()
+		{
+			super(ColumnID.values(), new Vector<>());
+		}
+
+		void setData(Vector<Base> bases)
+		{
+			data.clear();
+			data.addAll(bases);
+			fireTableUpdate();
+		}
+
+		@Override public void setDefaultCellEditorsAndRenderers() {
+			GeneralTCR renderer = new GeneralTCR(this);
+			table.setDefaultRenderer(Double .class, renderer);
+			table.setDefaultRenderer(Long   .class, renderer);
+			table.setDefaultRenderer(Integer.class, renderer);
+		}
+
+		@Override
+		public String getRowText(Base row, int rowIndex)
+		{
+			if (row==null)
+				return "No Data";
+
+			BaseDetector.Stats stats = row.stats();
+			ValueListOutput out = new ValueListOutput();
+
+			out.add(0, "Base", "%d", row.index());
+			out.add(0, "Center", "%1.1f, %1.1f", row.center().x, row.center().y);
+			out.add(0, "Extent", "%1.1f m", row.extent());
+
+			out.addEmptyLine();
+			out.add(0, "Energy");
+			out.add(1, "Produced", ObjectTypes.formatEnergyRate(stats.energyProduced()));
+			out.add(1, "Consumed", ObjectTypes.formatEnergyRate(stats.energyConsumed()));
+			out.add(1, "Budget"  , ObjectTypes.formatEnergyRate(stats.getEnergyBudget()));
+
+			out.addEmptyLine();
+			out.add(0, "Terraforming (not boosted)");
+			for (PhysicalValue phVal : PhysicalValue.values())
+				out.add(1, phVal.name(), phVal.formatRate(stats.terraforming().get(phVal)));
+
+			out.addEmptyLine();
+			out.add(0, "Storage");
+			out.add(1, "Containers"    , "%d", stats.storages());
+			out.add(1, "Capacity"      , "%d", stats.storageCapacity());
+			out.add(1, "Stored Objects", "%d", stats.storageFilling());
+
+			HashMap<String,Integer> objectCounts = new HashMap<>();
+			for (WorldObject wo : row.objects())
+				objectCounts.merge(wo.getName(), 1, Integer::sum);
+			Vector<String> names = new Vector<>(objectCounts.keySet());
+			names.sort(Comparator.<String,Integer>comparing(objectCounts::get).reversed().thenComparing(Data.caseIgnoringComparator));
+
+			out.addEmptyLine();
+			out.add(0, "Objects", "%d", row.objects().size());
+			for (String name : names)
+				out.add(1, "%4dx %s".formatted(objectCounts.get(name), name));
+
+			return out.generateOutput();
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex, ColumnID columnID, Base row)
+		{
+			BaseDetector.Stats stats = row.stats();
+			PhysicalValue phVal = columnID.getPhysicalValue();
+			if (phVal!=null)
+				return stats.terraforming().get(phVal);
+
+			switch (columnID) {
+				case Index          : return row.index();
+				case Objects        : return row.objects().size();
+				case Machines       : return stats.machines();
+				case CenterX        : return row.center().x;
+				case CenterY        : return row.center().y;
+				case Extent         : return row.extent();
+				case EnergyProduced : return stats.energyProduced();
+				case EnergyConsumed : return stats.energyConsumed();
+				case EnergyBudget   : return stats.getEnergyBudget();
+				case Storages       : return stats.storages();
+				case StorageCapacity: return stats.storageCapacity();
+				case StorageFilling : return stats.storageFilling();
+				case StorageRatio   : return stats.getStorageFillingRatio();
+				default: return null;
+			}
+		}
+	}
+}
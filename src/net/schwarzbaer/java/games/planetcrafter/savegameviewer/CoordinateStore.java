@@ -0,0 +1,166 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.RandomAccess;
+import java.util.Vector;
+import java.util.function.LongConsumer;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.MapPanel.Coordinate;
+
+/**
+ * Coordinates stored in primitive arrays with shared labels,
+ * so hundreds of thousands of imported coordinates (e.g. ore scans) need only little memory.<br>
+ * As a list it creates a new Coordinate at every access.
+ */
+class CoordinateStore extends AbstractList<Coordinate> implements RandomAccess
+{
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int PROGRESS_STEP_LINES = 10000;
+
+	private double[] x;
+	private double[] y;
+	private double[] z;
+	private int[] labelIndex;
+	private int size;
+	private final Vector<String> labels;
+	private final HashMap<String,Integer> labelIndices;
+
+	CoordinateStore()
+	{
+		x = new double[INITIAL_CAPACITY];
+		y = new double[INITIAL_CAPACITY];
+		z = new double[INITIAL_CAPACITY];
+		labelIndex = new int[INITIAL_CAPACITY];
+		size = 0;
+		labels = new Vector<>();
+		labelIndices = new HashMap<>();
+	}
+
+	@Override public int size() { return size; }
+
+	@Override
+	public Coordinate get(int index)
+	{
+		if (index<0 || index>=size) throw new IndexOutOfBoundsException(index);
+		return new Coordinate(x[index], y[index], z[index], labels.get(labelIndex[index]));
+	}
+
+	@Override
+	public boolean add(Coordinate coord)
+	{
+		add(coord.x(), coord.y(), coord.z(), coord.label());
+		return true;
+	}
+
+	void add(double x, double y, double z, String label)
+	{
+		ensureCapacity(size+1);
+		this.x[size] = x;
+		this.y[size] = y;
+		this.z[size] = z;
+		labelIndex[size] = labelIndices.computeIfAbsent(label==null ? "" : label, str -> { labels.add(str); return labels.size()-1; });
+		size++;
+		modCount++;
+	}
+
+	void addAll(CoordinateStore other)
+	{
+		ensureCapacity(size+other.size);
+		for (int i=0; i<other.size; i++)
+		{
+			x[size] = other.x[i];
+			y[size] = other.y[i];
+			z[size] = other.z[i];
+			String label = other.labels.get(other.labelIndex[i]);
+			labelIndex[size] = labelIndices.computeIfAbsent(label, str -> { labels.add(str); return labels.size()-1; });
+			size++;
+		}
+		modCount++;
+	}
+
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity <= x.length) return;
+		int newCapacity = Math.max(capacity, x.length*2);
+		x = Arrays.copyOf(x, newCapacity);
+		y = Arrays.copyOf(y, newCapacity);
+		z = Arrays.copyOf(z, newCapacity);
+		labelIndex = Arrays.copyOf(labelIndex, newCapacity);
+	}
+
+	record ReadResult(CoordinateStore coordinates, int nSkippedLines) {}
+
+	/**
+	 * Reads a text file line by line. Every line has to start with 3 numbers (X, Y, Z),
+	 * that are separated by commas, semicolons, tabs or spaces. The rest of a line is used as label.<br>
+	 * Empty lines and lines starting with '#' are ignored, all other lines, that can't be parsed, are skipped.
+	 * Stops, if current thread is interrupted.
+	 * @return  the coordinates or <code>null</code>, if reading was interrupted
+	 */
+	static ReadResult readFromFile(File file, LongConsumer setReadChars) throws IOException
+	{
+		Thread thread = Thread.currentThread();
+		CoordinateStore store = new CoordinateStore();
+		double[] coords = new double[3];
+		int nSkippedLines = 0;
+		long readChars = 0;
+
+		try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			String line;
+			for (int lineNo=1; (line = in.readLine())!=null; lineNo++)
+			{
+				readChars += line.length()+1;
+				if (lineNo%PROGRESS_STEP_LINES == 0)
+				{
+					if (thread.isInterrupted()) return null;
+					if (setReadChars!=null) setReadChars.accept(readChars);
+				}
+
+				String trimmed = line.strip();
+				if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+				int labelStart = parseCoordinates(trimmed, coords);
+				if (labelStart<0) { nSkippedLines++; continue; }
+
+				store.add(coords[0], coords[1], coords[2], trimmed.substring(labelStart).strip());
+			}
+		}
+
+		if (setReadChars!=null) setReadChars.accept(readChars);
+		return new ReadResult(store, nSkippedLines);
+	}
+
+	/**
+	 * Returns the start of the label or -1, if line doesn't start with 3 numbers.
+	 */
+	private static int parseCoordinates(String line, double[] coords)
+	{
+		int pos = 0;
+		for (int i=0; i<coords.length; i++)
+		{
+			while (pos<line.length() && isSeparator(line.charAt(pos))) pos++;
+			int start = pos;
+			while (pos<line.length() && !isSeparator(line.charAt(pos))) pos++;
+			if (start==pos) return -1;
+
+			try { coords[i] = Double.parseDouble(line.substring(start, pos)); }
+			catch (NumberFormatException ex) { return -1; }
+			if (!Double.isFinite(coords[i])) return -1;
+		}
+		while (pos<line.length() && isSeparator(line.charAt(pos))) pos++;
+		return pos;
+	}
+
+	private static boolean isSeparator(char ch)
+	{
+		return ch==',' || ch==';' || ch=='\t' || ch==' ';
+	}
+}
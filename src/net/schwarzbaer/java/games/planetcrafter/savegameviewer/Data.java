@@ -54,6 +54,22 @@ class Data {
 		for (RemoveStateListener l : removeStateListeners)
 			l.someObjectsWereMarkedForRemoval();
 	}
+	
+	/**
+	 * Sets the removal marker of all given objects, that can be marked by user.
+	 * Listeners are notified once afterwards, if any marker has changed.
+	 */
+	static boolean markForRemoval(Iterable<WorldObject> objects, boolean isMarkedForRemoval) {
+		boolean changed = false;
+		for (WorldObject wo : objects)
+			if (wo!=null && wo.canMarkedByUser() && wo.isMarkedForRemoval()!=isMarkedForRemoval) {
+				wo.markForRemoval(isMarkedForRemoval, true);
+				changed = true;
+			}
+		if (changed)
+			notifyAllRemoveStateListeners();
+		return changed;
+	}
 
 	final AchievedValues achievedValues;
 	final PlayerStates playerStates;
@@ -35,14 +35,17 @@ class FarWreckAreaTablePanel extends JSplitPane
 {
 	private static final long serialVersionUID = -5756462259451478608L;
 	
-	FarWreckAreaTablePanel(PlanetId planet) {
+	FarWreckAreaTablePanel(PlanetId planet, Data data) {
 		super(JSplitPane.HORIZONTAL_SPLIT, true);
 		
 		WreckAreaMapView wreckAreaMapView = new WreckAreaMapView();
 		wreckAreaMapView.setPreferredSize(300,300);
 		
+		WreckAreaClassifier classifier = new WreckAreaClassifier(data);
 		PointTablePanel pointTablePanel = new PointTablePanel(wreckAreaMapView);
-		WreckAreaTablePanel wreckAreaTablePanel = new WreckAreaTablePanel(wreckAreaMapView, pointTablePanel.tableModel, planet);
+		WreckAreaTablePanel wreckAreaTablePanel = new WreckAreaTablePanel(wreckAreaMapView, pointTablePanel.tableModel, planet, classifier);
+		pointTablePanel.setPointsChangedListener(wreckAreaTablePanel.tableModel::fireContentColumnsUpdate);
+		FarWreckAreas.getInstance().addListener(wreckAreaTablePanel.tableModel::updateData);
 		
 		JSplitPane leftPanel = new JSplitPane(JSplitPane.VERTICAL_SPLIT, true);
 		leftPanel.setTopComponent(wreckAreaTablePanel);
@@ -61,9 +64,9 @@ class FarWreckAreaTablePanel extends JSplitPane
 		private final WreckAreaTableModel tableModel;
 		private final JTable table;
 		
-		WreckAreaTablePanel(WreckAreaMapView wreckAreaMapView, PointTableModel pointTableModel, PlanetId planet)
+		WreckAreaTablePanel(WreckAreaMapView wreckAreaMapView, PointTableModel pointTableModel, PlanetId planet, WreckAreaClassifier classifier)
 		{
-			table = new JTable(tableModel = new WreckAreaTableModel(pointTableModel, planet));
+			table = new JTable(tableModel = new WreckAreaTableModel(pointTableModel, planet, classifier));
 			table.setPreferredScrollableViewportSize(table.getMinimumSize());
 			table.setRowSorter(new Tables.SimplifiedRowSorter(tableModel));
 			table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -221,6 +224,9 @@ class FarWreckAreaTablePanel extends JSplitPane
 			Editable       ("Editable"             , Boolean.class,  60, null),
 			Visible        ("Visible"              , Boolean.class,  60, wa->wa.isVisible),
 			AutoPointOrder ("Automatic Point Order", Boolean.class, 130, wa->wa.hasAutomaticPointOrder()),
+			Wrecks         ("Wrecks"               , Integer.class,  50, null),
+			DroppedObjects ("Dropped Objects"      , Integer.class,  90, null),
+			InstalledObjs  ("Installed Objects"    , Integer.class,  95, null),
 			Points         ("Points"               , String .class, 450, ColumnID::getPointsAsString),
 			;
 			private SimplifiedColumnConfig cfg;
@@ -245,16 +251,29 @@ class FarWreckAreaTablePanel extends JSplitPane
 		
 		private final PointTableModel pointTableModel;
 		private final PlanetId planet;
+		private final WreckAreaClassifier classifier;
 		
-		WreckAreaTableModel(PointTableModel pointTableModel, PlanetId planet) {
+		WreckAreaTableModel(PointTableModel pointTableModel, PlanetId planet, WreckAreaClassifier classifier) {
 			super(ColumnID.values(), FarWreckAreas.getInstance().getAreas(planet));
 			this.pointTableModel = pointTableModel;
 			this.planet = planet;
+			this.classifier = classifier;
 		}
 		
 		void updateData()
 		{
-			setData(FarWreckAreas.getInstance().getAreas(planet));
+			Vector<WreckArea> areas = FarWreckAreas.getInstance().getAreas(planet);
+			classifier.retainAreas(areas);
+			setData(areas);
+		}
+		
+		void fireContentColumnsUpdate()
+		{
+			// classifier recomputes only areas with changed points
+			fireTableColumnUpdate(ColumnID.Wrecks);
+			fireTableColumnUpdate(ColumnID.DroppedObjects);
+			fireTableColumnUpdate(ColumnID.InstalledObjs);
+			fireTableColumnUpdate(ColumnID.Points);
 		}
 		
 		@Override
@@ -266,6 +285,10 @@ class FarWreckAreaTablePanel extends JSplitPane
 			if (columnID == ColumnID.Editable)
 				return FarWreckAreas.getInstance().getEditableArea() == row;
 			
+			if (columnID == ColumnID.Wrecks        ) return classifier.getCounts(row).wrecks();
+			if (columnID == ColumnID.DroppedObjects) return classifier.getCounts(row).droppedObjects();
+			if (columnID == ColumnID.InstalledObjs ) return classifier.getCounts(row).installedObjects();
+			
 			return super.getValueAt(rowIndex, columnIndex, columnID, row);
 		}
 	
@@ -297,6 +320,7 @@ class FarWreckAreaTablePanel extends JSplitPane
 					{
 						row.setAutomaticPointOrder(boolVal.booleanValue());
 						pointTableModel.fireTableUpdate();
+						fireContentColumnsUpdate();
 						FarWreckAreas.getInstance().writeToFile();
 					}
 					break;
@@ -323,10 +347,12 @@ class FarWreckAreaTablePanel extends JSplitPane
 		private final JTable table;
 		private final PointTableModel tableModel;
 		private final WreckAreaMapView wreckAreaMapView;
+		private Runnable pointsChangedListener;
 
 		PointTablePanel(WreckAreaMapView wreckAreaMapView)
 		{
 			this.wreckAreaMapView = wreckAreaMapView;
+			pointsChangedListener = null;
 			
 			table = new JTable(tableModel = new PointTableModel());
 			table.setPreferredScrollableViewportSize(table.getMinimumSize());
@@ -349,6 +375,18 @@ class FarWreckAreaTablePanel extends JSplitPane
 			contextMenu.addTo(table);
 		}
 
+		void setPointsChangedListener(Runnable pointsChangedListener)
+		{
+			this.pointsChangedListener = pointsChangedListener;
+		}
+
+		private void pointsChanged()
+		{
+			if (wreckAreaMapView!=null) wreckAreaMapView.repaint();
+			if (pointsChangedListener!=null) pointsChangedListener.run();
+			FarWreckAreas.getInstance().writeToFile();
+		}
+
 		private class TableContextMenu extends ContextMenu
 		{
 			private static final long serialVersionUID = -2005702283744870615L;
@@ -360,20 +398,17 @@ class FarWreckAreaTablePanel extends JSplitPane
 			{
 				JMenuItem miMovePointUp = add(GUI.createMenuItem("Move Point Up", GrayCommandIcons.IconGroup.Up, true, e->{
 					tableModel.swapRows(clickedRowIndex, clickedRowIndex-1);
-					if (wreckAreaMapView!=null) wreckAreaMapView.repaint();
-					FarWreckAreas.getInstance().writeToFile();
+					pointsChanged();
 				}));
 				
 				JMenuItem miMovePointDown = add(GUI.createMenuItem("Move Point Down", GrayCommandIcons.IconGroup.Down, true, e->{
 					tableModel.swapRows(clickedRowIndex, clickedRowIndex+1);
-					if (wreckAreaMapView!=null) wreckAreaMapView.repaint();
-					FarWreckAreas.getInstance().writeToFile();
+					pointsChanged();
 				}));
 				
 				JMenuItem miMoveListToEnd = add(GUI.createMenuItem("Move List to end at Point", GrayCommandIcons.IconGroup.Down, true, e->{
 					tableModel.shiftListToEnd(clickedRowIndex);
-					if (wreckAreaMapView!=null) wreckAreaMapView.repaint();
-					FarWreckAreas.getInstance().writeToFile();
+					pointsChanged();
 				}));
 				
 				JMenuItem miDeletePoint = add(GUI.createMenuItem("Delete Point", GrayCommandIcons.IconGroup.Delete, true, e->{
@@ -383,8 +418,7 @@ class FarWreckAreaTablePanel extends JSplitPane
 						return;
 					
 					tableModel.deleteRow(clickedRowIndex);
-					if (wreckAreaMapView!=null) wreckAreaMapView.repaint();
-					FarWreckAreas.getInstance().writeToFile();
+					pointsChanged();
 				}));
 				
 				addSeparator();
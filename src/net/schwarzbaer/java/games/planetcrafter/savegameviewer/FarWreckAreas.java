@@ -32,11 +32,25 @@ class FarWreckAreas
 	
 	private final Map<PlanetId, Vector<WreckArea>> areas;
 	private WreckArea editableArea;
+	private final Vector<Runnable> listeners;
 	
 	private FarWreckAreas()
 	{
 		areas = new EnumMap<>(PlanetId.class);
 		editableArea = null;
+		listeners = new Vector<>();
+	}
+
+	void    addListener(Runnable listener) { listeners.add(listener); }
+	void clearListeners()                  { listeners.clear(); }
+
+	/**
+	 * Has to be called (in EDT) after areas or their points were changed outside of FarWreckAreaTablePanel.
+	 */
+	void fireAreasChanged()
+	{
+		for (Runnable listener : listeners)
+			listener.run();
 	}
 
 	Vector<WreckArea> getAreas(PlanetId planet)
@@ -50,6 +64,14 @@ class FarWreckAreas
 		areasOnPlanet.add(new WreckArea());
 	}
 
+	void addArea(PlanetId planet, List<Point2D.Double> points)
+	{
+		WreckArea area = new WreckArea();
+		area.points.addAll(points);
+		area.setAutomaticPointOrder(true);
+		getAreas(planet).add(area);
+	}
+
 	WreckArea getEditableArea() { return editableArea; }
 	void setEditableArea(WreckArea editableArea) { this.editableArea = editableArea; }
 
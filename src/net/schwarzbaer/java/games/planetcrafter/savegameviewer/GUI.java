@@ -20,6 +20,8 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -185,6 +187,17 @@ class GUI {
 		return comp;
 	}
 	
+	/**
+	 * Returns a single thread executor, whose thread doesn't keep the application alive.
+	 */
+	static ExecutorService createDaemonExecutor(String threadName) {
+		return Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
 	static void reduceTextAreaFontSize(Component baseComp, int diff, JTextArea textArea)
 	{
 		Font baseFont = baseComp.getFont();
@@ -423,23 +423,26 @@ class GeneralDataPanel extends JScrollPane implements ObjectTypesChangeListener
 		private final Row animalsRow;
 		private final Row terraformRow;
 		private final Row stagesRow;
+		private final TerraformingForecast forecast;
 		
 		TerraformingStatesPanel(Data.AchievedValues data, PlanetAchievements achievements) {
 			super(new GridBagLayout());
 			setBorder(BorderFactory.createTitledBorder("Terraforming"));
 			
+			forecast = new TerraformingForecast(achievements, data);
+			
 			Color bgColor = getBackground();
 			double terraformLevel = data.getTerraformLevel();
 			double biomassLevel   = data.getBiomassLevel();
-			oxygenRow    = new Row(data.oxygenLevel  , achievements, AchievementList.Oxygen        , bgColor, Data.AchievedValues::formatOxygenLevel   , PhysicalValue.Oxygen  ::formatRate);
-			heatRow      = new Row(data.heatLevel    , achievements, AchievementList.Heat          , bgColor, Data.AchievedValues::formatHeatLevel     , PhysicalValue.Heat    ::formatRate);
-			pressureRow  = new Row(data.pressureLevel, achievements, AchievementList.Pressure      , bgColor, Data.AchievedValues::formatPressureLevel , PhysicalValue.Pressure::formatRate);
-			biomassRow   = new Row(biomassLevel      , achievements, AchievementList.Biomass       , bgColor, Data.AchievedValues::formatBiomassLevel  , val->String.format(Locale.ENGLISH, "%1.2f g/s", val));
-			plantsRow    = new Row(data.plantsLevel  , achievements, AchievementList.Plants        , bgColor, Data.AchievedValues::formatBiomassLevel  , PhysicalValue.Plants  ::formatRate);
-			insectsRow   = new Row(data.insectsLevel , achievements, AchievementList.Insects       , bgColor, Data.AchievedValues::formatBiomassLevel  , PhysicalValue.Insects ::formatRate);
-			animalsRow   = new Row(data.animalsLevel , achievements, AchievementList.Animals       , bgColor, Data.AchievedValues::formatBiomassLevel  , PhysicalValue.Animals ::formatRate);
-			terraformRow = new Row(terraformLevel    , achievements, AchievementList.Terraformation, bgColor, Data.AchievedValues::formatTerraformation, val->String.format(Locale.ENGLISH, "%1.2f Ti/s", val));
-			stagesRow    = new Row(terraformLevel    , achievements, AchievementList.Stages        , bgColor, Data.AchievedValues::formatTerraformation, null, true, d -> getStageRatioStr(achievements, d));
+			oxygenRow    = new Row(data.oxygenLevel  , achievements, forecast, AchievementList.Oxygen        , bgColor, Data.AchievedValues::formatOxygenLevel   , PhysicalValue.Oxygen  ::formatRate);
+			heatRow      = new Row(data.heatLevel    , achievements, forecast, AchievementList.Heat          , bgColor, Data.AchievedValues::formatHeatLevel     , PhysicalValue.Heat    ::formatRate);
+			pressureRow  = new Row(data.pressureLevel, achievements, forecast, AchievementList.Pressure      , bgColor, Data.AchievedValues::formatPressureLevel , PhysicalValue.Pressure::formatRate);
+			biomassRow   = new Row(biomassLevel      , achievements, forecast, AchievementList.Biomass       , bgColor, Data.AchievedValues::formatBiomassLevel  , val->String.format(Locale.ENGLISH, "%1.2f g/s", val));
+			plantsRow    = new Row(data.plantsLevel  , achievements, forecast, AchievementList.Plants        , bgColor, Data.AchievedValues::formatBiomassLevel  , PhysicalValue.Plants  ::formatRate);
+			insectsRow   = new Row(data.insectsLevel , achievements, forecast, AchievementList.Insects       , bgColor, Data.AchievedValues::formatBiomassLevel  , PhysicalValue.Insects ::formatRate);
+			animalsRow   = new Row(data.animalsLevel , achievements, forecast, AchievementList.Animals       , bgColor, Data.AchievedValues::formatBiomassLevel  , PhysicalValue.Animals ::formatRate);
+			terraformRow = new Row(terraformLevel    , achievements, forecast, AchievementList.Terraformation, bgColor, Data.AchievedValues::formatTerraformation, val->String.format(Locale.ENGLISH, "%1.2f Ti/s", val));
+			stagesRow    = new Row(terraformLevel    , achievements, forecast, AchievementList.Stages        , bgColor, Data.AchievedValues::formatTerraformation, null, true, d -> getStageRatioStr(achievements, d));
 			
 			GridBagConstraints c = new GridBagConstraints();
 			c.fill = GridBagConstraints.BOTH;
@@ -479,6 +482,11 @@ class GeneralDataPanel extends JScrollPane implements ObjectTypesChangeListener
 		}
 
 		void updateAfterAchievementsChange() {
+			forecast.updateAchievements();
+			updateAchievementFields();
+		}
+
+		private void updateAchievementFields() {
 			oxygenRow   .updateAchievementField();
 			heatRow     .updateAchievementField();
 			pressureRow .updateAchievementField();
@@ -490,7 +498,13 @@ class GeneralDataPanel extends JScrollPane implements ObjectTypesChangeListener
 			stagesRow   .updateAchievementField();
 		}
 
+		void setMeasuredRate(AchievementList achievementList, Double rate) {
+			forecast.setMeasuredRate(achievementList, rate);
+			updateAchievementFields();
+		}
+
 		void setRateOfPhysicalValue(PhysicalValue physicalValue, double rate) {
+			forecast.setCalculatedRate(physicalValue, rate);
 			switch (physicalValue) {
 			case Oxygen  : oxygenRow  .setRate(rate); break;
 			case Heat    : heatRow    .setRate(rate); break;
@@ -665,16 +679,18 @@ class GeneralDataPanel extends JScrollPane implements ObjectTypesChangeListener
 			private final boolean oneLine;
 			
 			private final PlanetAchievements achievements;
+			private final TerraformingForecast forecast;
 			private final double level;
 			private final AchievementList achievementList;
 			
 			private double rate;
 
-			Row(double level, PlanetAchievements achievements, AchievementList achievementList, Color panelBgColor, Function<Double,String> formatLevel, Function<Double,String> formatRate) {
-				this(level, achievements, achievementList, panelBgColor, formatLevel, formatRate, false, null);
+			Row(double level, PlanetAchievements achievements, TerraformingForecast forecast, AchievementList achievementList, Color panelBgColor, Function<Double,String> formatLevel, Function<Double,String> formatRate) {
+				this(level, achievements, forecast, achievementList, panelBgColor, formatLevel, formatRate, false, null);
 			}
-			Row(double level, PlanetAchievements achievements, AchievementList achievementList, Color panelBgColor, Function<Double,String> formatLevel, Function<Double,String> formatRate, boolean oneLine, Function<Double,String> formatLevel2) {
+			Row(double level, PlanetAchievements achievements, TerraformingForecast forecast, AchievementList achievementList, Color panelBgColor, Function<Double,String> formatLevel, Function<Double,String> formatRate, boolean oneLine, Function<Double,String> formatLevel2) {
 				this.achievements = achievements;
+				this.forecast = forecast;
 				this.achievementList = achievementList;
 				this.level = level;
 				this.rate = 0;
@@ -697,32 +713,37 @@ class GeneralDataPanel extends JScrollPane implements ObjectTypesChangeListener
 			}
 
 			void updateAchievementField() {
-				Achievements.Achievement achievement = achievements.getNextAchievement(level,achievementList);
 				Double achievementRatio = achievements.getAchievementRatio(level, achievementList);
-				String achievementText = getAchievementText(achievement);
+				Vector<TerraformingForecast.Forecast> forecasts = forecast.getForecasts(achievementList);
+				String achievementText = forecasts.isEmpty() ? "No Achievements left" : getAchievementText(forecasts.get(0));
 				fieldAchievement.setText(achievementText, achievementRatio);
+				fieldAchievement.setToolTipText(getForecastsToolTip(forecasts));
 			}
 
-			private String getAchievementText(Achievements.Achievement achievement) {
-				if (achievement==null)
-					return "No Achievements left";
-				
-				String label = achievement.getLabel();
+			private String getAchievementText(TerraformingForecast.Forecast fc) {
+				String label = fc.achievement().getLabel();
 				if (label==null || label.isBlank())
 					label = "<Nameless>";
-					
-				Double nextLevel = achievement.getLevel();
-				if (nextLevel==null)
-					return label;
 				
-				String nextLevelStr = formatLevel.apply(nextLevel);
-				if (rate==0)
-					return String.format("%s at %s", achievement.getLabel(), nextLevelStr);
+				String nextLevelStr = formatLevel.apply(fc.level());
+				if (Double.isNaN(fc.duration_s()))
+					return String.format("%s at %s", label, nextLevelStr);
 				
-				double duration_s = (nextLevel.doubleValue()-level) / rate;
-				String durationsStr = getDurationsString_s(duration_s);
+				String durationsStr = getDurationsString_s(fc.duration_s());
+				return String.format("%s at %s %s", label, nextLevelStr, durationsStr);
+			}
+
+			private String getForecastsToolTip(Vector<TerraformingForecast.Forecast> forecasts) {
+				if (forecasts.isEmpty()) return null;
 				
-				return String.format("%s at %s %s", achievement.getLabel(), nextLevelStr, durationsStr);
+				StringBuilder sb = new StringBuilder();
+				sb.append("<html>");
+				if (forecast.isRateMeasured(achievementList))
+					sb.append("(based on measured rate)<br>");
+				for (TerraformingForecast.Forecast fc : forecasts)
+					sb.append(getAchievementText(fc).replace("&", "&amp;").replace("<", "&lt;")).append("<br>");
+				sb.append("</html>");
+				return sb.toString();
 			}
 			
 			void setRate(double rate) {
@@ -1024,4 +1045,4 @@ class GeneralDataPanel extends JScrollPane implements ObjectTypesChangeListener
 			}
 		}
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Vector;
+
+/**
+ * Hierarchical grid of clusters of map positions.<br>
+ * Level 0 has cells of {@link #BASE_CELL_SIZE}, every next level merges 2x2 cells of its previous level.
+ * So clusters for any zoom level are available without computation at paint time.
+ */
+class MapClusterGrid<Item>
+{
+	static final double BASE_CELL_SIZE = 4; // map units
+	private static final int MAX_LEVELS = 20;
+
+	record Cluster<Item>(double x, double y, Vector<Item> members) implements Data.MapPos
+	{
+		@Override public double getMapX() { return x; }
+		@Override public double getMapY() { return y; }
+	}
+
+	record Level<Item>(double cellSize, Vector<Cluster<Item>> clusters, MapSpatialIndex<Cluster<Item>> index) {}
+
+	private final Vector<Level<Item>> levels;
+
+	MapClusterGrid(MapSpatialIndex<Item> points)
+	{
+		levels = new Vector<>();
+
+		// level 0
+		HashMap<Long,CellBuilder<Item>> cells = new LinkedHashMap<>();
+		for (int i=0; i<points.size(); i++)
+		{
+			long cellX = (long)Math.floor(points.getX(i) / BASE_CELL_SIZE);
+			long cellY = (long)Math.floor(points.getY(i) / BASE_CELL_SIZE);
+			cells
+				.computeIfAbsent(getKey(cellX, cellY), k -> new CellBuilder<>(cellX, cellY))
+				.add(points.getX(i), points.getY(i), points.get(i));
+		}
+		double cellSize = BASE_CELL_SIZE;
+		addLevel(cellSize, cells);
+
+		// next levels
+		while (cells.size()>1 && levels.size()<MAX_LEVELS)
+		{
+			HashMap<Long,CellBuilder<Item>> parentCells = new LinkedHashMap<>();
+			for (CellBuilder<Item> cell : cells.values())
+			{
+				long cellX = Math.floorDiv(cell.cellX, 2);
+				long cellY = Math.floorDiv(cell.cellY, 2);
+				parentCells
+					.computeIfAbsent(getKey(cellX, cellY), k -> new CellBuilder<>(cellX, cellY))
+					.addAll(cell);
+			}
+			cells = parentCells;
+			cellSize *= 2;
+			addLevel(cellSize, cells);
+		}
+	}
+
+	private static long getKey(long cellX, long cellY)
+	{
+		return (cellX << 32) ^ (cellY & 0xFFFFFFFFL);
+	}
+
+	private void addLevel(double cellSize, HashMap<Long,CellBuilder<Item>> cells)
+	{
+		Vector<Cluster<Item>> clusters = new Vector<>();
+		for (CellBuilder<Item> cell : cells.values())
+			clusters.add(new Cluster<>(cell.sumX/cell.members.size(), cell.sumY/cell.members.size(), cell.members));
+		levels.add(new Level<>(cellSize, clusters, new MapSpatialIndex<>(clusters, c -> c)));
+	}
+
+	/**
+	 * Returns the finest level with cells of at least <code>minCellSize</code> (in map units)
+	 * or <code>null</code>, if <code>minCellSize</code> is below {@link #BASE_CELL_SIZE} (no clustering needed).
+	 */
+	Level<Item> getLevel(double minCellSize)
+	{
+		if (levels.isEmpty() || !(minCellSize >= BASE_CELL_SIZE)) return null;
+		for (Level<Item> level : levels)
+			if (level.cellSize >= minCellSize)
+				return level;
+		return levels.lastElement();
+	}
+
+	private static class CellBuilder<Item>
+	{
+		final long cellX;
+		final long cellY;
+		final Vector<Item> members;
+		double sumX;
+		double sumY;
+
+		CellBuilder(long cellX, long cellY)
+		{
+			this.cellX = cellX;
+			this.cellY = cellY;
+			members = new Vector<>();
+			sumX = 0;
+			sumY = 0;
+		}
+
+		void add(double x, double y, Item item)
+		{
+			sumX += x;
+			sumY += y;
+			members.add(item);
+		}
+
+		void addAll(CellBuilder<Item> cell)
+		{
+			sumX += cell.sumX;
+			sumY += cell.sumY;
+			members.addAll(cell.members);
+		}
+	}
+}
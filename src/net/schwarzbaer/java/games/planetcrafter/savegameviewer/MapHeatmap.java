@@ -0,0 +1,150 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Kernel density estimate of weighted items over map X/Y.<br>
+ * The field is evaluated on a grid, whose cell size is a power of 2 (in map units), so each zoom level can use a suitable resolution.
+ * Computed fields are cached. Items and weights are read once, so a new instance is needed, if data or weights have changed.
+ */
+class MapHeatmap<Item>
+{
+	private static final double BANDWIDTH = 40; // in map units
+	private static final double MIN_BANDWIDTH_IN_CELLS = 1.5;
+	private static final int MAX_CELLS_PER_AXIS = 1024;
+	private static final int[] PALETTE = createPalette();
+
+	record Field(double minX, double minY, double cellSize, int nCols, int nRows, float[] values, float maxValue, BufferedImage image) {}
+
+	private final List<Item> items;
+	private final Function<Item,Data.MapPos> getPos;
+	private final ToDoubleFunction<Item> getWeight;
+	private final HashMap<Integer,Field> fields;
+	private Vector<Item> weightedItems;
+	private double[] weights;
+	private MapSpatialIndex<Item> index;
+
+	MapHeatmap(List<Item> items, Function<Item,Data.MapPos> getPos, ToDoubleFunction<Item> getWeight)
+	{
+		this.items = items;
+		this.getPos = getPos;
+		this.getWeight = getWeight;
+		fields = new HashMap<>();
+		weightedItems = null;
+		weights = null;
+		index = null;
+	}
+
+	/**
+	 * Returns the field with the smallest cell size, that is at least <code>minCellSize</code>, or <code>null</code>, if there are no weighted items.
+	 */
+	synchronized Field getField(double minCellSize)
+	{
+		if (index==null)
+			prepareItems();
+		if (index.size()==0 || !(minCellSize>0))
+			return null;
+
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int i=0; i<index.size(); i++)
+		{
+			minX = Math.min(minX, index.getX(i)); maxX = Math.max(maxX, index.getX(i));
+			minY = Math.min(minY, index.getY(i)); maxY = Math.max(maxY, index.getY(i));
+		}
+		double maxLength = Math.max(maxX-minX, maxY-minY) + 2*BANDWIDTH;
+
+		int level = (int)Math.ceil( Math.log(minCellSize)/Math.log(2) );
+		level = Math.max(level, (int)Math.ceil( Math.log(maxLength/MAX_CELLS_PER_AXIS)/Math.log(2) ));
+
+		Field field = fields.get(level);
+		if (field==null)
+			fields.put(level, field = computeField(Math.pow(2, level), minX, minY, maxX, maxY));
+		return field;
+	}
+
+	private void prepareItems()
+	{
+		weightedItems = new Vector<>();
+		Vector<Double> weightList = new Vector<>();
+		for (Item item : items)
+		{
+			double weight = getWeight.applyAsDouble(item);
+			if (weight>0)
+			{
+				weightedItems.add(item);
+				weightList.add(weight);
+			}
+		}
+		weights = weightList.stream().mapToDouble(Double::doubleValue).toArray();
+		index = new MapSpatialIndex<>(weightedItems, getPos);
+	}
+
+	private Field computeField(double cellSize, double itemsMinX, double itemsMinY, double itemsMaxX, double itemsMaxY)
+	{
+		double bandwidth = Math.max(BANDWIDTH, MIN_BANDWIDTH_IN_CELLS*cellSize);
+		double minX = Math.floor((itemsMinX-bandwidth)/cellSize)*cellSize;
+		double minY = Math.floor((itemsMinY-bandwidth)/cellSize)*cellSize;
+		int nCols = (int)Math.ceil((itemsMaxX+bandwidth-minX)/cellSize);
+		int nRows = (int)Math.ceil((itemsMaxY+bandwidth-minY)/cellSize);
+		float[] values = new float[nCols*nRows];
+		double squaredBandwidth = bandwidth*bandwidth;
+
+		// Epanechnikov kernel: only items within bandwidth contribute
+		IntStream.range(0, nRows).parallel().forEach(row -> {
+			double[] state = new double[3]; // x, y, sum
+			IntConsumer addKernel = i -> {
+				double squaredDist = index.getSquaredDist(i, state[0], state[1]);
+				if (squaredDist < squaredBandwidth)
+					state[2] += weights[i] * (1 - squaredDist/squaredBandwidth);
+			};
+			state[1] = minY + (row+0.5)*cellSize;
+			for (int col=0; col<nCols; col++)
+			{
+				state[0] = minX + (col+0.5)*cellSize;
+				state[2] = 0;
+				index.forEachInRect(state[0]-bandwidth, state[1]-bandwidth, state[0]+bandwidth, state[1]+bandwidth, addKernel);
+				values[row*nCols + col] = (float) state[2];
+			}
+		});
+
+		float maxValue = 0;
+		for (float value : values)
+			maxValue = Math.max(maxValue, value);
+
+		return new Field(minX, minY, cellSize, nCols, nRows, values, maxValue, createImage(nCols, nRows, values, maxValue));
+	}
+
+	private static BufferedImage createImage(int nCols, int nRows, float[] values, float maxValue)
+	{
+		BufferedImage image = new BufferedImage(nCols, nRows, BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		if (maxValue>0)
+			for (int i=0; i<values.length; i++)
+				pixels[i] = PALETTE[ Math.min( Math.round(values[i]/maxValue*(PALETTE.length-1)), PALETTE.length-1 ) ];
+		return image;
+	}
+
+	private static int[] createPalette()
+	{
+		int[] palette = new int[256];
+		for (int i=1; i<palette.length; i++)
+		{
+			float t = i/(float)(palette.length-1);
+			int rgb = Color.HSBtoRGB(0.66f*(1-t), 1, 1) & 0xFFFFFF; // blue -> red
+			int alpha = Math.round( 40 + 150*t );
+			palette[i] = (alpha<<24) | rgb;
+		}
+		palette[0] = 0; // transparent
+		return palette;
+	}
+}
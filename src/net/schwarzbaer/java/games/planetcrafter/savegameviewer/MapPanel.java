@@ -18,28 +18,49 @@ import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.Window;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
@@ -52,6 +73,7 @@ import javax.swing.JSlider;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.Coord3;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.GeneratedWreck;
@@ -62,6 +84,7 @@ import net.schwarzbaer.java.games.planetcrafter.savegameviewer.FarWreckAreas.Wre
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.MapPanel.MapBackgroundImage.MapBGPoint;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.MapShapes.MapShape;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.ObjectTypeValue;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.PhysicalValue;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypesPanel.ObjectTypesChangeEvent;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypesPanel.ObjectTypesChangeListener;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.PlanetCrafterSaveGameViewer.AppSettings;
@@ -69,11 +92,10 @@ import net.schwarzbaer.java.lib.gui.Canvas;
 import net.schwarzbaer.java.lib.gui.ContextMenu;
 import net.schwarzbaer.java.lib.gui.FileChooser;
 import net.schwarzbaer.java.lib.gui.MultiValueInputDialog;
+import net.schwarzbaer.java.lib.gui.ProgressDialog;
 import net.schwarzbaer.java.lib.gui.StandardDialog;
 import net.schwarzbaer.java.lib.gui.ZoomableCanvas;
-import net.schwarzbaer.java.lib.image.linegeometry.Form;
 import net.schwarzbaer.java.lib.system.ClipboardTools;
-import net.schwarzbaer.java.tools.lineeditor.LineEditor;
 
 class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	private static final long serialVersionUID = 1367855618848983614L;
@@ -88,12 +110,21 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	static final Color COLOR_PLAYERPOS           = Color.RED;
 	static final Color COLOR_WRECK               = new Color(0xFF8000);
 	static final Color COLOR_WRECKAREA_EDITABLE  = new Color(0xCF6800);
+	static final Color COLOR_WRECKAREA_PROPOSED  = new Color(0x0080FF);
+	static final Color COLOR_ROUTE               = new Color(0x00A000);
+	static final Color COLOR_BASE_OUTLINE        = new Color(0xC000C0);
+	static final Color COLOR_TIMELINE_VEIL       = new Color(0xC0FFFFFF,true);
+	static final Color COLOR_TIMELINE_OBJECT     = new Color(0x505050);
+	static final Color COLOR_TIMELINE_ADDED      = new Color(0x00C000);
+	static final Color COLOR_PLAYER_TRAIL        = new Color(0xA0FF0000,true);
 	static final Color COLOR_SPECCOORDS          = Color.BLUE;
 	static final Color COLOR_WORLDOBJECT_CONTOUR = new Color(0x70000000,true);
 	static final Color COLOR_WORLDOBJECT_FILL             = Color.LIGHT_GRAY;
 	static final Color COLOR_WORLDOBJECT_FILL_REMOVAL     = null;
 	static final Color COLOR_WORLDOBJECT_FILL_HOVERED     = new Color(0xFFDD00);
 	static final Color COLOR_WORLDOBJECT_FILL_EXTRA_SHOWN = Color.RED;
+	static final Color COLOR_WORLDOBJECT_FILL_SELECTED    = Color.MAGENTA;
+	static final Color COLOR_SELECTION_OUTLINE            = Color.MAGENTA;
 	static final Color COLOR_WORLDOBJECT_FILL_HIGHLIGHT_FOUND = Color.GREEN;
 	static final Color COLOR_WORLDOBJECT_FILL_HIGHLIGHT_00    = Color.GREEN;
 	static final Color COLOR_WORLDOBJECT_FILL_HIGHLIGHT_05    = Color.YELLOW;
@@ -273,6 +304,42 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		};
 	}
 	
+	private record HeatmapSource(Kind kind, PhysicalValue physicalValue)
+	{
+		enum Kind { None, Density, Contribution }
+		
+		static HeatmapSource[] createValues()
+		{
+			Vector<HeatmapSource> values = new Vector<>();
+			values.add(new HeatmapSource(Kind.None, null));
+			values.add(new HeatmapSource(Kind.Density, null));
+			for (PhysicalValue phVal : PhysicalValue.values())
+				values.add(new HeatmapSource(Kind.Contribution, phVal));
+			return values.toArray(HeatmapSource[]::new);
+		}
+		
+		@Override public String toString()
+		{
+			return switch (kind)
+			{
+				case None         -> "No Heatmap";
+				case Density      -> "Heatmap: Density of installed Objects";
+				case Contribution -> String.format("Heatmap: Contribution to %s", physicalValue);
+			};
+		}
+	}
+	
+	enum SelectionTool
+	{
+		None ("No Selection (Navigate)"),
+		Box  ("Rectangle Selection"),
+		Lasso("Lasso Selection"),
+		;
+		private final String label;
+		SelectionTool(String label) { this.label = label; }
+		@Override public String toString() { return label; }
+	}
+	
 	private final PlanetCrafterSaveGameViewer main;
 	private final MapModel mapModel;
 	private final MapView mapView;
@@ -281,7 +348,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	private final JComboBox<Coloring> cmbbxColoring;
 	private Coloring selectedColoring;
 
-	MapPanel(PlanetCrafterSaveGameViewer main, Data data, PlanetId planet) {
+	MapPanel(PlanetCrafterSaveGameViewer main, Data data, PlanetId planet, File saveGame) {
 		super(MapPanel.HORIZONTAL_SPLIT, true);
 		this.main = main;
 		
@@ -295,6 +362,8 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		mapView = new MapView(this.main.mapShapes, mapModel, overView, textOut, planet);
 		mapBackgroundImage = new MapBackgroundImage(mapView, planet);
 		new MapContextMenu(mapModel, mapView, this.main, mapBackgroundImage);
+		Data.addRemoveStateListener(mapView::invalidateStaticLayers);
+		this.main.mapShapes.addChangeListener(mapView::mapShapesChanged);
 		
 		cmbbxColoring = new JComboBox<>(Coloring.values);
 		cmbbxColoring.setSelectedItem(selectedColoring = Coloring.getDefault());
@@ -316,25 +385,73 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				mapView.setExtraShownObject(null);
 			}
 			mapModel.setColoring(selectedColoring, null);
-			mapView.repaint();
+			mapView.invalidateStaticLayers();
 		});
 		
 		cmbbxObjLabels.addActionListener(e->{
 			String selectedObjLabel = cmbbxObjLabels.getItemAt(cmbbxObjLabels.getSelectedIndex());
 			mapModel.setColoring(selectedColoring, selectedObjLabel);
 			mapView.setExtraShownObject(null);
-			mapView.repaint();
+			mapView.invalidateStaticLayers();
+		});
+		
+		JComboBox<HeatmapSource> cmbbxHeatmap = new JComboBox<>(HeatmapSource.createValues());
+		cmbbxHeatmap.addActionListener(e->{
+			mapModel.setHeatmapSource(cmbbxHeatmap.getItemAt(cmbbxHeatmap.getSelectedIndex()));
+			mapView.invalidateStaticLayers();
 		});
 		
 		JPanel selectPanel = new JPanel(new GridLayout(0,1));
 		selectPanel.add(cmbbxColoring);
 		selectPanel.add(cmbbxObjLabels);
+		selectPanel.add(cmbbxHeatmap);
+		
+		JComboBox<SelectionTool> cmbbxSelectionTool = new JComboBox<>(SelectionTool.values());
+		cmbbxSelectionTool.setSelectedItem(SelectionTool.None);
+		cmbbxSelectionTool.addActionListener(e->{
+			mapView.setSelectionTool(cmbbxSelectionTool.getItemAt(cmbbxSelectionTool.getSelectedIndex()));
+		});
+		
+		JLabel labSelection = new JLabel();
+		JButton btnMarkSelection   = GUI.createButton("Mark for Removal"  , false, e->Data.markForRemoval(mapView.getSelectedObjects(), true ));
+		JButton btnUnmarkSelection = GUI.createButton("Unmark"            , false, e->Data.markForRemoval(mapView.getSelectedObjects(), false));
+		JButton btnClearSelection  = GUI.createButton("Clear"             , false, e->mapView.clearSelection());
+		mapView.setSelectionListener(nSelected -> {
+			labSelection.setText(String.format("%d object(s) selected  (Shift: add to selection)", nSelected));
+			btnMarkSelection  .setEnabled(nSelected>0);
+			btnUnmarkSelection.setEnabled(nSelected>0);
+			btnClearSelection .setEnabled(nSelected>0);
+		});
+		labSelection.setText("0 object(s) selected  (Shift: add to selection)");
+		
+		JPanel selectionButtonsPanel = new JPanel(new GridLayout(1,0));
+		selectionButtonsPanel.add(btnMarkSelection);
+		selectionButtonsPanel.add(btnUnmarkSelection);
+		selectionButtonsPanel.add(btnClearSelection);
+		
+		JPanel selectionPanel = new JPanel(new GridLayout(0,1));
+		selectionPanel.add(cmbbxSelectionTool);
+		selectionPanel.add(labSelection);
+		selectionPanel.add(selectionButtonsPanel);
+		
+		JPanel selectionAndTimelinePanel = new JPanel(new BorderLayout());
+		selectionAndTimelinePanel.add(selectionPanel, BorderLayout.NORTH);
+		if (saveGame!=null)
+		{
+			TimelinePanel timelinePanel = new TimelinePanel(mapView, saveGame);
+			ObjectTimeline.getInstance().addListener(timelinePanel::updateRecords);
+			selectionAndTimelinePanel.add(timelinePanel, BorderLayout.SOUTH);
+		}
+		
+		JPanel upperLeftPanel = new JPanel(new BorderLayout());
+		upperLeftPanel.add(selectPanel, BorderLayout.NORTH);
+		upperLeftPanel.add(selectionAndTimelinePanel, BorderLayout.SOUTH);
 		
 		JScrollPane textScrollPane = new JScrollPane(textOut);
 		textScrollPane.setPreferredSize(new Dimension(300,400));
 		
 		JPanel lowerLeftPanel = new JPanel(new BorderLayout());
-		lowerLeftPanel.add(selectPanel, BorderLayout.NORTH);
+		lowerLeftPanel.add(upperLeftPanel, BorderLayout.NORTH);
 		lowerLeftPanel.add(textScrollPane, BorderLayout.CENTER);
 		
 		JPanel leftPanel = new JPanel(new BorderLayout());
@@ -348,6 +465,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		mapView       .setBorder(BorderFactory.createCompoundBorder(BorderFactory.createTitledBorder("Map"), BorderFactory.createLineBorder(Color.GRAY)));
 		textScrollPane.setBorder(BorderFactory.createCompoundBorder(BorderFactory.createTitledBorder("Object under Mouse"), textScrollPane.getBorder()));
 		selectPanel   .setBorder(BorderFactory.createTitledBorder("Coloring / Highlighting"));
+		selectionPanel.setBorder(BorderFactory.createTitledBorder("Selection"));
 		overView      .setBorder(BorderFactory.createTitledBorder("OverView"));
 	}
 	
@@ -371,6 +489,136 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		mapView.repaint();
 	}
 
+	void showBase(BaseDetector.Base base) {
+		mapView.setBaseOutline(base==null ? null : base.outline());
+	}
+	
+	private static class TimelinePanel extends JPanel
+	{
+		private static final long serialVersionUID = -2769430180519562841L;
+		private static final int PLAYBACK_STEP_ms = 400;
+		
+		private final MapView mapView;
+		private final int saveGameID;
+		private final JSlider slider;
+		private final JLabel labTimestamp;
+		private final JButton btnPlay;
+		private final JButton btnShowCurrent;
+		private final javax.swing.Timer playbackTimer;
+		private ObjectTimeline.Playback playback;
+		private boolean ignoreSliderChanges;
+		
+		TimelinePanel(MapView mapView, File saveGame)
+		{
+			super(new GridLayout(0,1));
+			setBorder(BorderFactory.createTitledBorder("Timeline (Autosaves)"));
+			this.mapView = mapView;
+			saveGameID = TerraformingHistory.getSaveGameID(saveGame);
+			playback = null;
+			ignoreSliderChanges = false;
+			
+			labTimestamp = new JLabel();
+			slider = new JSlider(0,0,0);
+			slider.addChangeListener(e -> {
+				if (ignoreSliderChanges) return;
+				showState(slider.getValue());
+			});
+			
+			playbackTimer = new javax.swing.Timer(PLAYBACK_STEP_ms, e -> {
+				if (slider.getValue() >= slider.getMaximum())
+					stopPlayback();
+				else
+					slider.setValue(slider.getValue()+1);
+			});
+			
+			btnPlay        = GUI.createButton("Play"        , false, e -> togglePlayback());
+			btnShowCurrent = GUI.createButton("Show Current", false, e -> {
+				stopPlayback();
+				mapView.setPlaybackState(null);
+				updateLabel(null);
+			});
+			
+			JPanel buttonPanel = new JPanel(new GridLayout(1,0));
+			buttonPanel.add(btnPlay);
+			buttonPanel.add(btnShowCurrent);
+			
+			add(slider);
+			add(labTimestamp);
+			add(buttonPanel);
+			
+			updateRecords();
+		}
+		
+		@Override
+		public void removeNotify()
+		{
+			// panel is discarded (e.g. GUI is rebuilt after reload) -> a running timer would keep it alive
+			stopPlayback();
+			super.removeNotify();
+		}
+		
+		void updateRecords()
+		{
+			Vector<ObjectTimeline.Record> records = ObjectTimeline.getInstance().getRecords(saveGameID);
+			boolean wasAtEnd = playback==null || slider.getValue() >= slider.getMaximum();
+			playback = new ObjectTimeline.Playback(records);
+			
+			ignoreSliderChanges = true;
+			slider.setMaximum(Math.max(0, playback.size()-1));
+			if (wasAtEnd) slider.setValue(slider.getMaximum());
+			ignoreSliderChanges = false;
+			
+			slider        .setEnabled(playback.size()>1);
+			btnPlay       .setEnabled(playback.size()>1);
+			btnShowCurrent.setEnabled(playback.size()>0);
+			if (mapView.getPlaybackState()!=null && playback.size()>0)
+				showState(slider.getValue());
+			else
+				updateLabel(null);
+		}
+		
+		private void togglePlayback()
+		{
+			if (playbackTimer.isRunning())
+			{
+				stopPlayback();
+				return;
+			}
+			if (slider.getValue() >= slider.getMaximum())
+				slider.setValue(slider.getMinimum());
+			else
+				showState(slider.getValue());
+			btnPlay.setText("Stop");
+			playbackTimer.start();
+		}
+		
+		private void stopPlayback()
+		{
+			playbackTimer.stop();
+			btnPlay.setText("Play");
+		}
+		
+		private void showState(int recordIndex)
+		{
+			if (playback==null || recordIndex<0 || recordIndex>=playback.size()) return;
+			ObjectTimeline.State state = playback.getStateAt(recordIndex);
+			mapView.setPlaybackState(state);
+			updateLabel(state);
+		}
+		
+		private void updateLabel(ObjectTimeline.State state)
+		{
+			if (state==null)
+				labTimestamp.setText(String.format("%d record(s), showing current state", playback==null ? 0 : playback.size()));
+			else
+				labTimestamp.setText(String.format("%s:  %d object(s), %d new",
+						PlanetCrafterSaveGameViewer.dtFormatter.getTimeStr(state.timestamp_ms(), false, true, false, true, false),
+						state.objects().size(),
+						state.addedObjects().length
+				));
+		}
+	}
+
 	@Override
 	public void objectTypesChanged(ObjectTypesChangeEvent event) {
 		if (event.eventType != ObjectTypesChangeEvent.EventType.ValueChanged)
@@ -381,8 +629,11 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			mapModel.updateStoredObjectLabels();
 			configureCmbbxObjLabels(selectedColoring.getObjLabels(mapModel));
 		}
+		else
+			mapModel.updateHighlighting();
 		
-		mapView.repaint();
+		mapModel.updateHeatmap();
+		mapView.invalidateStaticLayers();
 	}
 
 	record Coordinate (
@@ -398,13 +649,25 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	record NearestObject (
 			WorldObject wo,
 			Coordinate coord,
+			MapClusterGrid.Cluster<WorldObject> cluster,
 			double minSquaredDist
 	) {
+		private static final int MAX_CLUSTER_TOOLTIP_NAMES = 3;
+		
 		String getInfoText()
 		{
 			if (wo!=null)
 				return wo.generateOutput();
 			
+			if (cluster!=null)
+			{
+				StringBuilder sb = new StringBuilder();
+				sb.append(String.format("Cluster of %d objects:%n", cluster.members().size()));
+				for (Map.Entry<String,Integer> entry : getClusterMemberNames())
+					sb.append(String.format("   %d x %s%n", entry.getValue(), entry.getKey()));
+				return sb.toString();
+			}
+			
 			if (coord!=null)
 				return String.format(Locale.ENGLISH, "Position: %1.1f, %1.1f, %1.1f%n%s", coord.x, coord.y, coord.z, coord.label);
 			
@@ -416,11 +679,33 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			if (wo!=null)
 				return wo.getName() + (wo.text.isEmpty() ? "" : String.format(" (\"%s\")", wo.text));
 			
+			if (cluster!=null)
+			{
+				Vector<Map.Entry<String,Integer>> names = getClusterMemberNames();
+				StringBuilder sb = new StringBuilder();
+				sb.append(String.format("%d objects: ", cluster.members().size()));
+				for (int i=0; i<names.size() && i<MAX_CLUSTER_TOOLTIP_NAMES; i++)
+					sb.append(String.format("%s%dx %s", i==0 ? "" : ", ", names.get(i).getValue(), names.get(i).getKey()));
+				if (names.size()>MAX_CLUSTER_TOOLTIP_NAMES)
+					sb.append(", ...");
+				return sb.toString();
+			}
+			
 			if (coord!=null)
 				return coord.label;
 			
 			return "<null>";
 		}
+		
+		private Vector<Map.Entry<String,Integer>> getClusterMemberNames()
+		{
+			HashMap<String,Integer> counts = new HashMap<>();
+			for (WorldObject member : cluster.members())
+				counts.merge(member.getName(), 1, Integer::sum);
+			Vector<Map.Entry<String,Integer>> names = new Vector<>(counts.entrySet());
+			names.sort(Map.Entry.<String,Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey(Data.caseIgnoringComparator)));
+			return names;
+		}
 	}
 
 	private static class OverView extends Canvas {
@@ -487,6 +772,8 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	
 	static class MapWorldObjectData {
 		private final HashSet<String> storedObjectLabels = new HashSet<>();
+		private AffineTransform mapTransform = null; // rotation in map
+		private int displayIndex = -1; // index in MapModel.displayableObjects
 	}
 	
 	private static class MapModel {
@@ -499,16 +786,26 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		final Rectangle2D.Double range;
 		final Vector<String> installedObjectLabels;
 		final Vector<String> storedObjectLabels;
-		final Vector<Coordinate> coordinatesToShow;
+		final CoordinateStore coordinatesToShow;
+		final MapSpatialIndex<WorldObject> displayableObjectsIndex;
+		final MapSpatialIndex<Coordinate> coordinatesToShowIndex;
+		final MapClusterGrid<WorldObject> clusterGrid;
 		private Coloring coloring;
 		private String selectedObjLabel;
+		private volatile Highlighting highlighting; // replaced as a whole, because it's read by MapView.Renderer thread
+		private final Data data;
+		private HeatmapSource heatmapSource;
+		private volatile MapHeatmap<WorldObject> heatmap; // read by MapView.Renderer thread
 		
 		MapModel(Data data) {
+			this.data = data;
+			heatmapSource = null;
+			heatmap = null;
 			displayableObjects = new Vector<>();
 			wreckPositions = new Vector<>();
 			installedObjectLabels = new Vector<>();
 			storedObjectLabels = new Vector<>();
-			coordinatesToShow = new Vector<>();
+			coordinatesToShow = new CoordinateStore();
 			
 			// ----------------------------------------------------------------
 			// playerPositions & displayableObjects & min,max
@@ -532,6 +829,10 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			}
 			this.minmax = minmax;
 			
+			displayableObjectsIndex = new MapSpatialIndex<>(displayableObjects, wo -> wo.position);
+			coordinatesToShowIndex  = new MapSpatialIndex<>(coordinatesToShow , coord -> coord);
+			clusterGrid = new MapClusterGrid<>(displayableObjectsIndex);
+			
 			if (data.generatedWrecks!=null)
 				for (GeneratedWreck wreck : data.generatedWrecks)
 					if (wreck.position!=null)
@@ -555,9 +856,17 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			// ----------------------------------------------------------------
 			// WorldObject.mapWorldObjectData
 			// ----------------------------------------------------------------
-			//for (WorldObject wo : displayableObjects) {
-			//	
-			//}
+			for (int i=0; i<displayableObjects.size(); i++) {
+				WorldObject wo = displayableObjects.get(i);
+				wo.mapWorldObjectData.mapTransform = wo.rotation==null ? new AffineTransform() : wo.rotation.computeMapTransform();
+				wo.mapWorldObjectData.displayIndex = i;
+			}
+			
+			// ----------------------------------------------------------------
+			// Highlighting
+			// ----------------------------------------------------------------
+			highlighting = new Highlighting(new BitSet(), new int[displayableObjects.size()], new Color[0]);
+			Arrays.fill(highlighting.colorIndex, -1);
 			
 			// ----------------------------------------------------------------
 			// Label Lists
@@ -569,19 +878,122 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		void addCoordinatesToShow(Coordinate[] coords)
 		{
 			coordinatesToShow.addAll(Arrays.asList( coords ));
+			coordinatesToShowIndex.update();
+		}
+
+		void addCoordinatesToShow(CoordinateStore coords)
+		{
+			coordinatesToShow.addAll(coords);
+			coordinatesToShowIndex.update();
 		}
 
+		void setHeatmapSource(HeatmapSource heatmapSource) {
+			this.heatmapSource = heatmapSource;
+			updateHeatmap();
+		}
+		
+		/**
+		 * Drops the cached heat fields. Has to be called, if data or ObjectType values have changed.
+		 */
+		void updateHeatmap() {
+			if (heatmapSource==null)
+				heatmap = null;
+			else
+				heatmap = switch (heatmapSource.kind)
+				{
+					case None         -> null;
+					case Density      -> new MapHeatmap<>(displayableObjects, wo -> wo.position, wo -> 1);
+					case Contribution -> new MapHeatmap<>(displayableObjects, wo -> wo.position, wo -> getContribution(wo, heatmapSource.physicalValue));
+				};
+		}
+		
+		private double getContribution(WorldObject wo, PhysicalValue physicalValue) {
+			TerraformingCalculation.Marginal marginal = TerraformingCalculation.getInstance().getSnapshot(data).getAspect(physicalValue).getMarginal(wo);
+			return marginal==null ? 0 : marginal.value();
+		}
+		
 		void setColoring(Coloring coloring, String selectedObjLabel) {
 			this.coloring = coloring;
 			this.selectedObjLabel = selectedObjLabel;
+			updateHighlighting();
+		}
+		
+		/**
+		 * Classifies all displayable objects with current coloring and selected label.
+		 * Has to be called again, if data or labels have changed.
+		 */
+		void updateHighlighting() {
+			BitSet highlighted = new BitSet(displayableObjects.size());
+			int[] colorIndex = new int[displayableObjects.size()];
+			Vector<Color> colors = new Vector<>();
+			Arrays.fill(colorIndex, -1);
+			
+			if (coloring!=null) {
+				HashMap<Color,Integer> colorIndexes = new HashMap<>();
+				for (int i=0; i<displayableObjects.size(); i++) {
+					WorldObject wo = displayableObjects.get(i);
+					if (!coloring.isHighlighted(wo, selectedObjLabel)) continue;
+					highlighted.set(i);
+					Color color = coloring.getHighlightColor(wo);
+					if (color!=null)
+						colorIndex[i] = colorIndexes.computeIfAbsent(color, c -> {
+							colors.add(c);
+							return colors.size()-1;
+						});
+				}
+			}
+			
+			highlighting = new Highlighting(highlighted, colorIndex, colors.toArray(Color[]::new));
+		}
+		
+		private record Highlighting(BitSet highlighted, int[] colorIndex, Color[] colors) {
+			Color getColor(int index) {
+				return colorIndex[index]<0 ? null : colors[colorIndex[index]];
+			}
+		}
+		
+		/**
+		 * Returns the display indices of all objects inside of given shape (in map coordinates).<br>
+		 * Only objects within the bounding box of the shape are tested against the shape itself.
+		 */
+		BitSet findObjects(Shape shape) {
+			BitSet found = new BitSet(displayableObjects.size());
+			Rectangle2D bounds = shape.getBounds2D();
+			displayableObjectsIndex.forEachInRect(
+					bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(),
+					i -> {
+						if (shape.contains(displayableObjectsIndex.getX(i), displayableObjectsIndex.getY(i)))
+							found.set(i);
+					}
+			);
+			return found;
+		}
+		
+		private int getDisplayIndex(WorldObject wo) {
+			if (wo.mapWorldObjectData==null) return -1;
+			int index = wo.mapWorldObjectData.displayIndex;
+			if (index<0 || index>=displayableObjects.size() || displayableObjects.get(index)!=wo) return -1;
+			return index;
+		}
+
+		boolean isHighlighted(int index) {
+			return highlighting.highlighted.get(index);
+		}
+		
+		Color getHighlightColor(int index) {
+			return highlighting.getColor(index);
 		}
 
 		boolean isHighlighted(WorldObject wo)
 		{
+			int index = getDisplayIndex(wo);
+			if (index>=0) return isHighlighted(index);
 			return coloring==null ? false : coloring.isHighlighted(wo, selectedObjLabel);
 		}
 		
 		Color getHighlightColor(WorldObject wo) {
+			int index = getDisplayIndex(wo);
+			if (index>=0) return getHighlightColor(index);
 			return coloring==null ? null : coloring.getHighlightColor(wo);
 		}
 
@@ -593,6 +1005,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			installedObjectLabels.clear();
 			installedObjectLabels.addAll(labels);
 			installedObjectLabels.sort(Data.caseIgnoringComparator);
+			updateHighlighting();
 		}
 		
 		void updateStoredObjectLabels() {
@@ -609,6 +1022,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			storedObjectLabels.clear();
 			storedObjectLabels.addAll(labels);
 			storedObjectLabels.sort(Data.caseIgnoringComparator);
+			updateHighlighting();
 		}
 
 		private static void collectLablesFromStoredObjects(ObjectList list, HashSet<String> storedObjectLabels)
@@ -618,33 +1032,44 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 					storedObjectLabels.add(storedObj.getName());
 		}
 		
-		NearestObject getNearestObject(double x, double y, Predicate<Double> checkMaxDist) {
-			NearestObject nearestObj = null;
+		/**
+		 * Returns the object nearest to (x,y) within <code>maxDist</code> (in map units) or <code>null</code>.<br>
+		 * If <code>clusterLevel</code> is given, its clusters are used instead of single objects.
+		 * If it's the same object as in <code>previous</code>, <code>previous</code> is returned.
+		 */
+		NearestObject getNearestObject(double x, double y, double maxDist, NearestObject previous, MapClusterGrid.Level<WorldObject> clusterLevel) {
+			int woIndex      = clusterLevel!=null ? -1 : displayableObjectsIndex.findNearest(x, y, maxDist);
+			int clusterIndex = clusterLevel==null ? -1 : clusterLevel.index()  .findNearest(x, y, maxDist);
+			int coordIndex   = coordinatesToShowIndex.findNearest(x, y, maxDist);
 			
-			for (WorldObject wo : displayableObjects) {
-				double woX = wo.position.getMapX();
-				double woY = wo.position.getMapY();
-				double squaredDist = (woX-x)*(woX-x) + (woY-y)*(woY-y);
-				if (nearestObj==null || nearestObj.minSquaredDist > squaredDist)
-					nearestObj = new NearestObject( wo, null, squaredDist);
-			}
+			double woSquaredDist      = woIndex     <0 ? Double.POSITIVE_INFINITY : displayableObjectsIndex.getSquaredDist(woIndex     , x, y);
+			double clusterSquaredDist = clusterIndex<0 ? Double.POSITIVE_INFINITY : clusterLevel.index()  .getSquaredDist(clusterIndex, x, y);
+			double coordSquaredDist   = coordIndex  <0 ? Double.POSITIVE_INFINITY : coordinatesToShowIndex .getSquaredDist(coordIndex  , x, y);
 			
-			for (Coordinate coord : coordinatesToShow) {
-				double coordX = coord.getMapX();
-				double coordY = coord.getMapY();
-				double squaredDist = (coordX-x)*(coordX-x) + (coordY-y)*(coordY-y);
-				if (nearestObj==null || nearestObj.minSquaredDist > squaredDist)
-					nearestObj = new NearestObject( null, coord, squaredDist);
+			if (woIndex>=0 && woSquaredDist <= coordSquaredDist) {
+				WorldObject wo = displayableObjectsIndex.get(woIndex);
+				if (previous!=null && previous.wo==wo) return previous;
+				return new NearestObject( wo, null, null, woSquaredDist);
 			}
 			
-			if (nearestObj==null)
-				return null;
+			if (clusterIndex>=0 && clusterSquaredDist <= coordSquaredDist) {
+				MapClusterGrid.Cluster<WorldObject> cluster = clusterLevel.index().get(clusterIndex);
+				if (cluster.members().size()==1) {
+					WorldObject wo = cluster.members().get(0);
+					if (previous!=null && previous.wo==wo) return previous;
+					return new NearestObject( wo, null, null, clusterSquaredDist);
+				}
+				if (previous!=null && previous.cluster==cluster) return previous;
+				return new NearestObject( null, null, cluster, clusterSquaredDist);
+			}
 			
-			double dist = Math.sqrt(nearestObj.minSquaredDist);
-			if (!checkMaxDist.test(dist))
-				return null;
+			if (coordIndex>=0) {
+				Coordinate coord = coordinatesToShowIndex.get(coordIndex);
+				if (previous!=null && coord.equals(previous.coord)) return previous; // a new Coordinate is created at every access
+				return new NearestObject( null, coord, null, coordSquaredDist);
+			}
 			
-			return nearestObj;
+			return null;
 		}
 
 		private static class MinMax {
@@ -675,6 +1100,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	
 	private static class MapContextMenu extends ContextMenu {
 		private static final long serialVersionUID = 8109374615040559202L;
+		private static final int MAX_EXPORT_IMAGE_SIZE = 100000;
 		
 		private final MapBackgroundImage.ConfigureDialog mapBackgroundImageConfigureDialog;
 		private Point clickedPoint;
@@ -714,6 +1140,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			
 			
 			add(GUI.createCheckBoxMenuItem( "Show Wreck Areas", mapView.getShowWreckAreas(), mapView::setShowWreckAreas));
+			add(GUI.createCheckBoxMenuItem( "Cluster Markers at low Zoom", mapView.getClusterMarkers(), mapView::setClusterMarkers));
 			
 			add(GUI.createMenuItem( "Add Player Position to Wreck Area Boundary", e -> {
 				WreckArea editableArea = FarWreckAreas.getInstance().getEditableArea();
@@ -726,10 +1153,40 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				}
 				
 				editableArea.addPoint(mapView.mapModel.playerPosition);
+				FarWreckAreas.getInstance().fireAreasChanged();
 				FarWreckAreas.getInstance().writeToFile();
 				mapView.repaint();
 			} ));
 			
+			add(GUI.createMenuItem( "Propose Wreck Areas from Wreck Positions ...", e -> {
+				Vector<Data.MapPos> positions = new Vector<>();
+				positions.addAll(mapModel.wreckPositions);
+				positions.addAll(mapModel.coordinatesToShow);
+				if (positions.isEmpty())
+				{
+					String msg = "There are no wreck positions or imported coordinates to cluster.";
+					JOptionPane.showMessageDialog(main.mainWindow, msg, "No Positions", JOptionPane.INFORMATION_MESSAGE);
+					return;
+				}
+				new WreckAreaProposalDialog(main.mainWindow, mapView, positions).showDialog();
+			} ));
+			
+			
+			addSeparator();
+			
+			
+			add(GUI.createMenuItem( "Plan Route ...", e -> {
+				if (mapModel.playerPosition==null)
+				{
+					String msg = "Sorry, can't plan a route. There is no player position as start point.";
+					JOptionPane.showMessageDialog(main.mainWindow, msg, "No Player Position", JOptionPane.INFORMATION_MESSAGE);
+					return;
+				}
+				new RoutePlanningDialog(main.mainWindow, mapView).showDialog();
+			} ));
+			
+			JMenuItem miClearRoute = add(GUI.createMenuItem( "Clear Route", e -> mapView.setRoute(null) ));
+			
 			
 			addSeparator();
 			
@@ -768,6 +1225,108 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				}
 			} ));
 			
+			FileChooser coordinatesFileChooser = new FileChooser("Text-File", "txt");
+			add(GUI.createMenuItem( "Import Coordinates from File ...", e -> {
+				if (coordinatesFileChooser.showOpenDialog(main.mainWindow)!=JFileChooser.APPROVE_OPTION) return;
+				File file = coordinatesFileChooser.getSelectedFile();
+				long fileSize = file.length();
+				
+				ProgressDialog.runWithProgressDialog(main.mainWindow, "Import Coordinates", 400, pd->{
+					SwingUtilities.invokeLater(()->{
+						pd.setTaskTitle("Read Coordinates");
+						pd.setValue(0, 1000);
+					});
+					System.out.printf("Import coordinates from file \"%s\"%n", file.getAbsolutePath());
+					CoordinateStore.ReadResult result = MapBackgroundImage.runIOExceptionTask(
+							()->CoordinateStore.readFromFile(file, readChars -> {
+								int value = fileSize<=0 ? 0 : (int) Math.min(1000, readChars*1000/fileSize);
+								SwingUtilities.invokeLater(()->pd.setValue(value));
+							}),
+							String.format("reading coordinates from file \"%s\":", file.getAbsolutePath()),
+							main.mainWindow, "Read Error",
+							null
+					);
+					if (result==null)
+					{
+						System.out.println("Import Aborted");
+						return;
+					}
+					System.out.printf("   %d coordinates read, %d lines skipped%n", result.coordinates().size(), result.nSkippedLines());
+					SwingUtilities.invokeLater(()->{
+						mapModel.addCoordinatesToShow(result.coordinates());
+						mapView.repaint();
+					});
+				});
+			} ));
+			
+			
+			addSeparator();
+			
+			
+			FileChooser pngExportFileChooser = new FileChooser("PNG-File", "png");
+			add(GUI.createMenuItem( "Export Map as PNG Image ...", e -> {
+				double[] imageWidth = { 8192 };
+				new MultiValueInputDialog(main.mainWindow, "Export Map")
+					.addText("Enter width of exported image (in pixels):")
+					.addDoubleField("Width", 10, "%d".formatted((int)imageWidth[0]), w -> w>=1 && w<=MAX_EXPORT_IMAGE_SIZE, w -> imageWidth[0] = w)
+					.showDialog();
+				
+				MapView.ScreenTransform view = mapView.createExportTransform((int)imageWidth[0]);
+				if (view==null) return;
+				int width  = (int)imageWidth[0];
+				int height = mapView.getExportHeight(view);
+				if (height<1 || height>MAX_EXPORT_IMAGE_SIZE) return;
+				
+				if (pngExportFileChooser.showSaveDialog(main.mainWindow)!=JFileChooser.APPROVE_OPTION) return;
+				File file = pngExportFileChooser.getSelectedFile();
+				MapView.RenderState renderState = mapView.getRenderState();
+				
+				String title = String.format("Export Map (%d x %d px)", width, height);
+				ProgressDialog.runWithProgressDialog(main.mainWindow, title, 400, pd->{
+					SwingUtilities.invokeLater(()->{
+						pd.setTaskTitle("Render Map");
+						pd.setValue(0, height);
+					});
+					System.out.printf("Export map (%d x %d px) to file \"%s\"%n", width, height, file.getAbsolutePath());
+					boolean isComplete = MapBackgroundImage.runIOExceptionTask(
+							()->mapView.exportPNG(file, view, renderState, width, height, rows -> SwingUtilities.invokeLater(()->pd.setValue(rows))),
+							String.format("writing image to file \"%s\":", file.getAbsolutePath()),
+							main.mainWindow, "Write Error",
+							false
+					);
+					if (isComplete) System.out.printf("   %d bytes written%n", file.length());
+					else            System.out.println("Map Export Aborted");
+				});
+			} ));
+			
+			FileChooser svgExportFileChooser = new FileChooser("SVG-File", "svg");
+			add(GUI.createMenuItem( "Export Map as SVG Image ...", e -> {
+				double width = mapView.getExportWidth_MapUnits(); // 1 px per map unit
+				MapView.ScreenTransform view = mapView.createExportTransform(width);
+				if (view==null) return;
+				int height = mapView.getExportHeight(view);
+				
+				if (svgExportFileChooser.showSaveDialog(main.mainWindow)!=JFileChooser.APPROVE_OPTION) return;
+				File file = svgExportFileChooser.getSelectedFile();
+				MapView.RenderState renderState = mapView.getRenderState();
+				
+				ProgressDialog.runWithProgressDialog(main.mainWindow, "Export Map as SVG", 400, pd->{
+					SwingUtilities.invokeLater(()->{
+						pd.setTaskTitle("Write SVG File");
+						pd.setIndeterminate(true);
+					});
+					System.out.printf("Export map as SVG to file \"%s\"%n", file.getAbsolutePath());
+					boolean isComplete = MapBackgroundImage.runIOExceptionTask(
+							()->mapView.exportSVG(file, view, renderState, width, height),
+							String.format("writing SVG to file \"%s\":", file.getAbsolutePath()),
+							main.mainWindow, "Write Error",
+							false
+					);
+					if (isComplete) System.out.printf("   %d bytes written%n", file.length());
+					else            System.out.println("Map Export Aborted");
+				});
+			} ));
+			
 //			addSeparator();
 //			
 //			
@@ -837,6 +1396,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				miCopyPosToClipboard.setEnabled(clickedObject!=null);
 				miCopyRotToClipboard.setEnabled(clickedObject!=null);
 				miEditMapShapes     .setEnabled(clickedObject!=null);
+				miClearRoute        .setEnabled(mapView.getRoute()!=null);
 				miMarkForRemoval.setText(
 						clickedObject == null
 							? "Mark hovered object for removal"
@@ -896,6 +1456,242 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		}
 	}
 	
+	private static class WreckAreaProposalDialog extends StandardDialog
+	{
+		private static final long serialVersionUID = 3719436268112830452L;
+		private static final ExecutorService proposerThread = GUI.createDaemonExecutor("WreckAreaProposer");
+		private static final int EPS_MIN =   1;
+		private static final int EPS_MAX = 300;
+		private static final int MINPTS_MIN =  1;
+		private static final int MINPTS_MAX = 50;
+		
+		private final MapView mapView;
+		private final WreckAreaProposer proposer;
+		private final JSlider sliderEps;
+		private final JSlider sliderMinPts;
+		private final JLabel labResult;
+		private final JButton btnAdd;
+		private volatile int generation;
+		private WreckAreaProposer.Result result;
+
+		WreckAreaProposalDialog(Window parent, MapView mapView, List<Data.MapPos> positions)
+		{
+			super(parent, "Propose Wreck Areas", ModalityType.MODELESS, false);
+			this.mapView = mapView;
+			proposer = new WreckAreaProposer(positions);
+			generation = 0;
+			result = null;
+			
+			sliderEps    = GUI.createSlider(JSlider.HORIZONTAL, EPS_MIN   , EPS_MAX   , 50, null);
+			sliderMinPts = GUI.createSlider(JSlider.HORIZONTAL, MINPTS_MIN, MINPTS_MAX,  3, null);
+			JTextField outputEps    = GUI.createOutputTextField(Integer.toString(sliderEps   .getValue()), 5);
+			JTextField outputMinPts = GUI.createOutputTextField(Integer.toString(sliderMinPts.getValue()), 5);
+			labResult = new JLabel();
+			
+			// live preview: every change starts a new computation
+			sliderEps.addChangeListener(chev -> {
+				outputEps.setText(Integer.toString(sliderEps.getValue()));
+				updateProposal();
+			});
+			sliderMinPts.addChangeListener(chev -> {
+				outputMinPts.setText(Integer.toString(sliderMinPts.getValue()));
+				updateProposal();
+			});
+			
+			JPanel contentPane = new JPanel(new GridBagLayout());
+			GridBagConstraints c = new GridBagConstraints();
+			c.fill = GridBagConstraints.BOTH;
+			
+			c.weighty = 0;
+			c.gridwidth = 1;
+			c.gridheight = 1;
+			
+			c.weightx = 0;
+			c.gridx = 0; c.gridy = 0; contentPane.add(new JLabel("Max. Neighbor Distance (m): "), c);
+			c.gridx = 0; c.gridy = 1; contentPane.add(new JLabel("Min. Points per Cluster: "   ), c);
+			c.weightx = 1;
+			c.gridx = 1; c.gridy = 0; contentPane.add(sliderEps   , c);
+			c.gridx = 1; c.gridy = 1; contentPane.add(sliderMinPts, c);
+			c.weightx = 0;
+			c.gridx = 2; c.gridy = 0; contentPane.add(outputEps   , c);
+			c.gridx = 2; c.gridy = 1; contentPane.add(outputMinPts, c);
+			c.gridwidth = 3;
+			c.gridx = 0; c.gridy = 2; contentPane.add(labResult, c);
+			
+			btnAdd = GUI.createButton("Add as Wreck Areas", false, e -> {
+				addProposedAreas();
+				closeProposal();
+			});
+			
+			addWindowListener(new WindowAdapter() {
+				@Override public void windowClosing(WindowEvent e) { mapView.setProposedAreas(null); }
+			});
+			
+			createGUI(contentPane, btnAdd, GUI.createButton("Cancel", true, e -> closeProposal()));
+			updateProposal();
+		}
+
+		private void updateProposal()
+		{
+			double eps = sliderEps.getValue();
+			int minPts = sliderMinPts.getValue();
+			int gen = ++generation;
+			labResult.setText(String.format("Clustering %d positions ...", proposer.getPointCount()));
+			btnAdd.setEnabled(false);
+			
+			proposerThread.execute(() -> {
+				if (gen!=generation) return;
+				WreckAreaProposer.Result result = proposer.propose(eps, minPts, () -> gen!=generation);
+				if (result==null) return;
+				SwingUtilities.invokeLater(() -> {
+					if (gen!=generation) return;
+					this.result = result;
+					labResult.setText(String.format("%d cluster(s), %d position(s) not assigned", result.nClusters(), result.nNoisePoints()));
+					btnAdd.setEnabled(result.nClusters()>0);
+					mapView.setProposedAreas(result.hulls());
+				});
+			});
+		}
+
+		private void addProposedAreas()
+		{
+			if (result==null) return;
+			FarWreckAreas farWreckAreas = FarWreckAreas.getInstance();
+			for (Vector<Point2D.Double> hull : result.hulls())
+				farWreckAreas.addArea(mapView.planet, hull);
+			farWreckAreas.fireAreasChanged();
+			farWreckAreas.writeToFile();
+		}
+
+		private void closeProposal()
+		{
+			generation++; // cancels running computation
+			mapView.setProposedAreas(null);
+			closeDialog();
+		}
+	}
+	
+	private static class RoutePlanningDialog extends StandardDialog
+	{
+		private static final long serialVersionUID = -2472209480418531062L;
+		private static final ExecutorService plannerThread = GUI.createDaemonExecutor("RoutePlanner");
+		private static final long IMPROVEMENT_TIME_BUDGET_ms = 3000;
+		
+		private final MapView mapView;
+		private final JCheckBox chkbxWrecks;
+		private final JCheckBox chkbxContainers;
+		private final JComboBox<String> cmbbxStoredObjLabels;
+		private final JCheckBox chkbxCoordinates;
+		private final JCheckBox chkbxSelection;
+		private final JLabel labResult;
+		private volatile int generation;
+
+		RoutePlanningDialog(Window parent, MapView mapView)
+		{
+			super(parent, "Plan Route", ModalityType.MODELESS, false);
+			this.mapView = mapView;
+			MapModel mapModel = mapView.mapModel;
+			generation = 0;
+			
+			chkbxWrecks      = new JCheckBox(String.format("Generated Wrecks (%d)", mapModel.wreckPositions.size()), !mapModel.wreckPositions.isEmpty());
+			chkbxContainers  = new JCheckBox("Containers with stored Object:", false);
+			chkbxCoordinates = new JCheckBox(String.format("Imported Coordinates (%d)", mapModel.coordinatesToShow.size()), false);
+			chkbxSelection   = new JCheckBox(String.format("Selected Objects (%d)", mapView.selectedObjects.cardinality()), false);
+			cmbbxStoredObjLabels = new JComboBox<>(mapModel.storedObjectLabels);
+			if (mapModel.selectedObjLabel!=null && mapModel.storedObjectLabels.contains(mapModel.selectedObjLabel))
+				cmbbxStoredObjLabels.setSelectedItem(mapModel.selectedObjLabel);
+			chkbxContainers.setEnabled(!mapModel.storedObjectLabels.isEmpty());
+			cmbbxStoredObjLabels.setEnabled(!mapModel.storedObjectLabels.isEmpty());
+			labResult = new JLabel(" ");
+			
+			JPanel contentPane = new JPanel(new GridBagLayout());
+			GridBagConstraints c = new GridBagConstraints();
+			c.fill = GridBagConstraints.BOTH;
+			c.weighty = 0;
+			c.gridheight = 1;
+			
+			c.gridwidth = 2;
+			c.weightx = 1;
+			c.gridx = 0; c.gridy = 0; contentPane.add(new JLabel("Visit all positions of:"), c);
+			c.gridx = 0; c.gridy = 1; contentPane.add(chkbxWrecks, c);
+			c.gridwidth = 1;
+			c.weightx = 0;
+			c.gridx = 0; c.gridy = 2; contentPane.add(chkbxContainers, c);
+			c.weightx = 1;
+			c.gridx = 1; c.gridy = 2; contentPane.add(cmbbxStoredObjLabels, c);
+			c.gridwidth = 2;
+			c.gridx = 0; c.gridy = 3; contentPane.add(chkbxCoordinates, c);
+			c.gridx = 0; c.gridy = 4; contentPane.add(chkbxSelection, c);
+			c.gridx = 0; c.gridy = 5; contentPane.add(labResult, c);
+			
+			addWindowListener(new WindowAdapter() {
+				@Override public void windowClosing(WindowEvent e) { generation++; }
+			});
+			
+			createGUI(contentPane,
+					GUI.createButton("Plan Route" , true, e -> planRoute()),
+					GUI.createButton("Clear Route", true, e -> { generation++; labResult.setText(" "); mapView.setRoute(null); }),
+					GUI.createButton("Close"      , true, e -> { generation++; closeDialog(); })
+			);
+		}
+
+		private Vector<Data.MapPos> collectStops()
+		{
+			MapModel mapModel = mapView.mapModel;
+			// same object could be a selected object and a container
+			LinkedHashSet<Data.MapPos> stops = new LinkedHashSet<>();
+			
+			if (chkbxWrecks.isSelected())
+				stops.addAll(mapModel.wreckPositions);
+			
+			String storedObjLabel = cmbbxStoredObjLabels.getItemAt(cmbbxStoredObjLabels.getSelectedIndex());
+			if (chkbxContainers.isSelected() && storedObjLabel!=null)
+				for (WorldObject wo : mapModel.displayableObjects)
+					if (wo.mapWorldObjectData.storedObjectLabels.contains(storedObjLabel))
+						stops.add(wo.position);
+			
+			if (chkbxCoordinates.isSelected())
+				stops.addAll(mapModel.coordinatesToShow);
+			
+			if (chkbxSelection.isSelected())
+				for (WorldObject wo : mapView.getSelectedObjects())
+					stops.add(wo.position);
+			
+			return new Vector<>(stops);
+		}
+
+		private void planRoute()
+		{
+			Data.Coord3 start = mapView.mapModel.playerPosition;
+			Vector<Data.MapPos> stops = collectStops();
+			int gen = ++generation;
+			if (start==null || stops.isEmpty())
+			{
+				labResult.setText("No positions selected.");
+				mapView.setRoute(null);
+				return;
+			}
+			labResult.setText(String.format("Planning route to %d position(s) ...", stops.size()));
+			
+			plannerThread.execute(() -> {
+				if (gen!=generation) return;
+				RoutePlanner.Route route = RoutePlanner.plan(start, stops, IMPROVEMENT_TIME_BUDGET_ms, () -> gen!=generation, intermediate -> {
+					SwingUtilities.invokeLater(() -> {
+						if (gen!=generation) return;
+						labResult.setText(String.format(Locale.ENGLISH, "Improving route (%d positions, %1.0f m) ...", stops.size(), intermediate.length()));
+						mapView.setRoute(intermediate);
+					});
+				});
+				if (route==null) return;
+				SwingUtilities.invokeLater(() -> {
+					if (gen!=generation) return;
+					labResult.setText(String.format(Locale.ENGLISH, "Route: %d positions, %1.0f m", stops.size(), route.length()));
+					mapView.setRoute(route);
+				});
+			});
+		}
+	}
+	
 	private static class CoordinateListInputDialog extends StandardDialog
 	{
 		private static final long serialVersionUID = -7182618446715947278L;
@@ -1098,19 +1894,27 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		private static final int BRIGHTNESS_MAX =  100;
 		private static final int CONTRAST_MIN   = -100;
 		private static final int CONTRAST_MAX   =  100;
+		private static final int PREVIEW_MAX_SIZE = 1024;
+		private static final int LUT_ROWS_PER_TASK = 64;
+		private static final int MIP_LEVEL_MIN_SIZE = 64;
+		private static final ExecutorService imageProcessor = GUI.createDaemonExecutor("MapBackgroundImage.Processor");
 		
 		private final MapView mapView;
 		private final MapView.ViewState mapViewState;
 		private final File storedImageFile;
 		private final FileChooser imageFC;
-		private BufferedImage mapBgImageBase;
-		private BufferedImage mapBgImage;
+		private BufferedImage mapBgImageBase; // TYPE_INT_ARGB
+		private BufferedImage mapBgImagePreviewBase; // downscaled copy of mapBgImageBase
+		private Vector<BufferedImage> mapBgImageLevels; // mip pyramid: full size, 1/2, 1/4, ...
+		private BufferedImage mapBgImagePreview; // shown until mapBgImageLevels are computed
+		private volatile int imageGeneration;
 		private int brightness;
 		private int contrast;
 		private FixPoint fixPoint1;
 		private FixPoint fixPoint2;
 		private boolean showFixPoints;
 		private boolean showBgImage;
+		private volatile DrawState drawState; // replaced as a whole, because it's read outside of the EDT
 		
 		MapBackgroundImage(MapView mapView, PlanetId planet) {
 			this.mapView = mapView;
@@ -1118,7 +1922,10 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			storedImageFile = new File(String.format("%s - %s.%s", PlanetCrafterSaveGameViewer.FILE_MAPBGIMAGE_BASE, planet, FILE_MAPBGIMAGE_EXT));
 			imageFC = new FileChooser(FILE_MAPBGIMAGE_FORMAT.toUpperCase()+"-File", FILE_MAPBGIMAGE_EXT);
 			mapBgImageBase = null;
-			mapBgImage = null;
+			mapBgImagePreviewBase = null;
+			mapBgImageLevels = null;
+			mapBgImagePreview = null;
+			imageGeneration = 0;
 			brightness = appSettings.getInt(AppSettings.ValueKey.MapBackgroundImage_Brightness, 0);
 			contrast   = appSettings.getInt(AppSettings.ValueKey.MapBackgroundImage_Contrast  , 0);
 			mapViewState = this.mapView.setBgImage(this);
@@ -1126,13 +1933,38 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			fixPoint2 = null;
 			showFixPoints = false;
 			showBgImage = appSettings.getBool(AppSettings.ValueKey.MapBackgroundImage_ShowBgImage, true);
+			drawState = createDrawState();
+		}
+		
+		private record DrawState(FixPointValues fixPoint1, FixPointValues fixPoint2, BufferedImage fullImage, BufferedImage preview, List<BufferedImage> levels, boolean showBgImage, boolean showFixPoints) {}
+		
+		private DrawState createDrawState()
+		{
+			return new DrawState(
+					fixPoint1==null ? null : fixPoint1.getValues(),
+					fixPoint2==null ? null : fixPoint2.getValues(),
+					mapBgImageBase,
+					mapBgImagePreview,
+					mapBgImageLevels==null ? null : List.copyOf(mapBgImageLevels),
+					showBgImage,
+					showFixPoints
+			);
+		}
+		
+		/**
+		 * Must be called in EDT after every change of values used by {@link #drawImage(Graphics2D, MapView.ScreenTransform, Rectangle)}.
+		 */
+		private void publishDrawState()
+		{
+			drawState = createDrawState();
+			mapView.invalidateStaticLayers();
 		}
 		
 		boolean isShowFixPoints() { return showFixPoints; }
 		void setShowFixPoints(boolean showFixPoints)
 		{
 			this.showFixPoints = showFixPoints;
-			mapView.repaint();
+			publishDrawState();
 		}
 
 		boolean isShowBgImage() { return showBgImage; }
@@ -1140,7 +1972,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		{
 			this.showBgImage = showBgImage;
 			AppSettings.getInstance().putBool(AppSettings.ValueKey.MapBackgroundImage_ShowBgImage, this.showBgImage);
-			mapView.repaint();
+			publishDrawState();
 		}
 
 		ConfigureDialog createConfigureDialog(Window parent, String title) {
@@ -1187,18 +2019,18 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			case Map2  : fixPoint2.setMapPoint(mapX, mapY); break;
 			}
 			
-			mapView.repaint();
+			publishDrawState();
 		}
 
 		void initialize(Component errDlgParent) {
 			if (storedImageFile.isFile()) {
 				System.out.printf("Read Map Background Image from file \"%s\"%n", storedImageFile.getAbsolutePath());
-				mapBgImageBase = runIOExceptionTask(
+				setBaseImageData(runIOExceptionTask(
 						()->ImageIO.read(storedImageFile),
 						String.format("reading image from file \"%s\":", storedImageFile.getAbsolutePath()),
 						errDlgParent, "Read Error",
 						null
-				);
+				));
 				if (mapBgImageBase!=null) {
 					System.out.printf("   %d bytes read%n", storedImageFile.length());
 				}
@@ -1208,14 +2040,14 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				//System.out.printf("MapBackgroundImage.fixPoint1: %s%n", fixPoint1);
 				//System.out.printf("MapBackgroundImage.fixPoint2: %s%n", fixPoint2);
 				computeImage();
-				mapView.repaint();
+				publishDrawState();
 			}
 		}
 
 		void resetFixPoints()
 		{
 			resetFixPoints(FixPoint::setValues);
-			mapView.repaint();
+			publishDrawState();
 		}
 
 		private void resetFixPoints(FixPointSetFunction func)
@@ -1244,9 +2076,44 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			void setValues(FixPoint fixPoint, double imageX, double imageY, double mapX, double mapY);
 		}
 
+		private void setBaseImageData(BufferedImage image)
+		{
+			mapBgImageBase = toIntARGB(image);
+			mapBgImagePreviewBase = createPreviewBase(mapBgImageBase);
+		}
+
+		private static BufferedImage toIntARGB(BufferedImage image)
+		{
+			if (image==null || image.getType()==BufferedImage.TYPE_INT_ARGB)
+				return image;
+			BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2 = result.createGraphics();
+			g2.drawImage(image, 0, 0, null);
+			g2.dispose();
+			return result;
+		}
+
+		private static BufferedImage createPreviewBase(BufferedImage image)
+		{
+			if (image==null) return null;
+			int width  = image.getWidth();
+			int height = image.getHeight();
+			double scale = PREVIEW_MAX_SIZE / (double)Math.max(width, height);
+			if (scale>=1) return image;
+			
+			int previewWidth  = Math.max(1, (int)Math.round(width *scale));
+			int previewHeight = Math.max(1, (int)Math.round(height*scale));
+			BufferedImage preview = new BufferedImage(previewWidth, previewHeight, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2 = preview.createGraphics();
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.drawImage(image, 0, 0, previewWidth, previewHeight, null);
+			g2.dispose();
+			return preview;
+		}
+
 		private void setBaseImage(BufferedImage image)
 		{
-			mapBgImageBase = image;
+			setBaseImageData(image);
 			
 			resetFixPoints();
 			
@@ -1255,16 +2122,25 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			setImageValues(0, 0);
 		}
 
-		void drawImage(Graphics2D g2, int x, int y, int width, int height)
+		/**
+		 * Can be called outside of the EDT (by MapView.RenderJob or PNG export).
+		 * Only the last published DrawState is used.
+		 */
+		void drawImage(Graphics2D g2, MapView.ScreenTransform view, Rectangle clip)
 		{
-			if (fixPoint1==null || fixPoint2==null || mapViewState==null || !mapViewState.isOk())
+			DrawState state = drawState;
+			FixPointValues fixPoint1 = state.fixPoint1;
+			FixPointValues fixPoint2 = state.fixPoint2;
+			if (fixPoint1==null || fixPoint2==null)
 				return;
 			
-			if (mapBgImage!=null && showBgImage) {
-				double map1X_scr = mapViewState.convertPos_AngleToScreen_LongXf(fixPoint1.mapX);
-				double map1Y_scr = mapViewState.convertPos_AngleToScreen_LatYf (fixPoint1.mapY);
-				double map2X_scr = mapViewState.convertPos_AngleToScreen_LongXf(fixPoint2.mapX);
-				double map2Y_scr = mapViewState.convertPos_AngleToScreen_LatYf (fixPoint2.mapY);
+			BufferedImage mapBgImagePreview = state.preview;
+			List<BufferedImage> mapBgImageLevels = state.levels;
+			if ((mapBgImagePreview!=null || mapBgImageLevels!=null) && state.showBgImage) {
+				double map1X_scr = view.toScreenXf(fixPoint1.mapX);
+				double map1Y_scr = view.toScreenYf(fixPoint1.mapY);
+				double map2X_scr = view.toScreenXf(fixPoint2.mapX);
+				double map2Y_scr = view.toScreenYf(fixPoint2.mapY);
 				
 				double translate1X = - fixPoint1.imageX;
 				double translate1Y = - fixPoint1.imageY;
@@ -1278,23 +2154,81 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				transform.scale(scaleX, scaleY);
 				transform.translate( translate1X, translate1Y );
 				
-				g2.drawImage(mapBgImage, transform, null);
+				BufferedImage fullImage = mapBgImagePreview!=null ? state.fullImage : mapBgImageLevels.get(0);
+				BufferedImage image = mapBgImagePreview!=null ? mapBgImagePreview : getMipLevel(mapBgImageLevels, Math.min(Math.abs(scaleX), Math.abs(scaleY)));
+				if (image!=fullImage && fullImage!=null)
+					transform.scale(
+							fullImage.getWidth () / (double)image.getWidth (),
+							fullImage.getHeight() / (double)image.getHeight()
+					);
+				
+				drawClippedImage(g2, image, transform, clip);
 			}
 			
-			if (showFixPoints) {
-				Point2D.Double imagePos1_map = convertPos_ImageToMap(fixPoint1.imageX, fixPoint1.imageY);
-				Point2D.Double imagePos2_map = convertPos_ImageToMap(fixPoint2.imageX, fixPoint2.imageY);
+			if (state.showFixPoints) {
+				Point2D.Double imagePos1_map = convertPos_ImageToMap(fixPoint1, fixPoint2, fixPoint1.imageX, fixPoint1.imageY);
+				Point2D.Double imagePos2_map = convertPos_ImageToMap(fixPoint1, fixPoint2, fixPoint2.imageX, fixPoint2.imageY);
 				
-				drawMapPoint(g2, fixPoint1.mapX, fixPoint1.mapY, MapBGPoint.Map1.color, true );
-				drawMapPoint(g2, fixPoint2.mapX, fixPoint2.mapY, MapBGPoint.Map2.color, true );
-				drawMapPoint(g2, imagePos1_map.x, imagePos1_map.y, MapBGPoint.Image1.color, false);
-				drawMapPoint(g2, imagePos2_map.x, imagePos2_map.y, MapBGPoint.Image2.color, false);
+				drawMapPoint(g2, view, fixPoint1.mapX, fixPoint1.mapY, MapBGPoint.Map1.color, true );
+				drawMapPoint(g2, view, fixPoint2.mapX, fixPoint2.mapY, MapBGPoint.Map2.color, true );
+				drawMapPoint(g2, view, imagePos1_map.x, imagePos1_map.y, MapBGPoint.Image1.color, false);
+				drawMapPoint(g2, view, imagePos2_map.x, imagePos2_map.y, MapBGPoint.Image2.color, false);
 			}
 		}
 		
-		private void drawMapPoint(Graphics2D g2, double mapX, double mapY, Color color, boolean isType1) {
-			int mapX_scr = mapViewState.convertPos_AngleToScreen_LongX(mapX);
-			int mapY_scr = mapViewState.convertPos_AngleToScreen_LatY (mapY);
+		/**
+		 * Returns the smallest mip level, that has still at least 1 pixel per screen pixel.
+		 * @param scale screen pixels per pixel of the full size image
+		 */
+		private static BufferedImage getMipLevel(List<BufferedImage> levels, double scale)
+		{
+			int level = scale>0 ? (int)Math.floor( -Math.log(scale)/Math.log(2) ) : 0;
+			level = Math.min(Math.max(0, level), levels.size()-1);
+			return levels.get(level);
+		}
+
+		private static void drawClippedImage(Graphics2D g2, BufferedImage image, AffineTransform imageToScreen, Rectangle clip)
+		{
+			Rectangle2D clip_image;
+			try {
+				clip_image = imageToScreen.createInverse().createTransformedShape(clip).getBounds2D();
+			} catch (NoninvertibleTransformException ex) {
+				return;
+			}
+			
+			// +1 pixel at each side for interpolation at borders
+			int sx1 = Math.max(0                , (int)Math.floor(clip_image.getMinX())-1);
+			int sy1 = Math.max(0                , (int)Math.floor(clip_image.getMinY())-1);
+			int sx2 = Math.min(image.getWidth (), (int)Math.ceil (clip_image.getMaxX())+1);
+			int sy2 = Math.min(image.getHeight(), (int)Math.ceil (clip_image.getMaxY())+1);
+			if (sx1>=sx2 || sy1>=sy2) return;
+			
+			AffineTransform origTransform = g2.getTransform();
+			g2.transform(imageToScreen);
+			g2.drawImage(image, sx1, sy1, sx2, sy2, sx1, sy1, sx2, sy2, null);
+			g2.setTransform(origTransform);
+		}
+
+		private static Vector<BufferedImage> createMipPyramid(BufferedImage image)
+		{
+			Vector<BufferedImage> levels = new Vector<>();
+			levels.add(image);
+			while (image.getWidth()>=2*MIP_LEVEL_MIN_SIZE && image.getHeight()>=2*MIP_LEVEL_MIN_SIZE) {
+				int width  = image.getWidth ()/2;
+				int height = image.getHeight()/2;
+				BufferedImage level = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g2 = level.createGraphics();
+				g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g2.drawImage(image, 0, 0, width, height, null);
+				g2.dispose();
+				levels.add(image = level);
+			}
+			return levels;
+		}
+
+		private static void drawMapPoint(Graphics2D g2, MapView.ScreenTransform view, double mapX, double mapY, Color color, boolean isType1) {
+			int mapX_scr = view.toScreenX(mapX);
+			int mapY_scr = view.toScreenY(mapY);
 			
 			g2.setColor(color);
 			if (isType1) {
@@ -1306,7 +2240,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			}
 		}
 
-		private Point2D.Double convertPos_ImageToMap(double imageX, double imageY)
+		private static Point2D.Double convertPos_ImageToMap(FixPointValues fixPoint1, FixPointValues fixPoint2, double imageX, double imageY)
 		{
 			double scaleX = (fixPoint2.mapX-fixPoint1.mapX) / (fixPoint2.imageX-fixPoint1.imageX);
 			double scaleY = (fixPoint2.mapY-fixPoint1.mapY) / (fixPoint2.imageY-fixPoint1.imageY);
@@ -1336,67 +2270,125 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 
 		private void computeImage()
 		{
-			if (mapBgImageBase==null)
+			imageGeneration++;
+			mapBgImagePreview = null;
+			mapBgImageLevels = mapBgImageBase==null ? null : createMipPyramid(applyLUT(mapBgImageBase, computeLUT(brightness, contrast)));
+		}
+
+		/**
+		 * Shows a preview computed from a downscaled image immediately and computes the full resolution image in background.
+		 */
+		private void updateImage(int brightness, int contrast)
+		{
+			int[] lut = computeLUT(brightness, contrast);
+			mapBgImagePreview = mapBgImagePreviewBase==null ? null : applyLUT(mapBgImagePreviewBase, lut);
+			publishDrawState();
+			
+			BufferedImage base = mapBgImageBase;
+			int generation = ++imageGeneration;
+			imageProcessor.execute(() -> {
+				if (generation != imageGeneration) return; // already superseded by a newer request
+				Vector<BufferedImage> levels = base==null ? null : createMipPyramid(applyLUT(base, lut));
+				SwingUtilities.invokeLater(() -> {
+					if (generation != imageGeneration) return;
+					mapBgImageLevels = levels;
+					mapBgImagePreview = null;
+					publishDrawState();
+				});
+			});
+		}
+
+		private static int[] computeLUT(int brightness, int contrast)
+		{
+			int[] lut = new int[256];
+			for (int n=0; n<lut.length; n++)
+				lut[n] = Math.min(Math.max(0, computeBrightness(brightness, computeContrast(contrast, n))), 255);
+			return lut;
+		}
+
+		private static BufferedImage applyLUT(BufferedImage source, int[] lut)
+		{
+			int width  = source.getWidth();
+			int height = source.getHeight();
+			BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			int[] sourcePixels = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+			int[] targetPixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+			ForkJoinPool.commonPool().invoke(new LUTTask(sourcePixels, targetPixels, width, 0, height, lut));
+			return target;
+		}
+
+		private static class LUTTask extends RecursiveAction
+		{
+			private static final long serialVersionUID = 4385370216582147935L;
+			private final int[] source;
+			private final int[] target;
+			private final int width;
+			private final int rowStart;
+			private final int rowEnd;
+			private final int[] lut;
+
+			LUTTask(int[] source, int[] target, int width, int rowStart, int rowEnd, int[] lut)
 			{
-				mapBgImage = null;
-				return;
+				this.source = source;
+				this.target = target;
+				this.width = width;
+				this.rowStart = rowStart;
+				this.rowEnd = rowEnd;
+				this.lut = lut;
 			}
-			
-			//System.out.printf("MapBackgroundImage.computeImage( brightness: %d, contrast: %d )%n", brightness, contrast);
-			int width  = mapBgImageBase.getWidth();
-			int height = mapBgImageBase.getHeight();
-			
-			mapBgImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-			WritableRaster sourceRaster = mapBgImageBase.getRaster();
-			WritableRaster targetRaster = mapBgImage    .getRaster();
-			
-			int[] pixel = new int[] {0,0,0,0}; // [r,g,b,a ]
-			for (int x=0; x<width; x++)
-				for (int y=0; y<height; y++) {
-					sourceRaster.getPixel(x, y, pixel);
-					computeContrast  (pixel);
-					computeBrightness(pixel);
-					targetRaster.setPixel(x, y, pixel);
+
+			@Override
+			protected void compute()
+			{
+				if (rowEnd-rowStart > LUT_ROWS_PER_TASK)
+				{
+					int rowMid = (rowStart+rowEnd) >>> 1;
+					invokeAll(
+							new LUTTask(source, target, width, rowStart, rowMid, lut),
+							new LUTTask(source, target, width, rowMid, rowEnd, lut)
+					);
+					return;
+				}
+				
+				for (int i=rowStart*width, end=rowEnd*width; i<end; i++)
+				{
+					int argb = source[i];
+					target[i] =
+							(argb & 0xFF000000) |
+							(lut[(argb>>16) & 0xFF] << 16) |
+							(lut[(argb>> 8) & 0xFF] <<  8) |
+							 lut[ argb      & 0xFF];
 				}
-			//sourceRaster.getPixel(width/2, height/2, pixel);
-			//System.out.printf("SourceRaster.Pixel( %d, %d ) -> %s%n", width/2, height/2, Arrays.toString(pixel));
-			//targetRaster.getPixel(width/2, height/2, pixel);
-			//System.out.printf("TargetRaster.Pixel( %d, %d ) -> %s%n", width/2, height/2, Arrays.toString(pixel));
+			}
 		}
 
-		private void computeBrightness(int[] pixel)
+		private static int computeBrightness(int brightness, int n)
 		{
 			if (brightness < 0) {
 				float f = 1 - brightness/(float)BRIGHTNESS_MIN;
-				pixel[0] = Math.round( f*pixel[0] );
-				pixel[1] = Math.round( f*pixel[1] );
-				pixel[2] = Math.round( f*pixel[2] );
+				return Math.round( f*n );
 				
 			} else if (brightness > 0) {
 				float f = 1 - brightness/(float)BRIGHTNESS_MAX;
-				pixel[0] = Math.round( 255 - f*(255 - (pixel[0] & 0xFF)) );
-				pixel[1] = Math.round( 255 - f*(255 - (pixel[1] & 0xFF)) );
-				pixel[2] = Math.round( 255 - f*(255 - (pixel[2] & 0xFF)) );
+				return Math.round( 255 - f*(255 - (n & 0xFF)) );
 			}
+			return n;
 		}
 
-		private void computeContrast(int[] pixel)
+		private static int computeContrast(int contrast, int n)
 		{
 			if (contrast < 0) { // lower contrast
 				float f = 1 - contrast/(float)CONTRAST_MIN;
-				pixel[0] = Math.round( f*((pixel[0] & 0xFF) - 127) + 127 );
-				pixel[1] = Math.round( f*((pixel[1] & 0xFF) - 127) + 127 );
-				pixel[2] = Math.round( f*((pixel[2] & 0xFF) - 127) + 127 );
+				return Math.round( f*((n & 0xFF) - 127) + 127 );
 				
 			} else if (contrast > 0) { // raise contrast
 				float f = 1 - contrast/(float)CONTRAST_MAX;
-				pixel[0] = raiseContrast( f, pixel[0] );
-				pixel[1] = raiseContrast( f, pixel[1] );
-				pixel[2] = raiseContrast( f, pixel[2] );
+				return raiseContrast( f, n );
 			}
+			return n;
 		}
 
-		private int raiseContrast(float f, int n)
+		private static int raiseContrast(float f, int n)
 		{
 			float n_ = ((n & 0xFF) - 127)/(float)128; // 0 .. 255  ->  -1.0 .. 1.0
 			n_ = Math.min(Math.max(-1, n_), 1);
@@ -1419,10 +2411,8 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				//System.out.printf("MapBackgroundImage.Contrast = %s%n", this.contrast);
 				AppSettings.getInstance().putInt(AppSettings.ValueKey.MapBackgroundImage_Contrast, this.contrast);
 			}
-			if (brightness!=null || contrast!=null) {
-				computeImage();
-				mapView.repaint();
-			}
+			if (brightness!=null || contrast!=null)
+				updateImage(this.brightness, this.contrast);
 		}
 
 		private interface IOExceptionTask<ReturnValue> {
@@ -1448,6 +2438,8 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			}
 		}
 
+		private record FixPointValues(double imageX, double imageY, double mapX, double mapY) {}
+		
 		private static class FixPoint
 		{
 			private double imageX;
@@ -1465,6 +2457,11 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				this.imagePointId = imagePointId;
 				this.mapPointId = mapPointId;
 			}
+			
+			FixPointValues getValues()
+			{
+				return new FixPointValues(imageX, imageY, mapX, mapY);
+			}
 
 			void getValuesFromSettings(double defaultImageX, double defaultImageY, double defaultMapX, double defaultMapY)
 			{
@@ -1532,11 +2529,15 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 					outputBrightness.setText(Integer.toString(sliderBrightness.getValue()));
 					if (!sliderBrightness.getValueIsAdjusting())
 						setBrightness(sliderBrightness.getValue());
+					else
+						updateImage(sliderBrightness.getValue(), contrast);
 				});
 				sliderContrast.addChangeListener(chev -> {
 					outputContrast.setText(Integer.toString(sliderContrast.getValue()));
 					if (!sliderContrast.getValueIsAdjusting())
 						setContrast(sliderContrast.getValue());
+					else
+						updateImage(brightness, sliderContrast.getValue());
 				});
 				
 				JPanel contentPane = new JPanel(new GridBagLayout());
@@ -1618,6 +2619,21 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 	static class MapView extends ZoomableCanvas<ZoomableCanvas.ViewState> {
 		private static final long serialVersionUID = -5838969838377820166L;
 		private static final int NEAREST_OBJECT_MAX_DIST = 15;
+		private static final int TILE_SIZE = 256;
+		private static final int TILE_CACHE_CAPACITY = 128;
+		private static final int TILE_RENDER_MARGIN = 15; // > size of markers, so they aren't cut at tile borders
+		private static final int TILE_FRACTION_STEPS = 16;
+		private static final int CLUSTER_CELL_SIZE_PX = 30;
+		private static final int CLUSTER_GLYPH_MAX_RADIUS = 12;
+		private static final Color COLOR_CLUSTER_TEXT = Color.BLACK;
+		private static final int HOVER_MARKER_RADIUS = 20; // >= radius of all hover markers incl. text of cluster glyph
+		private static final int MOUSEPOS_TEXT_MARGIN = 25;
+		private static final int MOUSEPOS_TEXT_PADDING = 2;
+		private static final int HEATMAP_CELL_SIZE_PX = 4;
+		private static final int LASSO_POINT_MIN_DIST = 3; // in px
+		private static final int COORDINATES_LOD_THRESHOLD = 2000; // max. number of visible coordinates drawn with full size
+		private static final int COORDINATES_LOD_CELL_SIZE_PX = 4;
+		private static final ExecutorService renderThread = GUI.createDaemonExecutor("MapView.Renderer");
 		
 		private final OverView overView;
 		private final JTextArea textOut;
@@ -1632,6 +2648,25 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		private final MousePos currentMousePos;
 		private Coord3 specCoords;
 		private boolean showWreckAreas;
+		private boolean clusterMarkers;
+		private final TileCache tileCache;
+		private final HashMap<String,ShapeInfo> shapeInfoCache;
+		private RenderState renderState; // only accessed in EDT
+		private final Vector<RenderJob> renderJobs;
+		private TileLayout tileLayout;
+		private Frame lastFrame;
+		private Rectangle paintArea; // area, font and font render context of last paint, needed for bounds of overlays
+		private Font paintFont;
+		private FontRenderContext paintFRC;
+		private SelectionTool selectionTool;
+		private final BitSet selectedObjects; // display indices
+		private Vector<Point2D.Double> selectionDraft; // in map coordinates, while mouse is dragged
+		private boolean isAddingToSelection;
+		private IntConsumer selectionListener;
+		private Vector<Vector<Point2D.Double>> proposedAreas;
+		private RoutePlanner.Route route;
+		private Vector<Point2D.Double> baseOutline;
+		private ObjectTimeline.State playbackState;
 
 		MapView(MapShapes mapShapes, MapModel mapModel, OverView overView, JTextArea textOut, PlanetId planet) {
 			this.mapShapes = mapShapes;
@@ -1647,20 +2682,370 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			currentMousePos = new MousePos();
 			specCoords = null;
 			showWreckAreas = AppSettings.getInstance().getBool(AppSettings.ValueKey.MapView_ShowWreckAreas, true);
+			clusterMarkers = AppSettings.getInstance().getBool(AppSettings.ValueKey.MapView_ClusterMarkers, true);
+			tileCache = new TileCache();
+			shapeInfoCache = new HashMap<>();
+			renderState = null;
+			renderJobs = new Vector<>();
+			tileLayout = null;
+			lastFrame = null;
+			paintArea = null;
+			paintFont = null;
+			paintFRC = null;
+			selectionTool = SelectionTool.None;
+			selectedObjects = new BitSet();
+			selectionDraft = null;
+			isAddingToSelection = false;
+			selectionListener = null;
+			proposedAreas = null;
+			route = null;
+			baseOutline = null;
+			playbackState = null;
 			
 			activateMapScale(COLOR_MAP_AXIS, "m", true);
 			activateAxes(COLOR_MAP_AXIS, true,true,true,true);
-			addTextToMapScale(currentMousePos::getText);
 			
 			addPanListener(new PanListener() {
 				@Override public void panStarted() {}
 				@Override public void panStopped() { updateOverviewImage(); }
 			});
 			addZoomListener(new ZoomListener() {
-				@Override public void zoomChanged() { updateOverviewImage(); }
+				@Override public void zoomChanged() { invalidateStaticLayers(); updateOverviewImage(); }
+			});
+		}
+		
+		/**
+		 * Static layers (background image, MapShapes, object markers) are rendered into tiles
+		 * (background and objects separately, so wreck areas stay between them),
+		 * that are reused until zoom level changes or this method is called.
+		 * Running renders are cancelled and the last complete frame is shown until new tiles are available.
+		 */
+		void invalidateStaticLayers()
+		{
+			updateLastFrame();
+			tileCache.clear();
+			renderState = null;
+			cancelRenderJobs(job -> true);
+			repaint();
+		}
+		
+		void mapShapesChanged()
+		{
+			synchronized (shapeInfoCache)
+			{
+				shapeInfoCache.clear();
+			}
+			invalidateStaticLayers();
+		}
+		
+		private record ShapeInfo(Path2D.Double path, double radius) {}
+		
+		/**
+		 * Returns path and bounding radius (in map units) of the selected shape of an ObjectType or <code>null</code>, if it has no shape.
+		 */
+		private ShapeInfo getShapeInfo(ObjectTypes.ObjectType objectType)
+		{
+			if (objectType==null) return null;
+			synchronized (shapeInfoCache)
+			{
+				if (!shapeInfoCache.containsKey(objectType.id))
+				{
+					MapShape shape = mapShapes.getSelectedShape(objectType);
+					shapeInfoCache.put(objectType.id, shape==null || shape.getForms().isEmpty() ? null : new ShapeInfo(shape.getPath(), shape.computeBoundingRadius()));
+				}
+				return shapeInfoCache.get(objectType.id);
+			}
+		}
+		
+		/**
+		 * Immutable copy of all EDT-owned state, that is read while drawing the object layer outside of the EDT.
+		 */
+		record RenderState(MapModel.Highlighting highlighting, BitSet markedForRemoval, HashMap<String,ShapeInfo> shapeInfos, HashSet<String> markerTypes, double maxShapeRadius)
+		{
+			boolean isHighlighted(int index) { return index>=0 && highlighting.highlighted().get(index); }
+			Color getHighlightColor(int index) { return index<0 ? null : highlighting.getColor(index); }
+			boolean isMarkedForRemoval(int index) { return index>=0 && markedForRemoval.get(index); }
+			
+			ShapeInfo getShapeInfo(WorldObject wo)
+			{
+				return wo==null || wo.objectType==null ? null : shapeInfos.get(wo.objectType.id);
+			}
+			
+			boolean showMarker(WorldObject wo)
+			{
+				return wo!=null && wo.objectType!=null && markerTypes.contains(wo.objectType.id);
+			}
+		}
+		
+		/**
+		 * Returns the current RenderState. It's created on demand and dropped by {@link #invalidateStaticLayers()}.<br>
+		 * Must be called in EDT.
+		 */
+		RenderState getRenderState()
+		{
+			if (renderState==null)
+			{
+				Vector<WorldObject> objects = mapModel.displayableObjects;
+				BitSet markedForRemoval = new BitSet(objects.size());
+				HashMap<String,ShapeInfo> shapeInfos = new HashMap<>();
+				HashSet<String> markerTypes = new HashSet<>();
+				double maxShapeRadius = 0;
+				for (int i=0; i<objects.size(); i++)
+				{
+					WorldObject wo = objects.get(i);
+					if (wo.isMarkedForRemoval()) markedForRemoval.set(i);
+					if (wo.objectType==null || shapeInfos.containsKey(wo.objectType.id)) continue;
+					
+					ShapeInfo shapeInfo = getShapeInfo(wo.objectType);
+					shapeInfos.put(wo.objectType.id, shapeInfo);
+					if (shapeInfo!=null) maxShapeRadius = Math.max(maxShapeRadius, shapeInfo.radius);
+					if (mapShapes.shouldShowMarker(wo.objectType)) markerTypes.add(wo.objectType.id);
+				}
+				renderState = new RenderState(mapModel.highlighting, markedForRemoval, shapeInfos, markerTypes, maxShapeRadius);
+			}
+			return renderState;
+		}
+		
+		private record TileKey(double scaleX, double scaleY, int fractionX, int fractionY, int col, int row) {}
+		
+		private record Tile(BufferedImage background, BufferedImage objects) {}
+		
+		private static class TileCache extends LinkedHashMap<TileKey,Tile>
+		{
+			private static final long serialVersionUID = 6001432950311768325L;
+			
+			TileCache() { super(16, 0.75f, true); }
+			
+			@Override protected boolean removeEldestEntry(Map.Entry<TileKey,Tile> eldest)
+			{
+				return size() > TILE_CACHE_CAPACITY;
+			}
+		}
+		
+		/**
+		 * Snapshot of the (linear) map-to-screen conversion of the ViewState,
+		 * so static layers can be rendered outside of the EDT.
+		 */
+		record ScreenTransform(double originX, double originY, double scaleX, double scaleY)
+		{
+			static ScreenTransform of(ViewState viewState)
+			{
+				double originX = viewState.convertPos_AngleToScreen_LongXf(0);
+				double originY = viewState.convertPos_AngleToScreen_LatYf (0);
+				return new ScreenTransform(
+						originX, originY,
+						viewState.convertPos_AngleToScreen_LongXf(1) - originX,
+						viewState.convertPos_AngleToScreen_LatYf (1) - originY
+				);
+			}
+			
+			double toScreenXf(double mapX) { return originX + mapX*scaleX; }
+			double toScreenYf(double mapY) { return originY + mapY*scaleY; }
+			int    toScreenX (double mapX) { return (int)Math.round(toScreenXf(mapX)); }
+			int    toScreenY (double mapY) { return (int)Math.round(toScreenYf(mapY)); }
+			double toMapX(double screenX) { return (screenX-originX)/scaleX; }
+			double toMapY(double screenY) { return (screenY-originY)/scaleY; }
+		}
+		
+		/**
+		 * Tiles are anchored at screen position of map origin, so they stay valid while panning.
+		 */
+		private record TileLayout(ScreenTransform view, int originX, int originY, int fractionX, int fractionY)
+		{
+			static TileLayout of(ScreenTransform view)
+			{
+				int originX = (int)Math.floor(view.originX);
+				int originY = (int)Math.floor(view.originY);
+				return new TileLayout(
+						view, originX, originY,
+						(int)Math.round((view.originX-originX)*TILE_FRACTION_STEPS),
+						(int)Math.round((view.originY-originY)*TILE_FRACTION_STEPS)
+				);
+			}
+			
+			boolean hasSameTiles(TileLayout other)
+			{
+				return other!=null
+						&& view.scaleX==other.view.scaleX
+						&& view.scaleY==other.view.scaleY
+						&& fractionX==other.fractionX
+						&& fractionY==other.fractionY;
+			}
+			
+			TileKey getKey(int col, int row) { return new TileKey(view.scaleX, view.scaleY, fractionX, fractionY, col, row); }
+			Rectangle getTileRect(int col, int row) { return new Rectangle(originX+col*TILE_SIZE, originY+row*TILE_SIZE, TILE_SIZE, TILE_SIZE); }
+			int getCol(int screenX) { return Math.floorDiv(screenX-originX, TILE_SIZE); }
+			int getRow(int screenY) { return Math.floorDiv(screenY-originY, TILE_SIZE); }
+		}
+		
+		private record Frame(BufferedImage image, ScreenTransform view) {}
+		
+		/**
+		 * Renders the static layers of some missing tiles in background.<br>
+		 * The background layer is published first (as a coarse preview), the tiles with all layers afterwards.
+		 */
+		private class RenderJob implements Runnable
+		{
+			private final TileLayout layout;
+			private final HashSet<TileKey> keys;
+			private final Rectangle area; // in screen coordinates of layout
+			private final RenderingHints hints;
+			private final RenderState state;
+			private volatile boolean cancelled;
+			private BufferedImage coarseImage; // only accessed in EDT
+			
+			RenderJob(TileLayout layout, HashSet<TileKey> keys, Rectangle area, RenderingHints hints, RenderState state)
+			{
+				this.layout = layout;
+				this.keys = keys;
+				this.area = area;
+				this.hints = hints;
+				this.state = state;
+				cancelled = false;
+				coarseImage = null;
+			}
+			
+			@Override
+			public void run()
+			{
+				try
+				{
+					render();
+				}
+				finally
+				{
+					// always done, even if rendering fails, otherwise the tiles of this job are never scheduled again
+					SwingUtilities.invokeLater(() -> renderJobs.remove(this));
+				}
+			}
+			
+			private void render()
+			{
+				if (cancelled) return;
+				Rectangle cullingArea = new Rectangle(area);
+				cullingArea.grow(TILE_RENDER_MARGIN, TILE_RENDER_MARGIN);
+				
+				BufferedImage coarse = renderArea(g2 -> drawBackgroundLayer(g2, cullingArea, layout.view));
+				if (cancelled) return;
+				SwingUtilities.invokeLater(() -> {
+					if (cancelled) return;
+					coarseImage = coarse;
+					repaint();
+				});
+				
+				BufferedImage background = renderArea(g2 -> {
+					g2.drawImage(coarse, area.x, area.y, null);
+					drawHeatmapLayer(g2, cullingArea, layout.view);
+				});
+				if (cancelled) return;
+				
+				BufferedImage objects = renderArea(g2 -> drawObjectLayer(g2, cullingArea, layout.view, state, this));
+				if (cancelled) return;
+				
+				HashMap<TileKey,Tile> tiles = new HashMap<>();
+				for (TileKey key : keys)
+				{
+					Rectangle tileRect = layout.getTileRect(key.col, key.row);
+					tiles.put(key, new Tile(cutTile(background, tileRect), cutTile(objects, tileRect)));
+				}
+				
+				SwingUtilities.invokeLater(() -> {
+					if (cancelled) return;
+					tileCache.putAll(tiles);
+					renderJobs.remove(this);
+					repaint();
+				});
+			}
+			
+			private BufferedImage cutTile(BufferedImage image, Rectangle tileRect)
+			{
+				BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D tileG2 = tile.createGraphics();
+				tileG2.drawImage(image, area.x-tileRect.x, area.y-tileRect.y, null);
+				tileG2.dispose();
+				return tile;
+			}
+			
+			private BufferedImage renderArea(Consumer<Graphics2D> render)
+			{
+				BufferedImage image = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g2 = image.createGraphics();
+				g2.setRenderingHints(hints);
+				g2.translate(-area.x, -area.y);
+				g2.setClip(area);
+				render.accept(g2);
+				g2.dispose();
+				return image;
+			}
+		}
+		
+		private void cancelRenderJobs(Predicate<RenderJob> predicate)
+		{
+			renderJobs.removeIf(job -> {
+				if (!predicate.test(job)) return false;
+				job.cancelled = true;
+				return true;
 			});
 		}
 		
+		private static boolean isCancelled(RenderJob job)
+		{
+			return job!=null && job.cancelled;
+		}
+		
+		private RenderJob getRenderJob(TileKey key)
+		{
+			for (RenderJob job : renderJobs)
+				if (job.keys.contains(key))
+					return job;
+			return null;
+		}
+		
+		/**
+		 * Composes the tiles of the last painted frame (and the previous last frame behind them) into one image.
+		 */
+		private void updateLastFrame()
+		{
+			TileLayout layout = tileLayout;
+			if (layout==null || width<=0 || height<=0) return;
+			
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2 = image.createGraphics();
+			Rectangle bounds = new Rectangle(0, 0, width, height);
+			if (lastFrame!=null)
+				drawLastFrame(g2, layout.view, bounds);
+			for (int row=layout.getRow(0); row<=layout.getRow(height-1); row++)
+				for (int col=layout.getCol(0); col<=layout.getCol(width-1); col++)
+				{
+					Tile tile = tileCache.get(layout.getKey(col, row));
+					if (tile!=null)
+					{
+						g2.drawImage(tile.background, layout.originX+col*TILE_SIZE, layout.originY+row*TILE_SIZE, null);
+						g2.drawImage(tile.objects   , layout.originX+col*TILE_SIZE, layout.originY+row*TILE_SIZE, null);
+					}
+				}
+			g2.dispose();
+			
+			lastFrame = new Frame(image, layout.view);
+		}
+		
+		private void drawLastFrame(Graphics2D g2, ScreenTransform view, Rectangle clip)
+		{
+			ScreenTransform frameView = lastFrame.view;
+			AffineTransform transform = new AffineTransform();
+			transform.translate(view.originX, view.originY);
+			transform.scale(view.scaleX/frameView.scaleX, view.scaleY/frameView.scaleY);
+			transform.translate(-frameView.originX, -frameView.originY);
+			
+			Shape origClip = g2.getClip();
+			Object origInterpolation = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+			g2.clip(clip);
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.drawImage(lastFrame.image, transform, null);
+			if (origInterpolation!=null) g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, origInterpolation);
+			g2.setClip(origClip);
+		}
+		
 		Point2D.Double convertScreenToMapXY(Point p)
 		{
 			if (!viewState.isOk())
@@ -1679,6 +3064,30 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			repaint();
 		}
 		
+		boolean getClusterMarkers() { return clusterMarkers; }
+		void setClusterMarkers(boolean clusterMarkers) {
+			this.clusterMarkers = clusterMarkers;
+			AppSettings.getInstance().putBool(AppSettings.ValueKey.MapView_ClusterMarkers, this.clusterMarkers);
+			invalidateStaticLayers();
+		}
+		
+		/**
+		 * Returns the cluster level for current zoom or <code>null</code>, if markers should be drawn individually.
+		 */
+		private MapClusterGrid.Level<WorldObject> getClusterLevel()
+		{
+			if (!viewState.isOk()) return null;
+			return getClusterLevel(ScreenTransform.of(viewState));
+		}
+		
+		private MapClusterGrid.Level<WorldObject> getClusterLevel(ScreenTransform view)
+		{
+			if (!clusterMarkers) return null;
+			double scale = Math.abs(view.scaleX);
+			if (scale<=0) return null;
+			return mapModel.clusterGrid.getLevel(CLUSTER_CELL_SIZE_PX / scale);
+		}
+		
 		void setSpecCoords(Coord3 specCoords) { this.specCoords = specCoords; }
 		void clearSpecCoords() { this.specCoords = null; }
 		boolean hasSpecCoords() { return specCoords != null; }
@@ -1701,23 +3110,41 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		
 		private class MousePos
 		{
-			private final String[] output = { "" };
+			private String text = "";
 
-			synchronized String[] getText()
-			{
-				return output;
-			}
-
-			synchronized void setPos(Point mouse)
+			void setPos(Point mouse)
 			{
 				if (!viewState.isOk() || mouse==null)
-					output[0] = "";
+					text = "";
 				else {
 					double mapX = viewState.convertPos_ScreenToAngle_LongX(mouse.x);
 					double mapY = viewState.convertPos_ScreenToAngle_LatY (mouse.y);
-					output[0] = String.format(Locale.ENGLISH, "%1.1f : ## : %1.1f", mapY, mapX);
+					text = String.format(Locale.ENGLISH, "%1.1f : ## : %1.1f", mapY, mapX);
 				}
 			}
+			
+			Rectangle getBounds(Font font, FontRenderContext frc, Rectangle area)
+			{
+				if (text.isEmpty()) return null;
+				Rectangle2D textBounds = font.getStringBounds(text, frc);
+				return new Rectangle(
+						area.x + MOUSEPOS_TEXT_MARGIN,
+						area.y + MOUSEPOS_TEXT_MARGIN,
+						(int)Math.ceil(textBounds.getWidth ()) + 2*MOUSEPOS_TEXT_PADDING,
+						(int)Math.ceil(textBounds.getHeight()) + 2*MOUSEPOS_TEXT_PADDING
+				);
+			}
+			
+			void draw(Graphics2D g2, Rectangle area)
+			{
+				Rectangle box = getBounds(g2.getFont(), g2.getFontRenderContext(), area);
+				if (box==null) return;
+				Rectangle2D textBounds = g2.getFont().getStringBounds(text, g2.getFontRenderContext());
+				g2.setColor(COLOR_TOOLTIP_BACKGORUND);
+				g2.fillRect(box.x, box.y, box.width, box.height);
+				g2.setColor(COLOR_TOOLTIP_TEXT);
+				g2.drawString(text, (float)(box.x + MOUSEPOS_TEXT_PADDING - textBounds.getX()), (float)(box.y + MOUSEPOS_TEXT_PADDING - textBounds.getY()));
+			}
 		}
 		
 		private static class ToolTipBox {
@@ -1732,10 +3159,27 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				this.text = text;
 			}
 
+			private record Layout(int strX, int strY, Rectangle box) {}
+			
 			void draw(Graphics2D g2, int x, int y, int width, int height) {
+				Layout layout = computeLayout(g2.getFont(), g2.getFontRenderContext(), x, y, width, height);
+				Rectangle box = layout.box;
 				
-				Font font = g2.getFont();
-				FontRenderContext frc = g2.getFontRenderContext();
+				g2.setColor(COLOR_TOOLTIP_BACKGORUND);
+				g2.fillRect(box.x, box.y, box.width, box.height);
+				g2.setColor(COLOR_TOOLTIP_BORDER);
+				g2.drawRect(box.x-1, box.y-1, box.width+1, box.height+1);
+				g2.setColor(COLOR_TOOLTIP_TEXT);
+				g2.drawString(text, layout.strX, layout.strY);
+			}
+			
+			Rectangle getBounds(Font font, FontRenderContext frc, Rectangle area) {
+				Rectangle bounds = new Rectangle(computeLayout(font, frc, area.x, area.y, area.width, area.height).box);
+				bounds.grow(2,2); // border
+				return bounds;
+			}
+			
+			private Layout computeLayout(Font font, FontRenderContext frc, int x, int y, int width, int height) {
 				Rectangle2D textBounds = font.getStringBounds(text, frc);
 				
 				int textOffsetX =  1;
@@ -1761,12 +3205,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				int boxW = (int)Math.round(textBounds.getWidth ());
 				int boxH = (int)Math.round(textBounds.getHeight());
 				
-				g2.setColor(COLOR_TOOLTIP_BACKGORUND);
-				g2.fillRect(boxX, boxY, boxW, boxH);
-				g2.setColor(COLOR_TOOLTIP_BORDER);
-				g2.drawRect(boxX-1, boxY-1, boxW+1, boxH+1);
-				g2.setColor(COLOR_TOOLTIP_TEXT);
-				g2.drawString(text, strX, strY);
+				return new Layout(strX, strY, new Rectangle(boxX, boxY, boxW, boxH));
 			}
 
 			void setPos(Point pos) {
@@ -1781,8 +3220,144 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		@Override public void mouseEntered(MouseEvent e) { mousePosChanged(e.getPoint()); }
 		@Override public void mouseMoved  (MouseEvent e) { mousePosChanged(e.getPoint()); }
 		@Override public void mouseExited (MouseEvent e) { mousePosChanged(null); }
+		
+		@Override public void mousePressed(MouseEvent e) {
+			if (selectionTool==SelectionTool.None || !SwingUtilities.isLeftMouseButton(e) || !viewState.isOk()) {
+				super.mousePressed(e);
+				return;
+			}
+			selectionDraft = new Vector<>();
+			selectionDraft.add(toMapPos(e.getPoint()));
+			isAddingToSelection = e.isShiftDown();
+		}
+		
+		@Override public void mouseDragged(MouseEvent e) {
+			if (selectionDraft==null) {
+				super.mouseDragged(e);
+				return;
+			}
+			Point2D.Double pos = toMapPos(e.getPoint());
+			switch (selectionTool) {
+				case None: break;
+				case Box:
+					if (selectionDraft.size()>1) selectionDraft.set(1, pos);
+					else                         selectionDraft.add(pos);
+					break;
+				case Lasso:
+					Point2D.Double last = selectionDraft.lastElement();
+					double minDist = LASSO_POINT_MIN_DIST / Math.abs(ScreenTransform.of(viewState).scaleX);
+					if (last.distance(pos) >= minDist)
+						selectionDraft.add(pos);
+					break;
+			}
+			mousePosChanged(e.getPoint());
+			repaint();
+		}
+		
+		@Override public void mouseReleased(MouseEvent e) {
+			if (selectionDraft==null) {
+				super.mouseReleased(e);
+				return;
+			}
+			Shape selectionShape = createSelectionShape(selectionDraft);
+			selectionDraft = null;
+			
+			if (!isAddingToSelection)
+				selectedObjects.clear();
+			if (selectionShape!=null)
+				selectedObjects.or(mapModel.findObjects(selectionShape));
+			selectionChanged();
+		}
+		
+		private Point2D.Double toMapPos(Point screenPos) {
+			return new Point2D.Double(
+					viewState.convertPos_ScreenToAngle_LongX(screenPos.x),
+					viewState.convertPos_ScreenToAngle_LatY (screenPos.y)
+			);
+		}
+		
+		private Shape createSelectionShape(Vector<Point2D.Double> points) {
+			if (points.size()<2) return null;
+			switch (selectionTool) {
+				case None: break;
+				case Box: {
+					Point2D.Double p0 = points.get(0);
+					Point2D.Double p1 = points.get(1);
+					return new Rectangle2D.Double(Math.min(p0.x,p1.x), Math.min(p0.y,p1.y), Math.abs(p1.x-p0.x), Math.abs(p1.y-p0.y));
+				}
+				case Lasso: {
+					if (points.size()<3) return null;
+					Path2D.Double path = new Path2D.Double();
+					path.moveTo(points.get(0).x, points.get(0).y);
+					for (int i=1; i<points.size(); i++)
+						path.lineTo(points.get(i).x, points.get(i).y);
+					path.closePath();
+					return path;
+				}
+			}
+			return null;
+		}
+		
+		void setSelectionTool(SelectionTool selectionTool) {
+			this.selectionTool = selectionTool==null ? SelectionTool.None : selectionTool;
+			if (selectionDraft!=null) {
+				selectionDraft = null;
+				repaint();
+			}
+		}
+		
+		void setProposedAreas(Vector<Vector<Point2D.Double>> proposedAreas) {
+			this.proposedAreas = proposedAreas;
+			repaint();
+		}
+		
+		void setBaseOutline(Vector<Point2D.Double> baseOutline) {
+			this.baseOutline = baseOutline;
+			repaint();
+		}
+		
+		ObjectTimeline.State getPlaybackState() {
+			return playbackState;
+		}
+		
+		void setPlaybackState(ObjectTimeline.State playbackState) {
+			this.playbackState = playbackState;
+			repaint();
+		}
+		
+		RoutePlanner.Route getRoute() {
+			return route;
+		}
+		
+		void setRoute(RoutePlanner.Route route) {
+			this.route = route;
+			repaint();
+		}
+		
+		void setSelectionListener(IntConsumer selectionListener) {
+			this.selectionListener = selectionListener;
+		}
+		
+		Vector<WorldObject> getSelectedObjects() {
+			Vector<WorldObject> objects = new Vector<>();
+			for (int i=selectedObjects.nextSetBit(0); i>=0; i=selectedObjects.nextSetBit(i+1))
+				objects.add(mapModel.displayableObjects.get(i));
+			return objects;
+		}
+		
+		void clearSelection() {
+			selectedObjects.clear();
+			selectionChanged();
+		}
+		
+		private void selectionChanged() {
+			repaint();
+			if (selectionListener!=null)
+				selectionListener.accept(selectedObjects.cardinality());
+		}
 
 		private void mousePosChanged(Point mouse) {
+			Rectangle prevOverlayBounds = getOverlayBounds();
 			currentMousePos.setPos(mouse);
 			
 			NearestObject nearestObject = getNearestObject(mouse);
@@ -1799,7 +3374,44 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			} else if (toolTipBox!=null) {
 				toolTipBox = null;
 			}
-			repaint();
+			
+			// only hover marker, tooltip and mouse position text have changed
+			if (paintArea==null)
+				repaint();
+			else {
+				Rectangle dirty = union(prevOverlayBounds, getOverlayBounds());
+				if (dirty!=null) repaint(dirty);
+			}
+		}
+		
+		/**
+		 * Returns the screen bounds of hover marker, tooltip and mouse position text or <code>null</code>, if nothing of them is shown.
+		 */
+		private Rectangle getOverlayBounds()
+		{
+			if (paintArea==null) return null;
+			Rectangle bounds = currentMousePos.getBounds(paintFont, paintFRC, paintArea);
+			if (toolTipBox!=null)
+				bounds = union(bounds, toolTipBox.getBounds(paintFont, paintFRC, paintArea));
+			if (hoveredObject!=null && viewState.isOk())
+			{
+				Data.MapPos pos = hoveredObject.wo!=null ? hoveredObject.wo.position : hoveredObject.cluster!=null ? hoveredObject.cluster : hoveredObject.coord;
+				if (pos!=null)
+				{
+					int screenX = viewState.convertPos_AngleToScreen_LongX(pos.getMapX());
+					int screenY = viewState.convertPos_AngleToScreen_LatY (pos.getMapY());
+					int r = HOVER_MARKER_RADIUS;
+					bounds = union(bounds, new Rectangle(screenX-r, screenY-r, 2*r+1, 2*r+1));
+				}
+			}
+			return bounds;
+		}
+		
+		private static Rectangle union(Rectangle r1, Rectangle r2)
+		{
+			if (r1==null) return r2;
+			if (r2==null) return r1;
+			return r1.union(r2);
 		}
 
 		private NearestObject getNearestObject(Point mouse) {
@@ -1809,11 +3421,12 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			double x = viewState.convertPos_ScreenToAngle_LongX(mouse.x);
 			double y = viewState.convertPos_ScreenToAngle_LatY (mouse.y);
 			
-			return mapModel.getNearestObject(x, y, dist->{
-				Double dist_screen = viewState.convertLength_LengthToScreenF(dist);
-				if (dist_screen==null) return false;
-				return dist_screen <= NEAREST_OBJECT_MAX_DIST;
-			});
+			double maxDist = Math.max(
+					Math.abs( viewState.convertPos_ScreenToAngle_LongX(mouse.x+NEAREST_OBJECT_MAX_DIST) - x ),
+					Math.abs( viewState.convertPos_ScreenToAngle_LatY (mouse.y+NEAREST_OBJECT_MAX_DIST) - y )
+			);
+			
+			return mapModel.getNearestObject(x, y, maxDist, hoveredObject, getClusterLevel());
 		}
 
 		protected void updateOverviewImage() {
@@ -1840,56 +3453,36 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				
 				Shape prevClip = g2.getClip();
 				Rectangle clip = new Rectangle(x, y, width, height);
+				Rectangle dirtyRegion = g2.getClipBounds();
+				if (dirtyRegion!=null) clip = clip.intersection(dirtyRegion);
 				g2.setClip(clip);
 				
-				if (mapModel.range!=null) {
-					int screenX0 = /*x+*/viewState.convertPos_AngleToScreen_LongX(mapModel.range.x);
-					int screenY0 = /*y+*/viewState.convertPos_AngleToScreen_LatY (mapModel.range.y);
-					int screenX1 = /*x+*/viewState.convertPos_AngleToScreen_LongX(mapModel.range.x+mapModel.range.width);
-					int screenY1 = /*y+*/viewState.convertPos_AngleToScreen_LatY (mapModel.range.y+mapModel.range.height);
-					if (screenX0>screenX1) { int temp=screenX0; screenX0=screenX1; screenX1=temp; }
-					if (screenY0>screenY1) { int temp=screenY0; screenY0=screenY1; screenY1=temp; }
-					g2.setColor(COLOR_MAP_BACKGROUND);
-					g2.fillRect(screenX0, screenY0, screenX1-screenX0, screenY1-screenY0);
-					if (mapBackgroundImage!=null)
-						mapBackgroundImage.drawImage(g2, x, y, width, height);
-					g2.setColor(COLOR_MAP_BORDER);
-					g2.drawRect(screenX0-1, screenY0-1, screenX1-screenX0+1, screenY1-screenY0+1);
-				}
-				else
-					if (mapBackgroundImage!=null)
-						mapBackgroundImage.drawImage(g2, x, y, width, height);
+				paintArea = new Rectangle(x, y, width, height);
+				paintFont = g2.getFont();
+				paintFRC = g2.getFontRenderContext();
 				
-				if (showWreckAreas)
+				drawStaticLayerTiles(g2, clip, this::drawWreckLayers);
+				
+				if (playbackState!=null)
+					drawPlaybackState(g2, ScreenTransform.of(viewState), clip, playbackState);
+				
+				if (proposedAreas!=null)
 				{
-					FarWreckAreas farWreckAreas = FarWreckAreas.getInstance();
-					Vector<WreckArea> wreckAreas = farWreckAreas.getAreas(planet);
-					WreckArea editableArea = farWreckAreas.getEditableArea();
-					
-					for (WreckArea area : wreckAreas)
-						if (area.isVisible)
-							drawWreckArea(g2, viewState, clip, area, editableArea==area);
+					ScreenTransform view = ScreenTransform.of(viewState);
+					Stroke stroke = new BasicStroke(1.5f);
+					for (Vector<Point2D.Double> hull : proposedAreas)
+						drawPolygon(g2, view, clip, hull, COLOR_WRECKAREA_PROPOSED, stroke);
 				}
 				
-				for (Data.Coord3 pos : mapModel.wreckPositions)
-					drawMapPoint(g2, clip, pos, COLOR_WRECK);
+				if (baseOutline!=null)
+					drawPolygon(g2, ScreenTransform.of(viewState), clip, baseOutline, COLOR_BASE_OUTLINE, new BasicStroke(2f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 1, new float[] { 6.0f, 4.0f }, 0));
 				
-				drawShapes(g2);
+				if (route!=null)
+					drawRoute(g2, ScreenTransform.of(viewState), route);
 				
-				HashMap<String,Boolean> showMarkerCache = new HashMap<>();
-				for (WorldObject wo : mapModel.displayableObjects)
-					if ((hoveredObject==null || wo!=hoveredObject.wo) && wo!=extraShownObject && !mapModel.isHighlighted(wo) && shouldShowMarker(showMarkerCache,wo)) {
-						Color fill = wo.isMarkedForRemoval() ? COLOR_WORLDOBJECT_FILL_REMOVAL : COLOR_WORLDOBJECT_FILL;
-						drawObjectMarker(g2, clip, wo, COLOR_WORLDOBJECT_CONTOUR, fill);
-					}
-				
-				for (WorldObject wo : mapModel.displayableObjects)
-					if ((hoveredObject==null || wo!=hoveredObject.wo) && wo!=extraShownObject && mapModel.isHighlighted(wo))
-						drawObjectMarker(g2, clip, wo, COLOR_WORLDOBJECT_CONTOUR, mapModel.getHighlightColor(wo));
+				drawCoordinates(g2, ScreenTransform.of(viewState), clip, mapModel.coordinatesToShowIndex, COLOR_SPECCOORDS);
 				
-				for (Coordinate coord : mapModel.coordinatesToShow)
-					if ((hoveredObject==null || coord!=hoveredObject.coord))
-						drawMapPoint(g2, clip, coord, COLOR_SPECCOORDS);
+				drawSelection(g2, clip);
 				
 				if (extraShownObject!=null && (hoveredObject==null || extraShownObject!=hoveredObject.wo))
 					drawObjectMarker(g2, clip, extraShownObject, COLOR_WORLDOBJECT_CONTOUR, COLOR_WORLDOBJECT_FILL_EXTRA_SHOWN);
@@ -1898,6 +3491,8 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				{
 					if (hoveredObject.wo!=null)
 						drawObjectMarker(g2, clip, hoveredObject.wo, COLOR_WORLDOBJECT_CONTOUR, COLOR_WORLDOBJECT_FILL_HOVERED);
+					if (hoveredObject.cluster!=null)
+						drawClusterGlyph(g2, clip, hoveredObject.cluster, COLOR_WORLDOBJECT_FILL_HOVERED);
 					if (hoveredObject.coord!=null)
 					{
 						drawMapPoint(g2, clip, hoveredObject.coord, COLOR_SPECCOORDS);
@@ -1906,7 +3501,7 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				}
 				
 				if (mapModel.playerPosition!=null)
-					drawPlayerPosition(g2, clip, mapModel.playerPosition, mapModel.playerOrientation, COLOR_WORLDOBJECT_CONTOUR, COLOR_PLAYERPOS);
+					drawPlayerPosition(g2, clip, ScreenTransform.of(viewState), mapModel.playerPosition, mapModel.playerOrientation, COLOR_WORLDOBJECT_CONTOUR, COLOR_PLAYERPOS);
 				
 				if (specCoords!=null)
 					drawMapPoint(g2, clip, specCoords, COLOR_SPECCOORDS);
@@ -1915,12 +3510,579 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 					toolTipBox.draw(g2, x, y, width, height);
 				
 				drawMapDecoration(g2, x, y, width, height);
+				currentMousePos.draw(g2, paintArea);
 				
 				g2.setClip(prevClip);
 			}
 		}
 
+		/**
+		 * Draws only the coordinates inside of <code>clip</code>, that are found via <code>index</code>.
+		 * If there are too many, only one small marker per screen cell is drawn.
+		 */
+		private static void drawCoordinates(Graphics2D g2, ScreenTransform view, Rectangle clip, MapSpatialIndex<Coordinate> index, Color color)
+		{
+			double x0 = view.toMapX(clip.x), x1 = view.toMapX(clip.x+clip.width );
+			double y0 = view.toMapY(clip.y), y1 = view.toMapY(clip.y+clip.height);
+			double minX = Math.min(x0,x1), maxX = Math.max(x0,x1);
+			double minY = Math.min(y0,y1), maxY = Math.max(y0,y1);
+			
+			int[] count = { 0 };
+			index.forEachInRect(minX, minY, maxX, maxY, i -> count[0]++);
+			if (count[0]==0) return;
+			
+			if (count[0] <= COORDINATES_LOD_THRESHOLD)
+			{
+				index.forEachInRect(minX, minY, maxX, maxY, i -> drawMapPoint(g2, view, clip, index.getX(i), index.getY(i), color, 10));
+				return;
+			}
+			
+			int nCols = clip.width /COORDINATES_LOD_CELL_SIZE_PX + 1;
+			int nRows = clip.height/COORDINATES_LOD_CELL_SIZE_PX + 1;
+			BitSet occupiedCells = new BitSet(nCols*nRows);
+			g2.setColor(color);
+			index.forEachInRect(minX, minY, maxX, maxY, i -> {
+				int x = view.toScreenX(index.getX(i));
+				int y = view.toScreenY(index.getY(i));
+				if (!clip.contains(x,y)) return;
+				int cell = (y-clip.y)/COORDINATES_LOD_CELL_SIZE_PX * nCols + (x-clip.x)/COORDINATES_LOD_CELL_SIZE_PX;
+				if (occupiedCells.get(cell)) return;
+				occupiedCells.set(cell);
+				g2.drawLine(x-1, y-1, x+1, y+1);
+				g2.drawLine(x+1, y-1, x-1, y+1);
+			});
+		}
+
+		/**
+		 * Covers the current map with a veil and draws the objects and the player trail of a past state above it.
+		 */
+		private static void drawPlaybackState(Graphics2D g2, ScreenTransform view, Rectangle clip, ObjectTimeline.State state)
+		{
+			g2.setColor(COLOR_TIMELINE_VEIL);
+			g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+			
+			g2.setColor(COLOR_TIMELINE_OBJECT);
+			for (ObjectTimeline.ObjectEntry entry : state.objects())
+			{
+				int x = view.toScreenX(entry.getMapX());
+				int y = view.toScreenY(entry.getMapY());
+				if (clip.contains(x,y)) g2.fillRect(x-1, y-1, 3, 3);
+			}
+			
+			g2.setColor(COLOR_TIMELINE_ADDED);
+			for (ObjectTimeline.ObjectEntry entry : state.addedObjects())
+			{
+				int x = view.toScreenX(entry.getMapX());
+				int y = view.toScreenY(entry.getMapY());
+				if (clip.contains(x,y)) g2.fillOval(x-3, y-3, 7, 7);
+			}
+			
+			Vector<Point2D.Float> trail = state.playerTrail();
+			if (trail.isEmpty()) return;
+			int[] xs = trail.stream().mapToInt(p -> view.toScreenX(p.x)).toArray();
+			int[] ys = trail.stream().mapToInt(p -> view.toScreenY(p.y)).toArray();
+			Stroke prevStroke = g2.getStroke();
+			g2.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+			g2.setColor(COLOR_PLAYER_TRAIL);
+			g2.drawPolyline(xs, ys, xs.length);
+			g2.setStroke(prevStroke);
+			drawMapPoint(g2, view, clip, trail.lastElement().x, trail.lastElement().y, COLOR_PLAYERPOS, 5);
+		}
+
+		private static void drawRoute(Graphics2D g2, ScreenTransform view, RoutePlanner.Route route)
+		{
+			int[] order = route.order();
+			int[] xs = new int[order.length+1];
+			int[] ys = new int[order.length+1];
+			xs[0] = view.toScreenX(route.start().getMapX());
+			ys[0] = view.toScreenY(route.start().getMapY());
+			for (int i=0; i<order.length; i++)
+			{
+				Data.MapPos pos = route.stops().get(order[i]);
+				xs[i+1] = view.toScreenX(pos.getMapX());
+				ys[i+1] = view.toScreenY(pos.getMapY());
+			}
+			
+			Stroke prevStroke = g2.getStroke();
+			g2.setStroke(new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+			g2.setColor(COLOR_ROUTE);
+			g2.drawPolyline(xs, ys, xs.length);
+			g2.setStroke(prevStroke);
+		}
+
+		private void drawSelection(Graphics2D g2, Rectangle clip)
+		{
+			ScreenTransform view = ScreenTransform.of(viewState);
+			for (int i=selectedObjects.nextSetBit(0); i>=0; i=selectedObjects.nextSetBit(i+1))
+				drawObjectMarker(g2, clip, view, mapModel.displayableObjects.get(i).position, COLOR_WORLDOBJECT_CONTOUR, COLOR_WORLDOBJECT_FILL_SELECTED);
+			
+			if (selectionDraft==null || selectionDraft.size()<2) return;
+			
+			Stroke prevStroke = g2.getStroke();
+			g2.setStroke(new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 1, new float[] { 4.0f, 4.0f }, 0));
+			g2.setColor(COLOR_SELECTION_OUTLINE);
+			if (selectionTool==SelectionTool.Box)
+			{
+				int x0 = view.toScreenX(selectionDraft.get(0).x), y0 = view.toScreenY(selectionDraft.get(0).y);
+				int x1 = view.toScreenX(selectionDraft.get(1).x), y1 = view.toScreenY(selectionDraft.get(1).y);
+				g2.drawRect(Math.min(x0,x1), Math.min(y0,y1), Math.abs(x1-x0), Math.abs(y1-y0));
+			}
+			else
+			{
+				int[] xPoints = selectionDraft.stream().mapToInt(p->view.toScreenX(p.x)).toArray();
+				int[] yPoints = selectionDraft.stream().mapToInt(p->view.toScreenY(p.y)).toArray();
+				g2.drawPolygon(xPoints, yPoints, xPoints.length);
+			}
+			g2.setStroke(prevStroke);
+		}
+
+		/**
+		 * Draws background tiles, then <code>drawIntermediateLayers</code>, then object tiles.
+		 */
+		private void drawStaticLayerTiles(Graphics2D g2, Rectangle clip, BiConsumer<Graphics2D,Rectangle> drawIntermediateLayers)
+		{
+			TileLayout layout = tileLayout = TileLayout.of(ScreenTransform.of(viewState));
+			cancelRenderJobs(job -> !job.layout.hasSameTiles(layout)); // superseded by a change of zoom
+			
+			int col0 = layout.getCol(clip.x);
+			int col1 = layout.getCol(clip.x+clip.width -1);
+			int row0 = layout.getRow(clip.y);
+			int row1 = layout.getRow(clip.y+clip.height-1);
+			
+			Tile[][] tiles = new Tile[row1-row0+1][col1-col0+1];
+			HashSet<TileKey> unscheduledKeys = new HashSet<>();
+			Rectangle unscheduledArea = null;
+			boolean isComplete = true;
+			for (int row=row0; row<=row1; row++)
+				for (int col=col0; col<=col1; col++)
+				{
+					TileKey key = layout.getKey(col, row);
+					Tile tile = tiles[row-row0][col-col0] = tileCache.get(key);
+					if (tile!=null) continue;
+					isComplete = false;
+					if (getRenderJob(key)!=null) continue;
+					
+					unscheduledKeys.add(key);
+					Rectangle tileRect = layout.getTileRect(col, row);
+					if (unscheduledArea==null) unscheduledArea = tileRect;
+					else                       unscheduledArea.add(tileRect);
+				}
+			
+			if (unscheduledArea!=null)
+			{
+				// all unscheduled tiles are rendered in one job
+				RenderJob job = new RenderJob(layout, unscheduledKeys, unscheduledArea, g2.getRenderingHints(), getRenderState());
+				renderJobs.add(job);
+				renderThread.execute(job);
+			}
+			
+			if (isComplete)
+				lastFrame = null;
+			else
+			{
+				// while rendering is in flight: last complete frame or coarse result of render job
+				for (int row=row0; row<=row1; row++)
+					for (int col=col0; col<=col1; col++)
+						if (tiles[row-row0][col-col0]==null && lastFrame!=null)
+						{
+							RenderJob job = getRenderJob(layout.getKey(col, row));
+							if (job==null || job.coarseImage==null)
+								drawLastFrame(g2, layout.view, layout.getTileRect(col, row).intersection(clip));
+						}
+				for (RenderJob job : renderJobs)
+					if (job.coarseImage!=null)
+						g2.drawImage(
+								job.coarseImage,
+								job.area.x + layout.originX - job.layout.originX,
+								job.area.y + layout.originY - job.layout.originY,
+								null
+						);
+			}
+			
+			for (int row=row0; row<=row1; row++)
+				for (int col=col0; col<=col1; col++)
+					if (tiles[row-row0][col-col0]!=null)
+						g2.drawImage(tiles[row-row0][col-col0].background, layout.originX+col*TILE_SIZE, layout.originY+row*TILE_SIZE, null);
+			
+			drawIntermediateLayers.accept(g2, clip);
+			
+			for (int row=row0; row<=row1; row++)
+				for (int col=col0; col<=col1; col++)
+					if (tiles[row-row0][col-col0]!=null)
+						g2.drawImage(tiles[row-row0][col-col0].objects, layout.originX+col*TILE_SIZE, layout.originY+row*TILE_SIZE, null);
+		}
+		
+		/**
+		 * Static layers can be drawn outside of the EDT.
+		 */
+		private void drawBackgroundLayer(Graphics2D g2, Rectangle clip, ScreenTransform view)
+		{
+			if (mapModel.range!=null) {
+				int screenX0 = view.toScreenX(mapModel.range.x);
+				int screenY0 = view.toScreenY(mapModel.range.y);
+				int screenX1 = view.toScreenX(mapModel.range.x+mapModel.range.width);
+				int screenY1 = view.toScreenY(mapModel.range.y+mapModel.range.height);
+				if (screenX0>screenX1) { int temp=screenX0; screenX0=screenX1; screenX1=temp; }
+				if (screenY0>screenY1) { int temp=screenY0; screenY0=screenY1; screenY1=temp; }
+				g2.setColor(COLOR_MAP_BACKGROUND);
+				g2.fillRect(screenX0, screenY0, screenX1-screenX0, screenY1-screenY0);
+				if (mapBackgroundImage!=null)
+					mapBackgroundImage.drawImage(g2, view, clip);
+				g2.setColor(COLOR_MAP_BORDER);
+				g2.drawRect(screenX0-1, screenY0-1, screenX1-screenX0+1, screenY1-screenY0+1);
+			}
+			else
+				if (mapBackgroundImage!=null)
+					mapBackgroundImage.drawImage(g2, view, clip);
+		}
+		
+		private void drawHeatmapLayer(Graphics2D g2, Rectangle clip, ScreenTransform view)
+		{
+			MapHeatmap<WorldObject> heatmap = mapModel.heatmap;
+			if (heatmap==null) return;
+			
+			MapHeatmap.Field field = heatmap.getField(HEATMAP_CELL_SIZE_PX / Math.abs(view.scaleX));
+			if (field==null) return;
+			
+			AffineTransform transform = new AffineTransform();
+			transform.translate(view.originX, view.originY);
+			transform.scale(view.scaleX, view.scaleY);
+			transform.translate(field.minX(), field.minY());
+			transform.scale(field.cellSize(), field.cellSize());
+			
+			Object origInterpolation = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			MapBackgroundImage.drawClippedImage(g2, field.image(), transform, clip);
+			if (origInterpolation!=null) g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, origInterpolation);
+		}
+		
+		private void drawObjectLayer(Graphics2D g2, Rectangle clip, ScreenTransform view, RenderState state, RenderJob job)
+		{
+			// only objects, whose shape or marker may intersect clip, are drawn
+			double mapX0 = view.toMapX(clip.x);
+			double mapX1 = view.toMapX(clip.x+clip.width);
+			double mapY0 = view.toMapY(clip.y);
+			double mapY1 = view.toMapY(clip.y+clip.height);
+			
+			MapClusterGrid.Level<WorldObject> clusterLevel = getClusterLevel(view);
+			if (clusterLevel!=null)
+			{
+				// level of detail: one glyph per cluster, no shapes
+				clusterLevel.index().forEachInRect(
+						Math.min(mapX0,mapX1), Math.min(mapY0,mapY1),
+						Math.max(mapX0,mapX1), Math.max(mapY0,mapY1),
+						i -> {
+							if (isCancelled(job)) return;
+							MapClusterGrid.Cluster<WorldObject> cluster = clusterLevel.index().get(i);
+							if (cluster.members().size()==1)
+							{
+								WorldObject wo = cluster.members().get(0);
+								int index = mapModel.getDisplayIndex(wo);
+								Color fill = state.isHighlighted(index) ? state.getHighlightColor(index) : state.isMarkedForRemoval(index) ? COLOR_WORLDOBJECT_FILL_REMOVAL : COLOR_WORLDOBJECT_FILL;
+								drawObjectMarker(g2, clip, view, wo.position, COLOR_WORLDOBJECT_CONTOUR, fill);
+							}
+							else
+								drawClusterGlyph(g2, clip, view, cluster, getDominantColor(cluster, state));
+						}
+				);
+				return;
+			}
+			
+			double maxRadius = state.maxShapeRadius;
+			BitSet visibleObjects = new BitSet(mapModel.displayableObjects.size());
+			mapModel.displayableObjectsIndex.forEachInRect(
+					Math.min(mapX0,mapX1)-maxRadius, Math.min(mapY0,mapY1)-maxRadius,
+					Math.max(mapX0,mapX1)+maxRadius, Math.max(mapY0,mapY1)+maxRadius,
+					visibleObjects::set
+			);
+			
+			drawShapes(g2, clip, view, visibleObjects, state, job);
+			if (isCancelled(job)) return;
+			
+			for (int i=visibleObjects.nextSetBit(0); i>=0 && !isCancelled(job); i=visibleObjects.nextSetBit(i+1)) {
+				WorldObject wo = mapModel.displayableObjects.get(i);
+				if (!state.isHighlighted(i) && state.showMarker(wo)) {
+					Color fill = state.isMarkedForRemoval(i) ? COLOR_WORLDOBJECT_FILL_REMOVAL : COLOR_WORLDOBJECT_FILL;
+					drawObjectMarker(g2, clip, view, wo.position, COLOR_WORLDOBJECT_CONTOUR, fill);
+				}
+			}
+			
+			for (int i=visibleObjects.nextSetBit(0); i>=0 && !isCancelled(job); i=visibleObjects.nextSetBit(i+1)) {
+				if (state.isHighlighted(i))
+					drawObjectMarker(g2, clip, view, mapModel.displayableObjects.get(i).position, COLOR_WORLDOBJECT_CONTOUR, state.getHighlightColor(i));
+			}
+		}
+
+		/**
+		 * Returns a ScreenTransform, that maps the whole map range to an image of given width
+		 * (axis directions as in this view), or <code>null</code>, if there is no map range.
+		 */
+		ScreenTransform createExportTransform(double imageWidth)
+		{
+			Rectangle2D.Double range = mapModel.range;
+			if (range==null || !viewState.isOk() || range.width<=0 || range.height<=0) return null;
+			
+			ScreenTransform current = ScreenTransform.of(viewState);
+			double scale = imageWidth / range.width;
+			double scaleX = Math.signum(current.scaleX) * scale;
+			double scaleY = Math.signum(current.scaleY) * scale;
+			return new ScreenTransform(
+					-(scaleX>0 ? range.x : range.x+range.width ) * scaleX,
+					-(scaleY>0 ? range.y : range.y+range.height) * scaleY,
+					scaleX, scaleY
+			);
+		}
+		
+		int getExportHeight(ScreenTransform view)
+		{
+			return mapModel.range==null ? 0 : (int)Math.ceil(mapModel.range.height * Math.abs(view.scaleY));
+		}
+		
+		double getExportWidth_MapUnits()
+		{
+			return mapModel.range==null ? 0 : mapModel.range.width;
+		}
+		
+		/**
+		 * Renders the map into a PNG file without using the EDT.<br>
+		 * Rows of tiles are rendered in parallel and streamed to the file one by one,
+		 * so the whole image is never in memory. Stops, if current thread is interrupted.
+		 * @return <code>true</code>, if the image was completely written
+		 */
+		boolean exportPNG(File file, ScreenTransform view, RenderState state, int width, int height, IntConsumer setFinishedRows) throws IOException
+		{
+			int nCols = (width+TILE_SIZE-1) / TILE_SIZE;
+			Thread thread = Thread.currentThread();
+			boolean isComplete;
+			
+			try (PngStreamWriter pngWriter = new PngStreamWriter(new BufferedOutputStream(new FileOutputStream(file)), width, height))
+			{
+				for (int bandY=0; bandY<height; bandY+=TILE_SIZE)
+				{
+					if (thread.isInterrupted()) break;
+					int bandHeight = Math.min(TILE_SIZE, height-bandY);
+					int[] bandPixels = new int[width*bandHeight];
+					
+					int bandY_ = bandY;
+					IntStream.range(0, nCols).parallel().forEach(col -> {
+						if (thread.isInterrupted()) return;
+						int tileX = col*TILE_SIZE;
+						int tileWidth = Math.min(TILE_SIZE, width-tileX);
+						BufferedImage tile = renderExportTile(view, state, new Rectangle(tileX, bandY_, tileWidth, bandHeight));
+						int[] tilePixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+						for (int row=0; row<bandHeight; row++)
+							System.arraycopy(tilePixels, row*tileWidth, bandPixels, row*width+tileX, tileWidth);
+					});
+					if (thread.isInterrupted()) break;
+					
+					pngWriter.writeRows(bandPixels, 0, width, bandHeight);
+					setFinishedRows.accept(bandY+bandHeight);
+				}
+				isComplete = pngWriter.getWrittenRows()==height;
+			}
+			
+			if (!isComplete) // incomplete image isn't kept
+				file.delete();
+			return isComplete;
+		}
+		
+		private BufferedImage renderExportTile(ScreenTransform view, RenderState state, Rectangle tileRect)
+		{
+			BufferedImage tile = new BufferedImage(tileRect.width, tileRect.height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2 = tile.createGraphics();
+			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g2.translate(-tileRect.x, -tileRect.y);
+			g2.setClip(tileRect);
+			
+			Rectangle clip = new Rectangle(tileRect);
+			clip.grow(TILE_RENDER_MARGIN, TILE_RENDER_MARGIN);
+			drawBackgroundLayer(g2, clip, view);
+			drawHeatmapLayer   (g2, clip, view);
+			
+			if (showWreckAreas)
+				for (WreckArea area : FarWreckAreas.getInstance().getAreas(planet))
+					if (area.isVisible)
+						drawWreckArea(g2, view, clip, area, false);
+			
+			for (Data.Coord3 pos : mapModel.wreckPositions)
+				drawMapPoint(g2, view, clip, pos.getMapX(), pos.getMapY(), COLOR_WRECK, 10);
+			
+			drawObjectLayer    (g2, clip, view, state, null);
+			
+			drawCoordinates(g2, view, clip, mapModel.coordinatesToShowIndex, COLOR_SPECCOORDS);
+			
+			if (mapModel.playerPosition!=null)
+				drawPlayerPosition(g2, clip, view, mapModel.playerPosition, mapModel.playerOrientation, COLOR_WORLDOBJECT_CONTOUR, COLOR_PLAYERPOS);
+			
+			g2.dispose();
+			return tile;
+		}
+
+		/**
+		 * Writes shapes, markers and wreck areas as SVG file without using the EDT.<br>
+		 * Every shape is written once as a symbol and referenced by its objects, so the file stays small.
+		 * Stops, if current thread is interrupted.
+		 * @return <code>true</code>, if the file was completely written
+		 */
+		boolean exportSVG(File file, ScreenTransform view, RenderState state, double width, double height) throws IOException
+		{
+			Thread thread = Thread.currentThread();
+			Vector<WorldObject> objects = mapModel.displayableObjects;
+			
+			HashMap<ShapeInfo,String> symbolIDs = new HashMap<>();
+			for (WorldObject wo : objects)
+			{
+				ShapeInfo shapeInfo = state.getShapeInfo(wo);
+				if (shapeInfo!=null && !symbolIDs.containsKey(shapeInfo))
+					symbolIDs.put(shapeInfo, "shape"+symbolIDs.size());
+			}
+			
+			boolean isComplete = false;
+			try (SvgStreamWriter svgWriter = new SvgStreamWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)), width, height))
+			{
+				svgWriter.beginDefs();
+				for (Map.Entry<ShapeInfo,String> entry : symbolIDs.entrySet())
+					svgWriter.writeSymbol(entry.getValue(), entry.getKey().path);
+				svgWriter.writeCircleSymbol("marker", 3, COLOR_WORLDOBJECT_CONTOUR);
+				svgWriter.endDefs();
+				
+				if (showWreckAreas)
+				{
+					svgWriter.beginGroup("wreckAreas", null);
+					for (WreckArea area : FarWreckAreas.getInstance().getAreas(planet))
+						if (area.isVisible && area.points.size()==1)
+							svgWriter.writeCross(view.toScreenXf(area.points.get(0).x), view.toScreenYf(area.points.get(0).y), 6, COLOR_WRECK);
+						else if (area.isVisible && !area.points.isEmpty())
+						{
+							double[] xPoints = area.points.stream().mapToDouble(p->view.toScreenXf(p.x)).toArray();
+							double[] yPoints = area.points.stream().mapToDouble(p->view.toScreenYf(p.y)).toArray();
+							svgWriter.writePolygon(xPoints, yPoints, COLOR_WRECK, 0.7, "6 3");
+						}
+					svgWriter.endGroup();
+				}
+				
+				svgWriter.beginGroup("wrecks", null);
+				for (Data.Coord3 pos : mapModel.wreckPositions)
+					svgWriter.writeCross(view.toScreenXf(pos.getMapX()), view.toScreenYf(pos.getMapY()), 10, COLOR_WRECK);
+				svgWriter.endGroup();
+				
+				svgWriter.beginGroup("shapes", COLOR_MAPSHAPE_BASE);
+				AffineTransform transform = new AffineTransform();
+				for (int i=0; i<objects.size() && !thread.isInterrupted(); i++)
+				{
+					WorldObject wo = objects.get(i);
+					ShapeInfo shapeInfo = state.getShapeInfo(wo);
+					if (shapeInfo==null) continue;
+					
+					transform.setToTranslation(view.toScreenXf(wo.position.getMapX()), view.toScreenYf(wo.position.getMapY()));
+					transform.concatenate(wo.mapWorldObjectData.mapTransform);
+					transform.scale(view.scaleX, view.scaleY);
+					svgWriter.writeUse(symbolIDs.get(shapeInfo), transform);
+				}
+				svgWriter.endGroup();
+				
+				svgWriter.beginGroup("markers", null);
+				for (int i=0; i<objects.size() && !thread.isInterrupted(); i++)
+				{
+					WorldObject wo = objects.get(i);
+					if (!state.isHighlighted(i) && state.showMarker(wo))
+					{
+						Color fill = state.isMarkedForRemoval(i) ? COLOR_WORLDOBJECT_FILL_REMOVAL : COLOR_WORLDOBJECT_FILL;
+						svgWriter.writeUse("marker", view.toScreenXf(wo.position.getMapX()), view.toScreenYf(wo.position.getMapY()), fill);
+					}
+				}
+				for (int i=0; i<objects.size() && !thread.isInterrupted(); i++)
+					if (state.isHighlighted(i))
+					{
+						WorldObject wo = objects.get(i);
+						svgWriter.writeUse("marker", view.toScreenXf(wo.position.getMapX()), view.toScreenYf(wo.position.getMapY()), state.getHighlightColor(i));
+					}
+				svgWriter.endGroup();
+				
+				isComplete = !thread.isInterrupted();
+			}
+			
+			if (!isComplete) // incomplete file isn't kept
+				file.delete();
+			return isComplete;
+		}
+
+		/**
+		 * Returns the most frequent highlight color of the members of a cluster
+		 * or the default fill color, if no member is highlighted.
+		 */
+		private Color getDominantColor(MapClusterGrid.Cluster<WorldObject> cluster, RenderState state)
+		{
+			HashMap<Color,Integer> counts = new HashMap<>();
+			Color dominantColor = null;
+			int maxCount = 0;
+			for (WorldObject wo : cluster.members())
+			{
+				int index = mapModel.getDisplayIndex(wo);
+				if (!state.isHighlighted(index)) continue;
+				Color color = state.getHighlightColor(index);
+				if (color==null) continue;
+				int count = counts.merge(color, 1, Integer::sum);
+				if (count>maxCount) { maxCount = count; dominantColor = color; }
+			}
+			return dominantColor!=null ? dominantColor : COLOR_WORLDOBJECT_FILL;
+		}
+		
+		private void drawClusterGlyph(Graphics2D g2, Rectangle clip, MapClusterGrid.Cluster<WorldObject> cluster, Color fillColor)
+		{
+			drawClusterGlyph(g2, clip, ScreenTransform.of(viewState), cluster, fillColor);
+		}
+		
+		private void drawClusterGlyph(Graphics2D g2, Rectangle clip, ScreenTransform view, MapClusterGrid.Cluster<WorldObject> cluster, Color fillColor)
+		{
+			int n = cluster.members().size();
+			int r = Math.min( 4 + (int)Math.round(2*Math.log(n)/Math.log(2)), CLUSTER_GLYPH_MAX_RADIUS );
+			int screenX = view.toScreenX(cluster.getMapX());
+			int screenY = view.toScreenY(cluster.getMapY());
+			if (!clip.intersects(screenX-r, screenY-r, 2*r+1, 2*r+1)) return;
+			
+			g2.setColor(fillColor);
+			g2.fillOval(screenX-r, screenY-r, 2*r+1, 2*r+1);
+			g2.setColor(COLOR_WORLDOBJECT_CONTOUR);
+			g2.drawOval(screenX-r, screenY-r, 2*r, 2*r);
+			
+			Font origFont = g2.getFont();
+			Font font = origFont.deriveFont(9f);
+			String text = Integer.toString(n);
+			Rectangle2D textBounds = font.getStringBounds(text, g2.getFontRenderContext());
+			g2.setFont(font);
+			g2.setColor(COLOR_CLUSTER_TEXT);
+			g2.drawString(text, (float)(screenX - textBounds.getCenterX()), (float)(screenY - textBounds.getCenterY()));
+			g2.setFont(origFont);
+		}
+
+		/**
+		 * Wreck areas and wreck positions are drawn below MapShapes and object markers.
+		 */
+		private void drawWreckLayers(Graphics2D g2, Rectangle clip)
+		{
+			if (showWreckAreas)
+			{
+				FarWreckAreas farWreckAreas = FarWreckAreas.getInstance();
+				Vector<WreckArea> wreckAreas = farWreckAreas.getAreas(planet);
+				WreckArea editableArea = farWreckAreas.getEditableArea();
+				
+				for (WreckArea area : wreckAreas)
+					if (area.isVisible)
+						drawWreckArea(g2, viewState, clip, area, editableArea==area);
+			}
+			
+			for (Data.Coord3 pos : mapModel.wreckPositions)
+				drawMapPoint(g2, clip, pos, COLOR_WRECK);
+		}
+
 		static void drawWreckArea(Graphics2D g2, ViewState viewState, Rectangle clip, WreckArea area, boolean isEditableArea)
+		{
+			drawWreckArea(g2, ScreenTransform.of(viewState), clip, area, isEditableArea);
+		}
+
+		static void drawWreckArea(Graphics2D g2, ScreenTransform view, Rectangle clip, WreckArea area, boolean isEditableArea)
 		{
 			Color color     = isEditableArea ? COLOR_WRECKAREA_EDITABLE : COLOR_WRECK;
 			float lineWidth = isEditableArea ? 2.0f : 0.7f; 
@@ -1929,10 +4091,15 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 					new float[] { 6.0f, 3.0f }, 0
 			);
 			
-			drawPolygon(g2, viewState, clip, area.points, color, stroke);
+			drawPolygon(g2, view, clip, area.points, color, stroke);
 		}
 
 		static void drawPolygon(Graphics2D g2, ViewState viewState, Rectangle clip, Vector<Point2D.Double> points, Color color, Stroke stroke)
+		{
+			drawPolygon(g2, ScreenTransform.of(viewState), clip, points, color, stroke);
+		}
+
+		static void drawPolygon(Graphics2D g2, ScreenTransform view, Rectangle clip, Vector<Point2D.Double> points, Color color, Stroke stroke)
 		{
 			if (points.isEmpty())
 				return;
@@ -1945,15 +4112,15 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			}
 			
 			if (points.size()==1)
-				drawMapPoint(g2, viewState, clip, points.get(0), color, 6);
+				drawMapPoint(g2, view, clip, points.get(0).x, points.get(0).y, color, 6);
 			
 			else
 			{
 				List<Point> points_scr = points
 					.stream()
 					.map(p->{
-						int x = viewState.convertPos_AngleToScreen_LongX(p.x);
-						int y = viewState.convertPos_AngleToScreen_LatY (p.y);
+						int x = view.toScreenX(p.x);
+						int y = view.toScreenY(p.y);
 						return new Point(x,y);
 					})
 					.toList();
@@ -1969,73 +4136,57 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 				g2.setStroke(prevStroke);
 		}
 
-		private void drawShapes(Graphics2D g2)
+		private void drawShapes(Graphics2D g2, Rectangle clip, ScreenTransform view, BitSet visibleObjects, RenderState state, RenderJob job)
 		{
-			double originX_scr = viewState.convertPos_AngleToScreen_LongXf(0);
-			double originY_scr = viewState.convertPos_AngleToScreen_LatYf (0);
+			double scaleX = view.scaleX;
+			double scaleY = view.scaleY;
+			double scale = Math.abs(scaleX);
 			
 			AffineTransform origTransform = g2.getTransform();
-			HashMap<String,MapShape> shapeCache = new HashMap<>(); 
-			for (WorldObject wo : mapModel.displayableObjects)
+			Stroke origStroke = g2.getStroke();
+			AffineTransform transform = new AffineTransform();
+			g2.setStroke(new BasicStroke((float) (1/scale)));
+			g2.setColor(COLOR_MAPSHAPE_BASE);
+			
+			for (int i=visibleObjects.nextSetBit(0); i>=0 && !isCancelled(job); i=visibleObjects.nextSetBit(i+1))
 			{
-				MapShape cachedShape = shapeCache.get(wo.objectType.id);
-				if (cachedShape==null)
-				{
-					cachedShape = mapShapes.getSelectedShape(wo.objectType);
-					if (cachedShape == null)
-						cachedShape = new MapShape("dummy");
-					shapeCache.put(wo.objectType.id, cachedShape);
-				}
-				Vector<Form> forms = cachedShape.getForms();
-				if (!forms.isEmpty())
-				{
-					double woX_scr = viewState.convertPos_AngleToScreen_LongXf(wo.position.getMapX());
-					double woY_scr = viewState.convertPos_AngleToScreen_LatYf (wo.position.getMapY());
-					/*
-					// Without Rotation
-					AffineTransform transform = new AffineTransform(origTransform);
-					transform.translate(
-							woX_scr-originX_scr,
-							woY_scr-originY_scr
-					);
-					*/
-					// With Rotation
-					AffineTransform transform = new AffineTransform(origTransform);
-					transform.translate( woX_scr, woY_scr );
-					transform.concatenate(wo.rotation.computeMapTransform());
-					transform.translate( -originX_scr, -originY_scr );
-					
-					g2.setTransform(transform);
-					g2.setColor(COLOR_MAPSHAPE_BASE);
-					LineEditor.drawForms(g2, forms, viewState);
-				}
+				WorldObject wo = mapModel.displayableObjects.get(i);
+				ShapeInfo shapeInfo = state.getShapeInfo(wo);
+				if (shapeInfo==null) continue;
+				
+				double radius_scr = shapeInfo.radius * scale;
+				double woX_scr = view.toScreenXf(wo.position.getMapX());
+				double woY_scr = view.toScreenYf(wo.position.getMapY());
+				if (!clip.intersects(woX_scr-radius_scr, woY_scr-radius_scr, 2*radius_scr, 2*radius_scr))
+					continue;
+				
+				transform.setTransform(origTransform);
+				transform.translate( woX_scr, woY_scr );
+				transform.concatenate(wo.mapWorldObjectData.mapTransform);
+				transform.scale( scaleX, scaleY );
+				
+				g2.setTransform(transform);
+				g2.draw(shapeInfo.path);
 			}
 			g2.setTransform(origTransform);
+			g2.setStroke(origStroke);
 		}
 
-		private boolean shouldShowMarker(HashMap<String, Boolean> cache, WorldObject wo)
-		{
-			if (wo==null) return false;
-			Boolean result = cache.get(wo.objectType.id);
-			if (result==null) cache.put(wo.objectType.id, result = mapShapes.shouldShowMarker(wo.objectType));
-			return result;
-		}
-		
 		private void drawMapPoint(Graphics2D g2, Rectangle clip, Data.MapPos position, Color color) {
 			drawMapPoint(g2, clip, position, color, 10);
 		}
 		private void drawMapPoint(Graphics2D g2, Rectangle clip, Data.MapPos position, Color color, int size)
 		{
-			drawMapPoint(g2, viewState, clip, position.getMapX(), position.getMapY(), color, size);
+			drawMapPoint(g2, ScreenTransform.of(viewState), clip, position.getMapX(), position.getMapY(), color, size);
 		}
 		static void drawMapPoint(Graphics2D g2, ViewState viewState, Rectangle clip, Point2D.Double position, Color color, int size)
 		{
-			drawMapPoint(g2, viewState, clip, position.x, position.y, color, size);
+			drawMapPoint(g2, ScreenTransform.of(viewState), clip, position.x, position.y, color, size);
 		}
-		static void drawMapPoint(Graphics2D g2, ViewState viewState, Rectangle clip, double mapX, double mapY, Color color, int size)
+		static void drawMapPoint(Graphics2D g2, ScreenTransform view, Rectangle clip, double mapX, double mapY, Color color, int size)
 		{
-			int posX_scr = viewState.convertPos_AngleToScreen_LongX(mapX);
-			int posY_scr = viewState.convertPos_AngleToScreen_LatY (mapY);
+			int posX_scr = view.toScreenX(mapX);
+			int posY_scr = view.toScreenY(mapY);
 			if (!clip.contains(posX_scr, posY_scr)) return;
 			
 			g2.setColor(color);
@@ -2043,9 +4194,9 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 			g2.drawLine(posX_scr+size, posY_scr-size, posX_scr-size, posY_scr+size);
 		}
 
-		private void drawPlayerPosition(Graphics2D g2, Rectangle clip, Data.Coord3 position, Data.Rotation orientation, Color contourColor, Color fillColor) {
-			double posX_scr = viewState.convertPos_AngleToScreen_LongXf(position.getMapX());
-			double posY_scr = viewState.convertPos_AngleToScreen_LatYf (position.getMapY());
+		private static void drawPlayerPosition(Graphics2D g2, Rectangle clip, ScreenTransform view, Data.Coord3 position, Data.Rotation orientation, Color contourColor, Color fillColor) {
+			double posX_scr = view.toScreenXf(position.getMapX());
+			double posY_scr = view.toScreenYf(position.getMapY());
 			if (!clip.contains(posX_scr, posY_scr)) return;
 			
 			AffineTransform origTransform = g2.getTransform();
@@ -2075,9 +4226,13 @@ class MapPanel extends JSplitPane implements ObjectTypesChangeListener {
 		}
 
 		private void drawObjectMarker(Graphics2D g2, Rectangle clip, Data.MapPos pos, Color contourColor, Color fillColor) {
+			drawObjectMarker(g2, clip, ScreenTransform.of(viewState), pos, contourColor, fillColor);
+		}
+
+		private static void drawObjectMarker(Graphics2D g2, Rectangle clip, ScreenTransform view, Data.MapPos pos, Color contourColor, Color fillColor) {
 			int r = 3;
-			int screenX = /*x+*/viewState.convertPos_AngleToScreen_LongX(pos.getMapX());
-			int screenY = /*y+*/viewState.convertPos_AngleToScreen_LatY (pos.getMapY());
+			int screenX = /*x+*/view.toScreenX(pos.getMapX());
+			int screenY = /*y+*/view.toScreenY(pos.getMapY());
 			if (clip.contains(screenX, screenY)) {
 				if (fillColor!=null) {
 					g2.setColor(fillColor);
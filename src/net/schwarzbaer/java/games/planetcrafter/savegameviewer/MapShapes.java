@@ -12,6 +12,8 @@ import java.awt.Stroke;
 import java.awt.Window;
 import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.io.BufferedReader;
 import java.io.File;
@@ -60,14 +62,20 @@ class MapShapes
 	private final Window mainWindow;
 	private final File datafile;
 	private final HashMap<String,ObjectTypeData> data;
+	private final Vector<Runnable> changeListeners;
 	
 	public MapShapes(Window mainWindow, File datafile)
 	{
 		this.mainWindow = mainWindow;
 		this.datafile = datafile;
 		data = new HashMap<>();
+		changeListeners = new Vector<>();
 	}
 	
+	// every change of shapes is written to file immediately, so writeToFile() notifies these listeners
+	void    addChangeListener(Runnable listener) { changeListeners.add(listener); }
+	void clearChangeListeners()                  { changeListeners.clear(); }
+	
 	private static class ObjectTypeData
 	{
 		final Vector<MapShape> shapes;
@@ -202,6 +210,9 @@ class MapShapes
 		
 		System.out.printf("Done%n");
 		
+		for (Runnable listener : changeListeners)
+			listener.run();
+		
 		if (!errors.isEmpty())
 		{
 			errors.insertElementAt("Following errors occured during writing MapShapes to file:", 0);
@@ -273,12 +284,16 @@ class MapShapes
 		String label;
 		private final GuideLinesStorage guideLines;
 		private final Vector<Form> forms;
+		private volatile Path2D.Double path;
+		private int formsVersion; // guarded by this
 		
 		public MapShape(String label)
 		{
 			this.label = label;
 			guideLines = new GuideLinesStorage();
 			forms = new Vector<>();
+			path = null;
+			formsVersion = 0;
 		}
 
 		public Vector<Form> getForms()
@@ -286,6 +301,66 @@ class MapShapes
 			return forms;
 		}
 
+		/**
+		 * Returns all forms as one path in shape coordinates.<br>
+		 * The path is cached until {@link #formsChanged()} is called.
+		 * It's built completely before it's published, so it can be used by several threads.
+		 */
+		Path2D.Double getPath()
+		{
+			Path2D.Double path = this.path;
+			if (path!=null) return path;
+			
+			int version;
+			synchronized (this) { version = formsVersion; }
+			
+			path = new Path2D.Double();
+			for (Form form : forms.toArray(Form[]::new))
+			{
+				double[] values = form.getValues();
+				if (form instanceof Form.Arc)
+				{
+					// values: xC, yC, r, aStart, aEnd  (angles in radians, counterclockwise)
+					double xC = values[0], yC = values[1], r = values[2];
+					double aStart = values[3], aEnd = values[4];
+					// Arc2D has a downwards directed y axis -> negated angles
+					path.append(new Arc2D.Double(xC-r, yC-r, 2*r, 2*r, -Math.toDegrees(aStart), -Math.toDegrees(aEnd-aStart), Arc2D.OPEN), false);
+				}
+				else
+				{
+					// values: x1,y1, x2,y2, ...
+					for (int i=0; i+1<values.length; i+=2)
+						if (i==0) path.moveTo(values[i], values[i+1]);
+						else      path.lineTo(values[i], values[i+1]);
+				}
+			}
+			
+			synchronized (this)
+			{
+				// forms changed while path was built -> don't cache outdated path
+				if (version==formsVersion)
+					this.path = path;
+			}
+			return path;
+		}
+		
+		synchronized void formsChanged()
+		{
+			formsVersion++;
+			path = null;
+		}
+		
+		/**
+		 * Returns the maximum distance of all forms to the origin of the shape (= position of the object).
+		 */
+		double computeBoundingRadius()
+		{
+			Rectangle2D bounds = getPath().getBounds2D();
+			double maxX = Math.max(Math.abs(bounds.getMinX()), Math.abs(bounds.getMaxX()));
+			double maxY = Math.max(Math.abs(bounds.getMinY()), Math.abs(bounds.getMaxY()));
+			return Math.hypot(maxX, maxY);
+		}
+
 		@Override public String toString()
 		{
 			return label;
@@ -536,6 +611,7 @@ class MapShapes
 							(clearFirst, shape) -> {
 								if (clearFirst) shape.forms.clear();
 								shape.forms.addAll(editorClipboard.getForms());
+								shape.formsChanged();
 							},
 							shape -> shape.forms.isEmpty()
 					);
@@ -738,6 +814,7 @@ class MapShapes
 					case Changed:
 						Form[] newFormsList = e.newFormsList();
 						if (newFormsList!=null) replaceForms(newFormsList);
+						if (selectedShape!=null) selectedShape.formsChanged(); // forms could be changed in place
 						mapShapes.writeToFile();
 						mapShapesEditorOptionsPanel.shapeButtonsPanel.updateButtons();
 						break;
@@ -0,0 +1,251 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over map X/Y of the items of a list.<br>
+ * Items appended to the list later can be added to the index via {@link #update()}.
+ * Queries don't allocate anything.<br>
+ * Each update publishes a new grid, so other threads can query the index while it is updated.
+ */
+class MapSpatialIndex<Item>
+{
+	private static final int ITEMS_PER_CELL = 4;
+	private static final int MAX_CELLS_PER_AXIS = 512;
+	private static final int INITIAL_CELL_CAPACITY = 4;
+
+	private final List<Item> items;
+	private final Function<Item,Data.MapPos> getPos;
+	private volatile Grid grid;
+
+	MapSpatialIndex(List<Item> items, Function<Item,Data.MapPos> getPos)
+	{
+		this.items = items;
+		this.getPos = getPos;
+		grid = null;
+		update();
+	}
+
+	/**
+	 * Indexed positions and the cells of the grid. A published grid is never changed.
+	 */
+	private static class Grid
+	{
+		final int count;
+		final int rebuildCount; // number of items at last full rebuild
+		final double[] itemX;
+		final double[] itemY;
+		final double minX;
+		final double minY;
+		final double maxX;
+		final double maxY;
+		final double cellSize;
+		final int nCols;
+		final int nRows;
+		final int[][] cells;
+		final int[] cellSizes;
+
+		/** full rebuild */
+		Grid(double[] itemX, double[] itemY, int n)
+		{
+			count = n;
+			rebuildCount = n;
+			this.itemX = itemX;
+			this.itemY = itemY;
+
+			double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+			for (int i=0; i<n; i++)
+			{
+				minX = Math.min(minX, itemX[i]); maxX = Math.max(maxX, itemX[i]);
+				minY = Math.min(minY, itemY[i]); maxY = Math.max(maxY, itemY[i]);
+			}
+			if (n==0) { minX = maxX = minY = maxY = 0; }
+			this.minX = minX; this.maxX = maxX;
+			this.minY = minY; this.maxY = maxY;
+
+			double width  = maxX-minX;
+			double height = maxY-minY;
+			double area = Math.max(width,1) * Math.max(height,1);
+			double cellSize = Math.sqrt( area * ITEMS_PER_CELL / Math.max(n,1) );
+			cellSize = Math.max(cellSize, Math.max(width,height) / MAX_CELLS_PER_AXIS);
+			this.cellSize = Math.max(cellSize, 1e-6);
+			nCols = Math.min( (int)(width /this.cellSize)+1, MAX_CELLS_PER_AXIS );
+			nRows = Math.min( (int)(height/this.cellSize)+1, MAX_CELLS_PER_AXIS );
+
+			cells = new int[nCols*nRows][];
+			cellSizes = new int[nCols*nRows];
+			for (int i=0; i<n; i++)
+				addToCell(i);
+		}
+
+		/** copy of <code>grid</code> with additional items (copy on write) */
+		Grid(Grid grid, double[] itemX, double[] itemY, int n)
+		{
+			count = n;
+			rebuildCount = grid.rebuildCount;
+			this.itemX = itemX;
+			this.itemY = itemY;
+			minX = grid.minX; maxX = grid.maxX;
+			minY = grid.minY; maxY = grid.maxY;
+			cellSize = grid.cellSize;
+			nCols = grid.nCols;
+			nRows = grid.nRows;
+			cells = grid.cells.clone();
+			cellSizes = grid.cellSizes.clone();
+
+			boolean[] copiedCells = new boolean[cells.length];
+			for (int i=grid.count; i<n; i++)
+			{
+				int cell = getCell(i);
+				if (!copiedCells[cell] && cells[cell]!=null)
+					cells[cell] = cells[cell].clone();
+				copiedCells[cell] = true;
+				addToCell(i);
+			}
+		}
+
+		private int getCell(int index)
+		{
+			return getRow(itemY[index])*nCols + getCol(itemX[index]);
+		}
+
+		private void addToCell(int index)
+		{
+			int cell = getCell(index);
+			int[] cellItems = cells[cell];
+			if (cellItems == null)
+				cells[cell] = cellItems = new int[INITIAL_CELL_CAPACITY];
+			else if (cellItems.length <= cellSizes[cell])
+				cells[cell] = cellItems = Arrays.copyOf(cellItems, cellItems.length*2);
+			cellItems[cellSizes[cell]++] = index;
+		}
+
+		boolean contains(double x, double y)
+		{
+			return minX<=x && x<=maxX && minY<=y && y<=maxY;
+		}
+
+		int getCol(double x) { return Math.min(Math.max(0, (int)Math.floor((x-minX)/cellSize)), nCols-1); }
+		int getRow(double y) { return Math.min(Math.max(0, (int)Math.floor((y-minY)/cellSize)), nRows-1); }
+	}
+
+	Item get(int index)
+	{
+		return items.get(index);
+	}
+
+	int size()
+	{
+		return grid.count;
+	}
+
+	double getX(int index) { return grid.itemX[index]; }
+	double getY(int index) { return grid.itemY[index]; }
+
+	double getSquaredDist(int index, double x, double y)
+	{
+		return getSquaredDist(grid, index, x, y);
+	}
+
+	private static double getSquaredDist(Grid grid, int index, double x, double y)
+	{
+		double dx = grid.itemX[index]-x;
+		double dy = grid.itemY[index]-y;
+		return dx*dx + dy*dy;
+	}
+
+	/**
+	 * Adds all items, that were appended to the list since last update.<br>
+	 * The grid will be rebuilt, if a new item lies outside of current grid bounds
+	 * or if the number of items has more than doubled since last rebuild (cell size would be too big).
+	 */
+	void update()
+	{
+		Grid oldGrid = grid;
+		int indexedCount = oldGrid==null ? 0 : oldGrid.count;
+		int n = items.size();
+		if (oldGrid!=null && n == indexedCount) return;
+
+		double[] itemX = Arrays.copyOf(oldGrid==null ? new double[0] : oldGrid.itemX, n);
+		double[] itemY = Arrays.copyOf(oldGrid==null ? new double[0] : oldGrid.itemY, n);
+
+		boolean rebuild = oldGrid==null || n > 2*Math.max(oldGrid.rebuildCount, ITEMS_PER_CELL);
+		for (int i=indexedCount; i<n; i++)
+		{
+			Data.MapPos pos = getPos.apply(items.get(i));
+			itemX[i] = pos.getMapX();
+			itemY[i] = pos.getMapY();
+			if (!rebuild && !oldGrid.contains(itemX[i], itemY[i]))
+				rebuild = true;
+		}
+
+		grid = rebuild
+				? new Grid(itemX, itemY, n)
+				: new Grid(oldGrid, itemX, itemY, n);
+	}
+
+	/**
+	 * Returns the index of the item nearest to (x,y) with a distance of at most <code>maxDist</code> or -1, if there is no such item.
+	 */
+	int findNearest(double x, double y, double maxDist)
+	{
+		Grid grid = this.grid;
+		if (grid.count==0 || !(maxDist>=0)) return -1;
+		if (x+maxDist < grid.minX || x-maxDist > grid.maxX || y+maxDist < grid.minY || y-maxDist > grid.maxY) return -1;
+
+		int col0 = grid.getCol(x-maxDist), col1 = grid.getCol(x+maxDist);
+		int row0 = grid.getRow(y-maxDist), row1 = grid.getRow(y+maxDist);
+
+		int nearest = -1;
+		double minSquaredDist = maxDist*maxDist;
+		for (int row=row0; row<=row1; row++)
+			for (int col=col0; col<=col1; col++)
+			{
+				int cell = row*grid.nCols + col;
+				int[] cellItems = grid.cells[cell];
+				for (int i=0; i<grid.cellSizes[cell]; i++)
+				{
+					int index = cellItems[i];
+					double squaredDist = getSquaredDist(grid, index, x, y);
+					if (squaredDist <= minSquaredDist && (nearest<0 || squaredDist < minSquaredDist || index < nearest))
+					{
+						minSquaredDist = squaredDist;
+						nearest = index;
+					}
+				}
+			}
+		return nearest;
+	}
+
+	/**
+	 * Calls <code>action</code> with the index of every item inside of given rectangle (bounds included).
+	 */
+	void forEachInRect(double minX, double minY, double maxX, double maxY, IntConsumer action)
+	{
+		Grid grid = this.grid;
+		if (grid.count==0) return;
+		if (maxX < grid.minX || minX > grid.maxX || maxY < grid.minY || minY > grid.maxY) return;
+
+		int col0 = grid.getCol(minX), col1 = grid.getCol(maxX);
+		int row0 = grid.getRow(minY), row1 = grid.getRow(maxY);
+
+		for (int row=row0; row<=row1; row++)
+			for (int col=col0; col<=col1; col++)
+			{
+				int cell = row*grid.nCols + col;
+				int[] cellItems = grid.cells[cell];
+				for (int i=0; i<grid.cellSizes[cell]; i++)
+				{
+					int index = cellItems[i];
+					double x = grid.itemX[index];
+					double y = grid.itemY[index];
+					if (minX<=x && x<=maxX && minY<=y && y<=maxY)
+						action.accept(index);
+				}
+			}
+	}
+}
@@ -0,0 +1,531 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.geom.Point2D;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+
+import javax.swing.SwingUtilities;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.WorldObject;
+
+/**
+ * Timeline of player position and installed WorldObjects over all (auto-)reloads of a save game.<br>
+ * Only changes between two reloads (added and removed objects) are stored, in memory and delta-encoded in a file.
+ * The set of installed objects at a past point in time is reconstructed by replaying these changes.
+ */
+class ObjectTimeline
+{
+	private static ObjectTimeline instance = null;
+	static ObjectTimeline getInstance()
+	{
+		return instance == null
+				? instance = new ObjectTimeline()
+				: instance;
+	}
+
+	private static final int FILE_MAGIC = 0x5043544C; // "PCTL"
+	private static final int FILE_VERSION = 2;
+	private static final int HEADER_SIZE = 8;
+	private static final int CHECKPOINT_INTERVAL = 32; // records
+
+	private final File file;
+	private final Vector<Record> records;
+	private final HashMap<Integer,long[]> lastObjectIDs; // save game ID -> sorted IDs of installed objects at last record
+	private final Vector<String> objectTypeIDs; // dictionary of object type IDs, continued in each record
+	private final HashMap<String,Integer> objectTypeIndices;
+	private int writtenObjectTypeIDs;
+	private long validFileLength; // file ends with a complete record at this position
+	private final ExecutorService writer;
+	private final Vector<Runnable> listeners;
+
+	private ObjectTimeline()
+	{
+		file = new File(PlanetCrafterSaveGameViewer.FILE_OBJECT_TIMELINE);
+		records = new Vector<>();
+		lastObjectIDs = new HashMap<>();
+		objectTypeIDs = new Vector<>();
+		objectTypeIndices = new HashMap<>();
+		writtenObjectTypeIDs = 0;
+		validFileLength = 0;
+		listeners = new Vector<>();
+		writer = GUI.createDaemonExecutor("ObjectTimeline.Writer");
+	}
+
+	void    addListener(Runnable listener) { listeners.add(listener); }
+	void clearListeners()                  { listeners.clear(); }
+
+	record ObjectEntry(long id, String objectTypeID, float mapX, float mapY) implements Data.MapPos
+	{
+		@Override public double getMapX() { return mapX; }
+		@Override public double getMapY() { return mapY; }
+	}
+
+	/**
+	 * @param playerPos   <code>null</code>, if player wasn't positioned
+	 * @param addedObjects  sorted by ID
+	 * @param removedIDs  sorted
+	 */
+	record Record(long timestamp_ms, int saveGameID, Point2D.Float playerPos, ObjectEntry[] addedObjects, long[] removedIDs) {}
+
+	/**
+	 * Records the changes of installed objects since the last recorded state of the same save game.<br>
+	 * Everything is done in a background thread.
+	 */
+	void record(File saveGame, long timestamp_ms, Data data)
+	{
+		int saveGameID = TerraformingHistory.getSaveGameID(saveGame);
+		writer.execute(() -> {
+			Record last = getLastRecord(saveGameID);
+			if (last!=null && last.timestamp_ms==timestamp_ms)
+				return; // same save state was loaded again
+
+			Point2D.Float playerPos = null;
+			if (data.playerStates!=null && data.playerStates.isPositioned())
+				playerPos = new Point2D.Float((float) data.playerStates.position.getMapX(), (float) data.playerStates.position.getMapY());
+
+			Vector<WorldObject> installedObjects = new Vector<>();
+			if (data.worldObjects!=null)
+				for (WorldObject wo : data.worldObjects)
+					if (wo!=null && wo.position!=null && wo.isInstalled())
+						installedObjects.add(wo);
+			installedObjects.sort((wo1,wo2) -> Long.compare(wo1.id, wo2.id));
+			long[] currentIDs = installedObjects.stream().mapToLong(wo -> wo.id).toArray();
+
+			long[] previousIDs;
+			synchronized (this) { previousIDs = lastObjectIDs.getOrDefault(saveGameID, new long[0]); }
+
+			// merge walk over both sorted ID lists
+			Vector<ObjectEntry> added = new Vector<>();
+			long[] removedIDs = new long[previousIDs.length];
+			int nRemoved = 0;
+			int iPrev = 0;
+			for (int iCurr=0; iCurr<currentIDs.length; iCurr++)
+			{
+				long id = currentIDs[iCurr];
+				while (iPrev<previousIDs.length && previousIDs[iPrev]<id) removedIDs[nRemoved++] = previousIDs[iPrev++];
+				if (iPrev<previousIDs.length && previousIDs[iPrev]==id) { iPrev++; continue; }
+				WorldObject wo = installedObjects.get(iCurr);
+				added.add(new ObjectEntry(id, wo.objectTypeID, (float) wo.position.getMapX(), (float) wo.position.getMapY()));
+			}
+			while (iPrev<previousIDs.length) removedIDs[nRemoved++] = previousIDs[iPrev++];
+
+			Record record = new Record(timestamp_ms, saveGameID, playerPos, added.toArray(ObjectEntry[]::new), Arrays.copyOf(removedIDs, nRemoved));
+			synchronized (this)
+			{
+				records.add(record);
+				lastObjectIDs.put(saveGameID, currentIDs);
+			}
+			appendToFile(record);
+
+			SwingUtilities.invokeLater(() -> {
+				for (Runnable listener : listeners)
+					listener.run();
+			});
+		});
+	}
+
+	private synchronized Record getLastRecord(int saveGameID)
+	{
+		for (int i=records.size()-1; i>=0; i--)
+			if (records.get(i).saveGameID==saveGameID)
+				return records.get(i);
+		return null;
+	}
+
+	synchronized Vector<Record> getRecords(int saveGameID)
+	{
+		Vector<Record> result = new Vector<>();
+		for (Record record : records)
+			if (record.saveGameID==saveGameID)
+				result.add(record);
+		return result;
+	}
+
+	record State(long timestamp_ms, Vector<ObjectEntry> objects, ObjectEntry[] addedObjects, Vector<Point2D.Float> playerTrail) {}
+
+	/**
+	 * Reconstructs the states of a save game at the times of its records.
+	 * Moving forward in time only applies the changes in between.
+	 * Moving backward continues from the last checkpoint (a copy of the object set after every CHECKPOINT_INTERVAL records) before the requested record.
+	 */
+	static class Playback
+	{
+		private final Vector<Record> records;
+		private HashMap<Long,ObjectEntry> objects;
+		private final Vector<Point2D.Float> playerTrail;
+		private int appliedRecords;
+		private final Vector<Checkpoint> checkpoints; // checkpoints.get(i) = state after i*CHECKPOINT_INTERVAL records
+
+		private record Checkpoint(HashMap<Long,ObjectEntry> objects, int playerTrailLength) {}
+
+		Playback(Vector<Record> records)
+		{
+			this.records = records;
+			objects = new HashMap<>();
+			playerTrail = new Vector<>();
+			appliedRecords = 0;
+			checkpoints = new Vector<>();
+			checkpoints.add(new Checkpoint(new HashMap<>(), 0));
+		}
+
+		int size() { return records.size(); }
+
+		State getStateAt(int recordIndex)
+		{
+			if (recordIndex<0 || recordIndex>=records.size())
+				throw new IndexOutOfBoundsException(recordIndex);
+
+			// going back -> continue from last checkpoint before requested record
+			if (recordIndex+1 < appliedRecords)
+			{
+				int checkpointIndex = Math.min((recordIndex+1) / CHECKPOINT_INTERVAL, checkpoints.size()-1);
+				Checkpoint checkpoint = checkpoints.get(checkpointIndex);
+				objects = new HashMap<>(checkpoint.objects);
+				playerTrail.setSize(checkpoint.playerTrailLength);
+				appliedRecords = checkpointIndex * CHECKPOINT_INTERVAL;
+			}
+			while (appliedRecords<=recordIndex)
+			{
+				Record record = records.get(appliedRecords++);
+				for (long id : record.removedIDs) objects.remove(id);
+				for (ObjectEntry entry : record.addedObjects) objects.put(entry.id, entry);
+				if (record.playerPos!=null) playerTrail.add(record.playerPos);
+				
+				if (appliedRecords % CHECKPOINT_INTERVAL == 0 && appliedRecords / CHECKPOINT_INTERVAL == checkpoints.size())
+					checkpoints.add(new Checkpoint(new HashMap<>(objects), playerTrail.size()));
+			}
+
+			Record record = records.get(recordIndex);
+			return new State(record.timestamp_ms, new Vector<>(objects.values()), record.addedObjects, new Vector<>(playerTrail));
+		}
+	}
+
+	void readFromFile()
+	{
+		if (!file.isFile()) return;
+
+		System.out.printf("Read ObjectTimeline from file \"%s\" ...%n", file.getAbsolutePath());
+
+		HashMap<Integer,HashSet<Long>> objectIDs = new HashMap<>();
+		long fileLength = file.length();
+		long validLength = 0;
+		boolean isInvalidFile = false;
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+				DataInputStream in = new DataInputStream(counter)) {
+
+			if (fileLength >= HEADER_SIZE)
+			{
+				if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION)
+					isInvalidFile = true;
+				else
+					validLength = HEADER_SIZE;
+			}
+
+			while (!isInvalidFile && validLength < fileLength)
+			{
+				Record record;
+				try { record = readRecord(in, fileLength); }
+				catch (EOFException ex) { break; } // incomplete last record
+				catch (IOException ex) {
+					System.err.printf("Malformed record in ObjectTimeline file at position %d: %s%n", validLength, ex.getMessage());
+					break;
+				}
+				validLength = counter.getCount();
+
+				synchronized (this) { records.add(record); }
+				HashSet<Long> ids = objectIDs.computeIfAbsent(record.saveGameID, id -> new HashSet<>());
+				for (long id : record.removedIDs) ids.remove(id);
+				for (ObjectEntry entry : record.addedObjects) ids.add(entry.id);
+			}
+
+		} catch (FileNotFoundException ex) {
+			//ex.printStackTrace();
+		} catch (IOException ex) {
+			System.err.printf("IOException while reading ObjectTimeline: %s%n", ex.getMessage());
+			//ex.printStackTrace();
+		}
+
+		if (isInvalidFile)
+		{
+			System.err.printf("Unexpected file format of ObjectTimeline file. File will be ignored.%n");
+			TerraformingHistory.moveInvalidFileAside(file);
+			validLength = 0;
+		}
+		else if (validLength < fileLength)
+		{
+			// cut off incomplete last record, so new records are appended at a record boundary
+			try { TerraformingHistory.truncateFile(file, validLength); }
+			catch (IOException ex) { System.err.printf("IOException while truncating ObjectTimeline file: %s%n", ex.getMessage()); }
+		}
+
+		synchronized (this)
+		{
+			validFileLength = validLength;
+			writtenObjectTypeIDs = objectTypeIDs.size();
+			objectIDs.forEach((saveGameID, ids) -> {
+				long[] sortedIDs = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+				lastObjectIDs.put(saveGameID, sortedIDs);
+			});
+		}
+
+		System.out.printf("Done%n");
+	}
+
+	/**
+	 * Reads a complete record. New object type IDs of the record are added to the dictionary only after the whole record was read.
+	 * @param maxCount  upper limit of all counts in the record (each counted item needs at least 1 byte in the file)
+	 */
+	private Record readRecord(DataInputStream in, long maxCount) throws IOException
+	{
+		long timestamp_ms = in.readLong();
+		int saveGameID = in.readInt();
+		Point2D.Float playerPos = null;
+		if (in.readBoolean())
+			playerPos = new Point2D.Float(in.readFloat(), in.readFloat());
+
+		Vector<String> newObjectTypeIDs = new Vector<>();
+		int nNewObjectTypeIDs = readCount(in, maxCount);
+		for (int i=0; i<nNewObjectTypeIDs; i++)
+			newObjectTypeIDs.add(in.readUTF());
+		int nKnownObjectTypeIDs;
+		synchronized (this) { nKnownObjectTypeIDs = objectTypeIDs.size(); }
+
+		ObjectEntry[] addedObjects = new ObjectEntry[readCount(in, maxCount)];
+		long id = 0;
+		for (int i=0; i<addedObjects.length; i++)
+		{
+			id += readVarLong(in);
+			long typeNo = readVarLong(in); // 0: no object type, i+1: dictionary entry i
+			String objectTypeID;
+			if (typeNo==0)
+				objectTypeID = null;
+			else if (typeNo <= nKnownObjectTypeIDs)
+				objectTypeID = getObjectTypeID((int) typeNo-1);
+			else if (typeNo <= nKnownObjectTypeIDs + newObjectTypeIDs.size())
+				objectTypeID = newObjectTypeIDs.get((int) typeNo-1-nKnownObjectTypeIDs);
+			else
+				throw new IOException("Unknown object type index: %d".formatted(typeNo-1));
+			addedObjects[i] = new ObjectEntry(id, objectTypeID, in.readFloat(), in.readFloat());
+		}
+
+		long[] removedIDs = new long[readCount(in, maxCount)];
+		id = 0;
+		for (int i=0; i<removedIDs.length; i++)
+			removedIDs[i] = id += readVarLong(in);
+
+		for (String objectTypeID : newObjectTypeIDs)
+			addObjectTypeID(objectTypeID);
+
+		return new Record(timestamp_ms, saveGameID, playerPos, addedObjects, removedIDs);
+	}
+
+	private static int readCount(DataInputStream in, long maxCount) throws IOException
+	{
+		long count = readVarLong(in);
+		if (count > maxCount || count > Integer.MAX_VALUE-8) throw new IOException("Unexpected count: %d".formatted(count));
+		return (int) count;
+	}
+
+	private synchronized String getObjectTypeID(int index)
+	{
+		return objectTypeIDs.get(index);
+	}
+
+	private synchronized int addObjectTypeID(String objectTypeID)
+	{
+		return objectTypeIndices.computeIfAbsent(objectTypeID, str -> { objectTypeIDs.add(str); return objectTypeIDs.size()-1; });
+	}
+
+	/**
+	 * Makes sure, that a new record is appended directly behind the last complete record of a valid file.
+	 * A new file is started, if there is no valid file or if it was removed or shortened meanwhile.
+	 * @return <code>true</code>, if a new file has to be started
+	 */
+	private boolean prepareFileForAppend() throws IOException
+	{
+		long length = file.isFile() ? file.length() : 0;
+		if (length > validFileLength && validFileLength >= HEADER_SIZE)
+		{
+			// incomplete record of a failed write
+			TerraformingHistory.truncateFile(file, validFileLength);
+			return false;
+		}
+		if (length == validFileLength && length >= HEADER_SIZE)
+			return false;
+
+		if (length>0 && !TerraformingHistory.moveInvalidFileAside(file))
+			throw new IOException("Unexpected file can't be moved aside.");
+		synchronized (this) { writtenObjectTypeIDs = 0; }
+		validFileLength = 0;
+		return true;
+	}
+
+	/**
+	 * Appends <code>record</code> to the file.
+	 * If a new file has to be started, all records in memory are written, because the records are only changes to their predecessors.
+	 */
+	private void appendToFile(Record record)
+	{
+		try {
+			boolean isNewFile = prepareFileForAppend();
+
+			Vector<Record> recordsToWrite = new Vector<>();
+			if (isNewFile)
+				synchronized (this) { recordsToWrite.addAll(records); }
+			else
+				recordsToWrite.add(record);
+
+			int nWrittenObjectTypeIDs;
+			synchronized (this) { nWrittenObjectTypeIDs = writtenObjectTypeIDs; }
+
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+
+				if (isNewFile)
+				{
+					out.writeInt(FILE_MAGIC);
+					out.writeInt(FILE_VERSION);
+				}
+
+				for (Record rec : recordsToWrite)
+					nWrittenObjectTypeIDs = writeRecord(out, rec, nWrittenObjectTypeIDs);
+			}
+
+			// records are complete -> their object type IDs are written
+			synchronized (this) { writtenObjectTypeIDs = nWrittenObjectTypeIDs; }
+			validFileLength = file.length();
+
+		} catch (IOException ex) {
+			System.err.printf("IOException while writing ObjectTimeline: %s%n", ex.getMessage());
+			//ex.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param nWrittenObjectTypeIDs  number of object type IDs, that are already written to the file
+	 * @return number of object type IDs, that are written to the file after this record
+	 */
+	private int writeRecord(DataOutputStream out, Record record, int nWrittenObjectTypeIDs) throws IOException
+	{
+		int[] typeNos = new int[record.addedObjects.length]; // 0: no object type, i+1: dictionary entry i
+		for (int i=0; i<typeNos.length; i++)
+		{
+			String objectTypeID = record.addedObjects[i].objectTypeID;
+			typeNos[i] = objectTypeID==null ? 0 : addObjectTypeID(objectTypeID)+1;
+		}
+		Vector<String> newObjectTypeIDs;
+		synchronized (this) { newObjectTypeIDs = new Vector<>(objectTypeIDs.subList(nWrittenObjectTypeIDs, objectTypeIDs.size())); }
+
+		out.writeLong(record.timestamp_ms);
+		out.writeInt(record.saveGameID);
+		out.writeBoolean(record.playerPos!=null);
+		if (record.playerPos!=null)
+		{
+			out.writeFloat(record.playerPos.x);
+			out.writeFloat(record.playerPos.y);
+		}
+
+		writeVarLong(out, newObjectTypeIDs.size());
+		for (String objectTypeID : newObjectTypeIDs)
+			out.writeUTF(objectTypeID);
+
+		// IDs are sorted -> only (small) differences to previous ID are written
+		writeVarLong(out, record.addedObjects.length);
+		long id = 0;
+		for (int i=0; i<record.addedObjects.length; i++)
+		{
+			ObjectEntry entry = record.addedObjects[i];
+			writeVarLong(out, entry.id-id);
+			id = entry.id;
+			writeVarLong(out, typeNos[i]);
+			out.writeFloat(entry.mapX);
+			out.writeFloat(entry.mapY);
+		}
+
+		writeVarLong(out, record.removedIDs.length);
+		id = 0;
+		for (long removedID : record.removedIDs)
+		{
+			writeVarLong(out, removedID-id);
+			id = removedID;
+		}
+
+		return nWrittenObjectTypeIDs + newObjectTypeIDs.size();
+	}
+
+	private static class CountingInputStream extends FilterInputStream
+	{
+		private long count;
+
+		CountingInputStream(InputStream in)
+		{
+			super(in);
+			count = 0;
+		}
+
+		long getCount() { return count; }
+
+		@Override public int read() throws IOException
+		{
+			int b = super.read();
+			if (b>=0) count++;
+			return b;
+		}
+
+		@Override public int read(byte[] b, int off, int len) throws IOException
+		{
+			int n = super.read(b, off, len);
+			if (n>0) count += n;
+			return n;
+		}
+
+		@Override public long skip(long n) throws IOException
+		{
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override public boolean markSupported() { return false; }
+	}
+
+	/**
+	 * Writes a non-negative value with 7 bits per byte (LEB128).
+	 */
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException
+	{
+		if (value<0) throw new IllegalArgumentException("Negative value can't be written as VarLong: %d".formatted(value));
+		while ((value & ~0x7FL) != 0)
+		{
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException
+	{
+		long value = 0;
+		for (int shift=0; shift<64; shift+=7)
+		{
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("Malformed VarLong");
+	}
+}
@@ -11,6 +11,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -40,12 +41,14 @@ import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Achievements.AchievementList;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Achievements.PlanetAchievements;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.NV;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.PlanetId;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.V;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.WorldObject;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.GUI.ActionCommand;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.GeneralDataPanel.TerraformingStatesPanel;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.ObjectType;
 import net.schwarzbaer.java.lib.gui.Disabler;
 import net.schwarzbaer.java.lib.gui.FileChooser;
@@ -75,6 +78,9 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
             static final String FILE_MAPBGIMAGE_BASE     = "PlanetCrafterSaveGameViewer - MapBackgroundImage";
 	private static final String FILE_AUTOCRAFTER_TRADING = "PlanetCrafterSaveGameViewer - AutoCrafterTrading.data";
 	        static final String FILE_FARWRECKAREAS       = "PlanetCrafterSaveGameViewer - FarWreckAreas.data";
+	        static final String FILE_TERRAFORMING_HISTORY = "PlanetCrafterSaveGameViewer - TerraformingHistory.data";
+	        static final String FILE_OBJECT_TIMELINE      = "PlanetCrafterSaveGameViewer - ObjectTimeline.data";
+	private static final long   MAX_TIMESPAN_FOR_MEASURED_RATES_ms = 30*60*1000;
 
 	public static void main(String[] args) {
 		//String pathname = "c:\\Users\\Hendrik 2\\AppData\\LocalLow\\MijuGames\\Planet Crafter\\Survival-1.json";
@@ -408,6 +414,8 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 		mapShapes.readFromFile();
 		mapShapesEditor.updateAfterNewObjectTypes();
 		FarWreckAreas.getInstance().readFromFile();
+		TerraformingHistory.getInstance().readFromFile();
+		ObjectTimeline.getInstance().readFromFile();
 		
 		// String pathname = "c:\\Users\\Hendrik 2\\AppData\\LocalLow\\MijuGames\\Planet Crafter\\Survival-1.json";
 		File file = AppSettings.getInstance().getFile(AppSettings.ValueKey.OpenFile, null);
@@ -439,6 +447,7 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 	private void readFile(File file) {
 		if (file==null) return;
 		if (!file.isFile()) return;
+		long fileTimestamp_ms = file.lastModified();
 		
 		String title = String.format("Read File \"%s\" [%s]", file.getName(), file.getParent());
 		ProgressDialog.runWithProgressDialog(mainWindow, title, 400, pd->{
@@ -460,6 +469,12 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 			showIndeterminateTask(pd, "Write new ObjectTypes to File");
 			objectTypes.writeToFile();
 			
+			showIndeterminateTask(pd, "Compute Terraforming");
+			TerraformingCalculation terraformingCalculation = TerraformingCalculation.getInstance();
+			TerraformingCalculation.Snapshot snapshot = terraformingCalculation.getSnapshot(data);
+			if (Thread.currentThread().isInterrupted()) { System.out.println("File Reading Aborted"); return; }
+			printTerraformingChanges(terraformingCalculation.getPreviousSnapshot(), snapshot);
+			
 			if (!newObjectTypes.isEmpty()) {
 				Vector<String> vec = new Vector<>(newObjectTypes);
 				vec.sort(Data.caseIgnoringComparator);
@@ -480,11 +495,23 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 				setGUI(data);
 				updateWindowTitle();
 				updateGuiAccess();
+				TerraformingHistory.getInstance().record(file, fileTimestamp_ms, data);
+				ObjectTimeline.getInstance().record(file, fileTimestamp_ms, data);
 			});
 		});
 		
 	}
 
+	private void updateMeasuredRates()
+	{
+		if (openFile==null || generalDataPanel==null) return;
+		int saveGameID = TerraformingHistory.getSaveGameID(openFile);
+		EnumMap<AchievementList, Double> rates = TerraformingHistory.getInstance().getMeasuredRates(saveGameID, MAX_TIMESPAN_FOR_MEASURED_RATES_ms);
+		TerraformingStatesPanel terraformingStatesPanel = generalDataPanel.getTerraformingStatesPanel();
+		for (AchievementList al : AchievementList.values())
+			terraformingStatesPanel.setMeasuredRate(al, rates==null ? null : rates.get(al));
+	}
+
 	private void writeReducedFile(File file, Data data) {
 		if (file==null) return;
 		
@@ -518,6 +545,16 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 		mapShapesEditor.showDialog(objectType);
 	}
 
+	private static void printTerraformingChanges(TerraformingCalculation.Snapshot previous, TerraformingCalculation.Snapshot current) {
+		if (previous==null || previous.data==null || previous.data==current.data) return;
+		System.out.printf("Changes of terraforming rates since previously loaded file:%n");
+		for (ObjectTypes.PhysicalValue phVal : ObjectTypes.PhysicalValue.values()) {
+			double oldRate = previous.getAspect(phVal).getTotalSumBoosted();
+			double newRate = current .getAspect(phVal).getTotalSumBoosted();
+			System.out.printf(Locale.ENGLISH, "   %-8s: %s -> %s%n", phVal, phVal.formatRate(oldRate), phVal.formatRate(newRate));
+		}
+	}
+
 	private static void showIndeterminateTask(ProgressDialog pd, String taskTitle) {
 		SwingUtilities.invokeLater(()->{
 			pd.setTaskTitle(taskTitle);
@@ -540,8 +577,11 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 
 	private void setGUI(Data data) {
 		Data.clearAllRemoveStateListeners();
+		mapShapes.clearChangeListeners();
 		dataTabPane.removeAll();
-		TerraformingCalculation.getInstance().clearData();
+		TerraformingHistory.getInstance().clearListeners();
+		ObjectTimeline.getInstance().clearListeners();
+		FarWreckAreas.getInstance().clearListeners();
 		
 		PlanetId planet = data.getPlanet();
 		if (planet==null) planet=PlanetId.Prime;
@@ -549,7 +589,7 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 		
 		generalDataPanel = new GeneralDataPanel(data,achievements);
 		TerraformingPanel terraformingPanel = new TerraformingPanel(data, generalDataPanel);
-		MapPanel mapPanel = new MapPanel(this, data, planet);
+		MapPanel mapPanel = new MapPanel(this, data, planet, openFile);
 		
 		HashMap<String, Integer> amounts = new HashMap<>();
 		if (data.worldObjects!=null)
@@ -573,19 +613,27 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 		dataTabPane.addTab("General", generalDataPanel);
 		dataTabPane.addTab("Map", mapPanel);
 		dataTabPane.addTab("Terraforming", terraformingPanel);
+		if (openFile!=null) {
+			TerraformingHistoryPanel historyPanel = new TerraformingHistoryPanel(openFile);
+			TerraformingHistory.getInstance().addListener(historyPanel::updateChart);
+			TerraformingHistory.getInstance().addListener(this::updateMeasuredRates);
+			dataTabPane.addTab("History", historyPanel);
+		}
 		dataTabPane.addTab("World Objects", new WorldObjectsPanel(this,data,mapPanel));
 		dataTabPane.addTab("Object Lists", new ObjectListsPanel(data,mapPanel));
 		dataTabPane.addTab("Supply -> Demand", new SupplyDemandPanel(data));
+		dataTabPane.addTab("Bases", new BasesPanel(data, mapPanel));
 		if (data.generatedWrecks!=null && !data.generatedWrecks.isEmpty())
 			dataTabPane.addTab("Generated Wrecks", new GeneratedWrecksPanel(this,data,mapPanel));
 		dataTabPane.addTab("[ Object Types ]", objectTypesPanel);
 		dataTabPane.addTab("[ AutoCrafter Trading ]", autoCrafterTrading.createNewPanel());
-		dataTabPane.addTab(titleFarWreckAreaTablePanel, new FarWreckAreaTablePanel(planet));
+		dataTabPane.addTab(titleFarWreckAreaTablePanel, new FarWreckAreaTablePanel(planet, data));
 		
 		mapShapesEditor.updateAfterNewObjectTypes();
 		
 		SwingUtilities.invokeLater(() -> {
 			mapPanel.initialize();
+			updateMeasuredRates();
 		});
 	}
 
@@ -867,6 +915,7 @@ public class PlanetCrafterSaveGameViewer implements ActionListener {
 			MapBackgroundImage_FixPoint_Image2X,
 			MapBackgroundImage_FixPoint_Image2Y,
 			MapView_ShowWreckAreas,
+			MapView_ClusterMarkers,
 		}
 	
 		enum ValueGroup implements Settings.GroupKeys<ValueKey> {
@@ -0,0 +1,160 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a PNG image (8 bit RGBA, not interlaced) row by row,
+ * so the whole image never has to be in memory.
+ */
+class PngStreamWriter implements AutoCloseable
+{
+	private static final byte[] SIGNATURE = { (byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+	private static final int IDAT_CHUNK_SIZE = 1<<16;
+	private static final int BYTES_PER_PIXEL = 4;
+	private static final byte FILTER_SUB = 1;
+
+	private final DataOutputStream out;
+	private final Deflater deflater;
+	private final DeflaterOutputStream idat;
+	private final int width;
+	private final int height;
+	private final byte[] scanline;
+	private int writtenRows;
+
+	PngStreamWriter(OutputStream out, int width, int height) throws IOException
+	{
+		if (width<=0 || height<=0)
+			throw new IllegalArgumentException(String.format("Invalid image size: %d x %d", width, height));
+
+		this.out = new DataOutputStream(out);
+		this.width = width;
+		this.height = height;
+		scanline = new byte[1 + width*BYTES_PER_PIXEL];
+		writtenRows = 0;
+
+		this.out.write(SIGNATURE);
+
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		DataOutputStream headerOut = new DataOutputStream(header);
+		headerOut.writeInt(width);
+		headerOut.writeInt(height);
+		headerOut.writeByte(8); // bit depth
+		headerOut.writeByte(6); // color type: RGBA
+		headerOut.writeByte(0); // compression method
+		headerOut.writeByte(0); // filter method
+		headerOut.writeByte(0); // interlace method: none
+		writeChunk("IHDR", header.toByteArray(), header.size());
+
+		deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+		idat = new DeflaterOutputStream(new ChunkOutputStream(), deflater, IDAT_CHUNK_SIZE);
+	}
+
+	int getWrittenRows() { return writtenRows; }
+
+	/**
+	 * Writes <code>nRows</code> rows of ARGB pixels, that start at <code>offset</code> in <code>argb</code>.
+	 */
+	void writeRows(int[] argb, int offset, int scanlineStride, int nRows) throws IOException
+	{
+		if (writtenRows+nRows > height)
+			throw new IllegalStateException(String.format("Can't write %d rows. Only %d of %d rows are left.", nRows, height-writtenRows, height));
+
+		for (int row=0; row<nRows; row++)
+		{
+			int rowOffset = offset + row*scanlineStride;
+			scanline[0] = FILTER_SUB;
+			int prevR = 0, prevG = 0, prevB = 0, prevA = 0;
+			for (int x=0; x<width; x++)
+			{
+				int pixel = argb[rowOffset+x];
+				int r = (pixel>>16) & 0xFF;
+				int g = (pixel>> 8) & 0xFF;
+				int b = (pixel    ) & 0xFF;
+				int a = (pixel>>>24);
+				int i = 1 + x*BYTES_PER_PIXEL;
+				scanline[i  ] = (byte) (r-prevR);
+				scanline[i+1] = (byte) (g-prevG);
+				scanline[i+2] = (byte) (b-prevB);
+				scanline[i+3] = (byte) (a-prevA);
+				prevR = r; prevG = g; prevB = b; prevA = a;
+			}
+			idat.write(scanline);
+			writtenRows++;
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			idat.close(); // writes last IDAT chunk
+			writeChunk("IEND", new byte[0], 0);
+			out.flush();
+		}
+		finally
+		{
+			deflater.end();
+			out.close();
+		}
+	}
+
+	private void writeChunk(String type, byte[] data, int length) throws IOException
+	{
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+	private class ChunkOutputStream extends OutputStream
+	{
+		private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+		private int count = 0;
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			if (count==buffer.length) flushChunk();
+			buffer[count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			while (len>0)
+			{
+				if (count==buffer.length) flushChunk();
+				int n = Math.min(len, buffer.length-count);
+				System.arraycopy(b, off, buffer, count, n);
+				count += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			if (count>0) flushChunk();
+		}
+
+		private void flushChunk() throws IOException
+		{
+			writeChunk("IDAT", buffer, count);
+			count = 0;
+		}
+	}
+}
@@ -0,0 +1,267 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Computes a short route, that starts at a given position and visits all stops (open tour, no return to start).<br>
+ * A nearest neighbor tour is improved by 2-opt and Or-opt moves until no move improves the route or the time budget is used up.
+ * Moves are only tried between nearby stops (k nearest neighbors via a MapSpatialIndex).
+ */
+class RoutePlanner
+{
+	private static final int NEIGHBORS = 8;
+	private static final int MAX_SEGMENT_LENGTH = 3; // Or-opt
+
+	/**
+	 * @param order indices of stops in visiting order
+	 */
+	record Route(Data.MapPos start, List<? extends Data.MapPos> stops, int[] order, double length) {}
+
+	private final Data.MapPos start;
+	private final List<? extends Data.MapPos> stops;
+	private final int n; // number of nodes = stops + start (node 0)
+	private final double[] x, y;
+	private final MapSpatialIndex<Data.MapPos> index;
+	private final int[][] neighbors;
+	private final int[] tour; // tour[0] = 0 (start)
+	private final int[] posInTour;
+
+	private RoutePlanner(Data.MapPos start, List<? extends Data.MapPos> stops)
+	{
+		this.start = start;
+		this.stops = stops;
+		n = stops.size()+1;
+		Vector<Data.MapPos> nodes = new Vector<>(n);
+		nodes.add(start);
+		nodes.addAll(stops);
+		index = new MapSpatialIndex<>(nodes, pos -> pos);
+		x = new double[n];
+		y = new double[n];
+		for (int i=0; i<n; i++) { x[i] = index.getX(i); y[i] = index.getY(i); }
+		neighbors = new int[n][];
+		tour = new int[n];
+		posInTour = new int[n];
+	}
+
+	/**
+	 * Returns the planned route or <code>null</code>, if planning was cancelled.
+	 * @param showIntermediate  gets the nearest neighbor route, before it is improved (can be <code>null</code>)
+	 */
+	static Route plan(Data.MapPos start, List<? extends Data.MapPos> stops, long timeBudget_ms, BooleanSupplier isCancelled, Consumer<Route> showIntermediate)
+	{
+		RoutePlanner planner = new RoutePlanner(start, stops);
+		if (!planner.computeNeighbors(isCancelled)) return null;
+		if (!planner.buildNearestNeighborTour(isCancelled)) return null;
+		if (showIntermediate!=null) showIntermediate.accept(planner.createRoute());
+
+		long deadline = System.nanoTime() + timeBudget_ms*1000000L;
+		BooleanSupplier stop = () -> isCancelled.getAsBoolean() || System.nanoTime()>deadline;
+		boolean improved = true;
+		while (improved && !stop.getAsBoolean())
+			improved = planner.improveBy2Opt(stop) | planner.improveByOrOpt(stop);
+		if (isCancelled.getAsBoolean()) return null;
+
+		return planner.createRoute();
+	}
+
+	private Route createRoute()
+	{
+		int[] order = new int[n-1];
+		double length = 0;
+		for (int i=1; i<n; i++)
+		{
+			order[i-1] = tour[i]-1;
+			length += dist(tour[i-1], tour[i]);
+		}
+		return new Route(start, stops, order, length);
+	}
+
+	private double dist(int a, int b)
+	{
+		return Math.hypot(x[a]-x[b], y[a]-y[b]);
+	}
+
+	/** distance of tour edge, that starts at position i (0 at end of open tour) */
+	private double edge(int i)
+	{
+		return i+1<n ? dist(tour[i], tour[i+1]) : 0;
+	}
+
+	private boolean computeNeighbors(BooleanSupplier isCancelled)
+	{
+		double minX = Arrays.stream(x).min().orElse(0), maxX = Arrays.stream(x).max().orElse(0);
+		double minY = Arrays.stream(y).min().orElse(0), maxY = Arrays.stream(y).max().orElse(0);
+		double maxRadius = Math.max(Math.hypot(maxX-minX, maxY-minY), 1e-6);
+		double initialRadius = Math.max(Math.sqrt( (maxX-minX)*(maxY-minY) / n ) * 2, maxRadius*1e-6);
+		int k = Math.min(NEIGHBORS, n-1);
+
+		Vector<Integer> candidates = new Vector<>();
+		for (int a=0; a<n; a++)
+		{
+			if (isCancelled.getAsBoolean()) return false;
+			double r = initialRadius;
+			do
+			{
+				candidates.clear();
+				int a_ = a;
+				index.forEachInRect(x[a]-r, y[a]-r, x[a]+r, y[a]+r, b -> { if (b!=a_) candidates.add(b); });
+				r *= 2;
+			}
+			while (candidates.size()<k && r<4*maxRadius);
+
+			int a_ = a;
+			candidates.sort((b1,b2) -> Double.compare(dist(a_,b1), dist(a_,b2)));
+			neighbors[a] = candidates.stream().limit(k).mapToInt(Integer::intValue).toArray();
+		}
+		return true;
+	}
+
+	private boolean buildNearestNeighborTour(BooleanSupplier isCancelled)
+	{
+		boolean[] visited = new boolean[n];
+		tour[0] = 0;
+		visited[0] = true;
+		for (int i=1; i<n; i++)
+		{
+			if (isCancelled.getAsBoolean()) return false;
+			int current = tour[i-1];
+			int next = -1;
+			for (int b : neighbors[current]) // sorted by distance
+				if (!visited[b]) { next = b; break; }
+			if (next<0)
+				next = findNearestUnvisited(current, visited);
+			tour[i] = next;
+			visited[next] = true;
+		}
+		for (int i=0; i<n; i++) posInTour[tour[i]] = i;
+		return true;
+	}
+
+	private int findNearestUnvisited(int a, boolean[] visited)
+	{
+		int nearest = -1;
+		for (double r = Math.max(dist(a, neighbors[a].length==0 ? a : neighbors[a][neighbors[a].length-1]), 1e-6); nearest<0; r *= 2)
+		{
+			double[] min = { Double.POSITIVE_INFINITY };
+			int[] found = { -1 };
+			index.forEachInRect(x[a]-r, y[a]-r, x[a]+r, y[a]+r, b -> {
+				double d = dist(a,b);
+				if (!visited[b] && d<min[0]) { min[0] = d; found[0] = b; }
+			});
+			// a found node is only the nearest, if it's within the circle of radius r
+			if (found[0]>=0 && min[0]<=r) nearest = found[0];
+		}
+		return nearest;
+	}
+
+	/**
+	 * 2-opt: replaces edges (a,b) and (c,d) by (a,c) and (b,d) by reversing the part between them.
+	 */
+	private boolean improveBy2Opt(BooleanSupplier stop)
+	{
+		boolean improved = false;
+		for (int i=0; i<n-1; i++)
+		{
+			if (stop.getAsBoolean()) break;
+			int a = tour[i];
+			int b = tour[i+1];
+			double d_ab = dist(a,b);
+			for (int c : neighbors[a])
+			{
+				int j = posInTour[c];
+				if (j<=i+1) continue;
+				double gain = d_ab + edge(j) - dist(a,c) - (j+1<n ? dist(b, tour[j+1]) : 0);
+				if (gain > 1e-9)
+				{
+					reverse(i+1, j);
+					improved = true;
+					break;
+				}
+			}
+		}
+		return improved;
+	}
+
+	private void reverse(int from, int to)
+	{
+		for (; from<to; from++, to--)
+		{
+			int temp = tour[from];
+			tour[from] = tour[to];
+			tour[to] = temp;
+			posInTour[tour[from]] = from;
+			posInTour[tour[to  ]] = to;
+		}
+	}
+
+	/**
+	 * Or-opt: moves a segment of 1 to 3 stops (maybe reversed) between a nearby stop and its successor.
+	 */
+	private boolean improveByOrOpt(BooleanSupplier stop)
+	{
+		boolean improved = false;
+		for (int length=1; length<=MAX_SEGMENT_LENGTH; length++)
+			for (int i=1; i+length<=n; i++)
+			{
+				if (stop.getAsBoolean()) return improved;
+				int first = tour[i];
+				int last  = tour[i+length-1];
+				int prev  = tour[i-1];
+				boolean hasNext = i+length<n;
+				int next  = hasNext ? tour[i+length] : -1;
+				double removeGain = dist(prev,first) + (hasNext ? dist(last,next) - dist(prev,next) : 0);
+
+				for (int c : neighbors[first])
+				{
+					int j = posInTour[c];
+					if (j>=i-1 && j<i+length) continue; // c in segment or edge (prev,first)
+					boolean cHasNext = j+1<n;
+					int d = cHasNext ? tour[j+1] : -1;
+					double d_cd = cHasNext ? dist(c,d) : 0;
+					// insert between c and d: c -> last ... first -> d  (reversed) or c -> first ... last -> d
+					double costReversed = dist(c,last ) + (cHasNext ? dist(first,d) : 0) - d_cd;
+					double costForward  = dist(c,first) + (cHasNext ? dist(last ,d) : 0) - d_cd;
+					boolean reversed = costReversed < costForward;
+					double gain = removeGain - Math.min(costReversed, costForward);
+					if (gain > 1e-9)
+					{
+						moveSegment(i, length, j, reversed);
+						improved = true;
+						break;
+					}
+				}
+			}
+		return improved;
+	}
+
+	/**
+	 * Moves segment [i, i+length) behind position j (j outside of segment).
+	 */
+	private void moveSegment(int i, int length, int j, boolean reversed)
+	{
+		int[] segment = Arrays.copyOfRange(tour, i, i+length);
+		if (reversed)
+			for (int k=0; k<length/2; k++) { int temp = segment[k]; segment[k] = segment[length-1-k]; segment[length-1-k] = temp; }
+
+		int insertPos;
+		if (j<i)
+		{
+			System.arraycopy(tour, j+1, tour, j+1+length, i-j-1);
+			insertPos = j+1;
+		}
+		else
+		{
+			System.arraycopy(tour, i+length, tour, i, j-(i+length)+1);
+			insertPos = j-length+1;
+		}
+		System.arraycopy(segment, 0, tour, insertPos, length);
+
+		int from = Math.min(i, insertPos);
+		int to   = Math.max(i+length, j+1);
+		for (int k=from; k<to && k<n; k++) posInTour[tour[k]] = k;
+	}
+}
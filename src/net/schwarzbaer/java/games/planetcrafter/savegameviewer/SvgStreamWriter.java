@@ -0,0 +1,158 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes a SVG document element by element directly to a Writer.
+ */
+class SvgStreamWriter implements AutoCloseable
+{
+	private final Writer out;
+	private final double[] coords;
+
+	SvgStreamWriter(Writer out, double width, double height) throws IOException
+	{
+		this.out = out;
+		coords = new double[6];
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		out.write(String.format(Locale.ENGLISH,
+				"<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\"%s\" height=\"%s\" viewBox=\"0 0 %s %s\">%n",
+				toString(width), toString(height), toString(width), toString(height)
+		));
+	}
+
+	void beginDefs() throws IOException { out.write("<defs>\n"); }
+	void endDefs  () throws IOException { out.write("</defs>\n"); }
+
+	/**
+	 * Begins a group (e.g. a layer). <code>strokeColor</code> is inherited by all elements without their own stroke color.
+	 */
+	void beginGroup(String id, Color strokeColor) throws IOException
+	{
+		if (strokeColor==null)
+			out.write(String.format("<g id=\"%s\">%n", id));
+		else
+			out.write(String.format("<g id=\"%s\" stroke=\"%s\"%s>%n", id, toString(strokeColor), getOpacityAttr("stroke-opacity", strokeColor)));
+	}
+	void endGroup() throws IOException { out.write("</g>\n"); }
+
+	/**
+	 * Writes a symbol, that contains the outline of <code>shape</code>.
+	 * Stroke width doesn't scale with a transform of a referencing &lt;use&gt;.
+	 */
+	void writeSymbol(String id, Shape shape) throws IOException
+	{
+		out.write(String.format("<symbol id=\"%s\" overflow=\"visible\"><path d=\"", id));
+		writePathData(shape);
+		out.write("\" fill=\"none\" vector-effect=\"non-scaling-stroke\"/></symbol>\n");
+	}
+
+	/**
+	 * Writes a symbol with a circle, that is filled with the fill color of a referencing &lt;use&gt;.
+	 */
+	void writeCircleSymbol(String id, double radius, Color contourColor) throws IOException
+	{
+		out.write(String.format("<symbol id=\"%s\" overflow=\"visible\"><circle r=\"%s\" stroke=\"%s\"%s/></symbol>%n",
+				id, toString(radius), toString(contourColor), getOpacityAttr("stroke-opacity", contourColor)
+		));
+	}
+
+	void writeUse(String symbolId, AffineTransform transform) throws IOException
+	{
+		double[] m = new double[6];
+		transform.getMatrix(m);
+		out.write(String.format("<use xlink:href=\"#%s\" transform=\"matrix(%s %s %s %s %s %s)\"/>%n",
+				symbolId, toString(m[0]), toString(m[1]), toString(m[2]), toString(m[3]), toString(m[4]), toString(m[5])
+		));
+	}
+
+	void writeUse(String symbolId, double x, double y, Color fillColor) throws IOException
+	{
+		if (fillColor==null)
+			out.write(String.format("<use xlink:href=\"#%s\" x=\"%s\" y=\"%s\" fill=\"none\"/>%n", symbolId, toString(x), toString(y)));
+		else
+			out.write(String.format("<use xlink:href=\"#%s\" x=\"%s\" y=\"%s\" fill=\"%s\"%s/>%n",
+					symbolId, toString(x), toString(y), toString(fillColor), getOpacityAttr("fill-opacity", fillColor)
+			));
+	}
+
+	void writePolygon(double[] xPoints, double[] yPoints, Color color, double lineWidth, String dashArray) throws IOException
+	{
+		out.write("<polygon points=\"");
+		for (int i=0; i<xPoints.length; i++)
+		{
+			if (i>0) out.write(' ');
+			out.write(toString(xPoints[i]));
+			out.write(',');
+			out.write(toString(yPoints[i]));
+		}
+		out.write(String.format("\" fill=\"none\" stroke=\"%s\"%s stroke-width=\"%s\"%s/>%n",
+				toString(color), getOpacityAttr("stroke-opacity", color), toString(lineWidth),
+				dashArray==null ? "" : String.format(" stroke-dasharray=\"%s\"", dashArray)
+		));
+	}
+
+	void writeCross(double x, double y, double size, Color color) throws IOException
+	{
+		out.write(String.format("<path d=\"M%s %sL%s %sM%s %sL%s %s\" stroke=\"%s\"%s/>%n",
+				toString(x-size), toString(y-size), toString(x+size), toString(y+size),
+				toString(x+size), toString(y-size), toString(x-size), toString(y+size),
+				toString(color), getOpacityAttr("stroke-opacity", color)
+		));
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			out.write("</svg>\n");
+			out.flush();
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	private void writePathData(Shape shape) throws IOException
+	{
+		for (PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next())
+			switch (it.currentSegment(coords))
+			{
+				case PathIterator.SEG_MOVETO : out.write(String.format("M%s %s"            , toString(coords[0]), toString(coords[1]))); break;
+				case PathIterator.SEG_LINETO : out.write(String.format("L%s %s"            , toString(coords[0]), toString(coords[1]))); break;
+				case PathIterator.SEG_QUADTO : out.write(String.format("Q%s %s %s %s"      , toString(coords[0]), toString(coords[1]), toString(coords[2]), toString(coords[3]))); break;
+				case PathIterator.SEG_CUBICTO: out.write(String.format("C%s %s %s %s %s %s", toString(coords[0]), toString(coords[1]), toString(coords[2]), toString(coords[3]), toString(coords[4]), toString(coords[5]))); break;
+				case PathIterator.SEG_CLOSE  : out.write("Z"); break;
+			}
+	}
+
+	private static String getOpacityAttr(String attrName, Color color)
+	{
+		if (color.getAlpha()==255) return "";
+		return String.format(" %s=\"%s\"", attrName, toString(color.getAlpha()/255.0));
+	}
+
+	private static String toString(Color color)
+	{
+		return String.format("#%06X", color.getRGB() & 0xFFFFFF);
+	}
+
+	private static String toString(double value)
+	{
+		String str = String.format(Locale.ENGLISH, "%.4f", value);
+		// strip trailing zeros -> smaller file
+		int end = str.length();
+		while (str.charAt(end-1)=='0') end--;
+		if (str.charAt(end-1)=='.') end--;
+		str = str.substring(0, end);
+		return str.equals("-0") ? "0" : str;
+	}
+}
@@ -1,11 +1,15 @@
 package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -16,56 +20,191 @@ import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.Physi
 
 class TerraformingCalculation
 {
-	private static TerraformingCalculation instance = null;
+	// created eagerly, because it's used by the EDT and by the file reading thread
+	private static final TerraformingCalculation instance = new TerraformingCalculation();
 	static TerraformingCalculation getInstance()
 	{
-		return instance == null
-				? instance = new TerraformingCalculation()
-				: instance;
+		return instance;
 	}
 	
-	private final Map<PhysicalValue,TerraformingAspect> aspects;
+	private final AtomicReference<Snapshot> currentSnapshot;
+	private final AtomicReference<Snapshot> previousSnapshot;
+	private final AtomicReference<MultiplierCaches> multiplierCaches;
 
-	TerraformingCalculation()
+	private TerraformingCalculation()
 	{
-		aspects = new EnumMap<>(PhysicalValue.class);
-		for (PhysicalValue phVal : PhysicalValue.values())
-			aspects.put(phVal, new TerraformingAspect(phVal));
+		multiplierCaches = new AtomicReference<>(new MultiplierCaches(0));
+		currentSnapshot  = new AtomicReference<>(new Snapshot(null, new EnumMap<>(PhysicalValue.class)));
+		previousSnapshot = new AtomicReference<>(null);
 	}
 
-	TerraformingAspect getAspect(PhysicalValue physicalValue)
+	/**
+	 * One generation of multiplier caches. Clearing the caches replaces the whole generation,
+	 * so a computation, that is still running with an old generation, can't write into the new one.
+	 */
+	private static class MultiplierCaches
 	{
-		return aspects.get(physicalValue);
+		final int generation;
+		final Map<PhysicalValue,Map<ContentKey,Double>> storedMultiplierCaches; // content signature -> multiplier (NaN: no multiplier)
+		final Map<PhysicalValue,Map<ContentKey,Double>> fuseMultiplierCaches;   // content signature -> summed fuse multiplier (NaN: no fuse)
+
+		MultiplierCaches(int generation)
+		{
+			this.generation = generation;
+			storedMultiplierCaches = new EnumMap<>(PhysicalValue.class);
+			fuseMultiplierCaches   = new EnumMap<>(PhysicalValue.class);
+			for (PhysicalValue phVal : PhysicalValue.values())
+			{
+				storedMultiplierCaches.put(phVal, new ConcurrentHashMap<>());
+				fuseMultiplierCaches  .put(phVal, new ConcurrentHashMap<>());
+			}
+		}
 	}
-	
-	void clearData(PhysicalValue physicalValue)
+
+	Snapshot getCurrentSnapshot () { return currentSnapshot .get(); }
+	/**
+	 * Returns the last snapshot of the Data object, that was replaced by the current one.
+	 * Recalculations of the current Data object don't change it.
+	 */
+	Snapshot getPreviousSnapshot() { return previousSnapshot.get(); }
+
+	/**
+	 * Publishes <code>snapshot</code>, if <code>base</code> is still the current snapshot.
+	 * @return <code>true</code>, if <code>snapshot</code> was published
+	 */
+	private synchronized boolean publish(Snapshot base, Snapshot snapshot)
 	{
-		getAspect(physicalValue).clearData();
+		if (!currentSnapshot.compareAndSet(base, snapshot))
+			return false;
+		if (snapshot.data != base.data)
+			previousSnapshot.set(base);
+		return true;
+	}
+
+	/**
+	 * Returns the current snapshot, if it was computed for <code>data</code>.
+	 * Otherwise a new snapshot will be computed (in the calling thread) and published.
+	 */
+	Snapshot getSnapshot(Data data)
+	{
+		while (true)
+		{
+			Snapshot base = currentSnapshot.get();
+			if (base.data == data)
+				return base;
+			
+			EnumMap<PhysicalValue,TerraformingAspect> aspects = new EnumMap<>(PhysicalValue.class);
+			for (PhysicalValue phVal : PhysicalValue.values())
+				aspects.put(phVal, computeAspect(data, phVal));
+			
+			Snapshot snapshot = new Snapshot(data, aspects);
+			if (publish(base, snapshot))
+				return snapshot;
+			// another snapshot was published meanwhile -> try again
+		}
+	}
+
+	/**
+	 * Computes one aspect again (e.g. after a change of an ObjectType) and publishes a new snapshot with it.
+	 * If meanwhile a snapshot of another Data object was published, the computed aspect is only returned.
+	 */
+	TerraformingAspect recalculate(Data data, PhysicalValue physicalValue)
+	{
+		Snapshot base = getSnapshot(data);
+		while (true)
+		{
+			TerraformingAspect aspect = computeAspect(data, physicalValue);
+			if (publish(base, base.with(physicalValue, aspect)))
+				return aspect;
+			
+			base = currentSnapshot.get();
+			if (base.data != data)
+				return aspect;
+		}
+	}
+
+	private TerraformingAspect computeAspect(Data data, PhysicalValue physicalValue)
+	{
+		MultiplierCaches caches = multiplierCaches.get();
+		TerraformingAspect aspect = new TerraformingAspect(physicalValue, caches.storedMultiplierCaches.get(physicalValue), caches.fuseMultiplierCaches.get(physicalValue));
+		if (data!=null && data.worldObjects!=null)
+			aspect.calculate(data.worldObjects);
+		return aspect;
+	}
+
+	TerraformingAspect getAspect(PhysicalValue physicalValue)
+	{
+		return getCurrentSnapshot().getAspect(physicalValue);
 	}
 	
 	void clearData()
 	{
-		aspects.forEach((phVal,aspect)->{
-			aspect.clearData();
-		});
+		Snapshot empty = new Snapshot(null, new EnumMap<>(PhysicalValue.class));
+		while (!publish(currentSnapshot.get(), empty)) {}
+		clearMultiplierCache();
+	}
+
+	void clearMultiplierCache()
+	{
+		multiplierCaches.updateAndGet(caches -> new MultiplierCaches(caches.generation+1));
 	}
 
 	void foreachAWO(WorldObject worldObject, boolean skipNulls, BiConsumer<PhysicalValue,ActiveWorldObject> action)
 	{
-		aspects.forEach((phVal,aspect)->{
-			ActiveWorldObject awo = aspect.getAWO(worldObject);
-			if (awo!=null || !skipNulls)
-				action.accept(phVal, awo);
-		});
+		getCurrentSnapshot().foreachAWO(worldObject, skipNulls, action);
 	}
 
 	void foreachAMO(WorldObject worldObject, boolean skipNulls, BiConsumer<PhysicalValue,ActiveMachineOptimizer> action)
 	{
-		aspects.forEach((phVal,aspect)->{
-			ActiveMachineOptimizer amo = aspect.getAMO(worldObject);
-			if (amo!=null || !skipNulls)
-				action.accept(phVal, amo);
-		});
+		getCurrentSnapshot().foreachAMO(worldObject, skipNulls, action);
+	}
+	
+	/**
+	 * Immutable result of a TerraformingCalculation for one Data object.
+	 * Snapshots are never changed after publication, so old and new snapshots can be compared with each other.
+	 */
+	static class Snapshot
+	{
+		final Data data;
+		private final EnumMap<PhysicalValue,TerraformingAspect> aspects;
+
+		private Snapshot(Data data, EnumMap<PhysicalValue,TerraformingAspect> aspects)
+		{
+			this.data = data;
+			this.aspects = aspects;
+			for (PhysicalValue phVal : PhysicalValue.values())
+				this.aspects.computeIfAbsent(phVal, pv -> new TerraformingAspect(pv, null, null));
+		}
+
+		private Snapshot with(PhysicalValue physicalValue, TerraformingAspect aspect)
+		{
+			EnumMap<PhysicalValue,TerraformingAspect> newAspects = new EnumMap<>(aspects);
+			newAspects.put(physicalValue, aspect);
+			return new Snapshot(data, newAspects);
+		}
+
+		TerraformingAspect getAspect(PhysicalValue physicalValue)
+		{
+			return aspects.get(physicalValue);
+		}
+
+		void foreachAWO(WorldObject worldObject, boolean skipNulls, BiConsumer<PhysicalValue,ActiveWorldObject> action)
+		{
+			aspects.forEach((phVal,aspect)->{
+				ActiveWorldObject awo = aspect.getAWO(worldObject);
+				if (awo!=null || !skipNulls)
+					action.accept(phVal, awo);
+			});
+		}
+
+		void foreachAMO(WorldObject worldObject, boolean skipNulls, BiConsumer<PhysicalValue,ActiveMachineOptimizer> action)
+		{
+			aspects.forEach((phVal,aspect)->{
+				ActiveMachineOptimizer amo = aspect.getAMO(worldObject);
+				if (amo!=null || !skipNulls)
+					action.accept(phVal, amo);
+			});
+		}
 	}
 	
 	static record BoosterRocket (
@@ -96,6 +235,19 @@ class TerraformingCalculation
 		double distance
 	) {}
 	
+	enum MarginalSource { ActiveObject, MachineOptimizer, MOFuse, BoosterRocket }
+	
+	record Marginal (
+		WorldObject wo,
+		MarginalSource source,
+		double value // = loss of totalSumBoosted, if <wo> would be removed
+	) {
+		Marginal add(double value)
+		{
+			return new Marginal(wo, this.source, this.value + value);
+		}
+	}
+	
 	static class ActiveWorldObject
 	{
 		final WorldObject wo;
@@ -112,6 +264,12 @@ class TerraformingCalculation
 			nearMachineOptimizers = new Vector<>();
 			moMulti = null;
 		}
+
+		/** value of this object in totalSum (not boosted) */
+		double getValue()
+		{
+			return baseValue * TerraformingAspect.computeMultiplier(multiplier, moMulti);
+		}
 		
 		void addMachineOptimizer(ActiveMachineOptimizer amo, double distance)
 		{
@@ -119,6 +277,24 @@ class TerraformingCalculation
 		}
 	}
 	
+	/**
+	 * Content of a container as sorted indices of its object types.
+	 * Indices are assigned to ObjectType instances at first use.
+	 */
+	private record ContentKey(int[] typeIndices)
+	{
+		private static final Map<ObjectType,Integer> TYPE_INDICES = new ConcurrentHashMap<>();
+		private static final AtomicInteger nextTypeIndex = new AtomicInteger(0);
+		
+		static int getTypeIndex(ObjectType objectType)
+		{
+			return TYPE_INDICES.computeIfAbsent(objectType, ot -> nextTypeIndex.getAndIncrement());
+		}
+		
+		@Override public int hashCode() { return Arrays.hashCode(typeIndices); }
+		@Override public boolean equals(Object obj) { return obj instanceof ContentKey other && Arrays.equals(typeIndices, other.typeIndices); }
+	}
+	
 	static class TerraformingAspect
 	{
 		private final PhysicalValue physicalValue;
@@ -128,13 +304,19 @@ class TerraformingCalculation
 		private double totalSum;
 		private double boosterMultiplier;
 		private double totalSumBoosted;
+		private final Map<WorldObject,Marginal> marginals;
+		private final Map<ContentKey,Double> storedMultiplierCache;
+		private final Map<ContentKey,Double> fuseMultiplierCache;
 		
-		TerraformingAspect(PhysicalValue physicalValue)
+		private TerraformingAspect(PhysicalValue physicalValue, Map<ContentKey,Double> storedMultiplierCache, Map<ContentKey,Double> fuseMultiplierCache)
 		{
 			this.physicalValue = physicalValue;
+			this.storedMultiplierCache = storedMultiplierCache;
+			this.fuseMultiplierCache   = fuseMultiplierCache;
 			activeWorldObjects = new HashMap<>();
 			machineOptimizers  = new HashMap<>();
 			boosterRockets     = new HashMap<>();
+			marginals          = new HashMap<>();
 			totalSum = 0;
 			boosterMultiplier = 0;
 			totalSumBoosted = 0;
@@ -159,20 +341,22 @@ class TerraformingCalculation
 			activeWorldObjects.forEach(action);
 		}
 
-		void clearData()
+		Marginal getMarginal(WorldObject worldObject)
 		{
-			activeWorldObjects.clear();
-			machineOptimizers.clear();
-			boosterRockets.clear();
-			totalSum = 0;
-			boosterMultiplier = 0;
-			totalSumBoosted = 0;
+			return marginals.get(worldObject);
 		}
 
-		void calculate(Vector<WorldObject> worldObjects)
+		Vector<Marginal> getTopMarginals(int k)
+		{
+			Vector<Marginal> list = new Vector<>(marginals.values());
+			list.sort(Comparator.<Marginal,Double>comparing(m->m.value).reversed());
+			if (k>=0 && k<list.size())
+				list.setSize(k);
+			return list;
+		}
+
+		private void calculate(Vector<WorldObject> worldObjects)
 		{
-			clearData();
-			
 			for (WorldObject wo : worldObjects) {
 				if (wo == null) continue;
 				if (wo.objectType == null) continue;
@@ -203,6 +387,7 @@ class TerraformingCalculation
 			}
 			
 			// find ActiveWorldObjects near to an ActiveMachineOptimizer
+			Map<ActiveMachineOptimizer,ActiveWorldObject> nextAWOs = new HashMap<>(); // first AWO beyond capacity of a MachineOptimizer
 			for (ActiveMachineOptimizer machOpt : machineOptimizers.values()) {
 				machOpt.nearAWOs.clear();
 				
@@ -215,7 +400,10 @@ class TerraformingCalculation
 				machOpt.nearAWOs.sort(Comparator.comparing(nawo->nawo.distance));
 				
 				if (machOpt.capacity < machOpt.nearAWOs.size())
+				{
+					nextAWOs.put(machOpt, machOpt.nearAWOs.get(machOpt.capacity).awo);
 					machOpt.nearAWOs.setSize(machOpt.capacity);
+				}
 			}
 			
 			// clear MachineOptimizer values in ActiveWorldObjects
@@ -234,19 +422,8 @@ class TerraformingCalculation
 			}
 			
 			totalSum = 0;
-			for (ActiveWorldObject aWoObj : activeWorldObjects.values()) {
-				double multiplier;
-				if (aWoObj.multiplier!=null && aWoObj.moMulti!=null)
-					multiplier = aWoObj.multiplier + aWoObj.moMulti;
-				else
-					multiplier =
-							aWoObj.multiplier!=null
-								? aWoObj.multiplier
-								: aWoObj.moMulti!=null
-										? aWoObj.moMulti
-										: 1;
-				totalSum += aWoObj.baseValue * multiplier;
-			}
+			for (ActiveWorldObject aWoObj : activeWorldObjects.values())
+				totalSum += aWoObj.baseValue * computeMultiplier(aWoObj.multiplier, aWoObj.moMulti);
 			
 			Double boosterMultiplier = null;
 			for (BoosterRocket booster : boosterRockets.values()) {
@@ -259,6 +436,117 @@ class TerraformingCalculation
 			this.boosterMultiplier = boosterMultiplier == null ? 1.0 : boosterMultiplier;
 			
 			totalSumBoosted = totalSum * this.boosterMultiplier;
+			
+			computeMarginals(nextAWOs);
+		}
+
+		private static double computeMultiplier(Double multiplier, Double moMulti)
+		{
+			if (multiplier!=null && moMulti!=null)
+				return multiplier + moMulti;
+			return multiplier!=null
+					? multiplier
+					: moMulti!=null
+						? moMulti
+						: 1;
+		}
+
+		private void computeMarginals(Map<ActiveMachineOptimizer,ActiveWorldObject> nextAWOs)
+		{
+			// Each marginal value is computed from the bookkeeping of the last calculation (nearAWOs, nearMachineOptimizers)
+			// instead of a full recalculation without the removed object.
+			marginals.clear();
+			
+			// ActiveWorldObjects: own value + AWOs, that would move up into the capacity of a MachineOptimizer
+			for (ActiveWorldObject awo : activeWorldObjects.values())
+			{
+				double value = awo.baseValue * computeMultiplier(awo.multiplier, awo.moMulti);
+				
+				Map<ActiveWorldObject,Double> extraMOMulti = new HashMap<>();
+				for (NearMachineOptimizer nmo : awo.nearMachineOptimizers) {
+					ActiveWorldObject next = nextAWOs.get(nmo.amo);
+					if (next!=null)
+						extraMOMulti.merge(next, nmo.amo.fuseMulti, Double::sum);
+				}
+				for (ActiveWorldObject next : extraMOMulti.keySet()) {
+					double moMulti = (next.moMulti==null ? 0 : next.moMulti) + extraMOMulti.get(next);
+					value -= next.baseValue * ( computeMultiplier(next.multiplier, moMulti) - computeMultiplier(next.multiplier, next.moMulti) );
+				}
+				
+				addMarginal(awo.wo, MarginalSource.ActiveObject, value * boosterMultiplier);
+			}
+			
+			// MachineOptimizers and their fuses
+			for (ActiveMachineOptimizer amo : machineOptimizers.values())
+			{
+				addMarginal(amo.wo, MarginalSource.MachineOptimizer, computeLossOfMachineOptimizer(amo, null) * boosterMultiplier);
+				
+				Vector<WorldObject> fuses = new Vector<>();
+				for (WorldObject fuse : amo.wo.list.worldObjs) {
+					if (fuse            == null) continue;
+					if (fuse.objectType == null) continue;
+					if (fuse.objectType.isMOFuse != physicalValue) continue;
+					if (fuse.objectType.moFuseMultiplier == null) continue;
+					fuses.add(fuse);
+				}
+				for (WorldObject fuse : fuses) {
+					Double reduction = fuses.size()<=1 ? null : fuse.objectType.moFuseMultiplier; // last fuse -> MachineOptimizer gets inactive
+					addMarginal(fuse, MarginalSource.MOFuse, computeLossOfMachineOptimizer(amo, reduction) * boosterMultiplier);
+				}
+			}
+			
+			// BoosterRockets
+			int nBoosters = 0;
+			for (BoosterRocket booster : boosterRockets.values())
+				if (booster.boosterMultiplier!=null)
+					nBoosters++;
+			for (BoosterRocket booster : boosterRockets.values())
+			{
+				if (booster.boosterMultiplier==null) continue;
+				double remainingMultiplier = nBoosters<=1 ? 1.0 : boosterMultiplier - booster.boosterMultiplier;
+				addMarginal(booster.wo, MarginalSource.BoosterRocket, totalSum * (boosterMultiplier - remainingMultiplier));
+			}
+		}
+
+		/**
+		 * Computes the loss of totalSum (not boosted), if the multiplier of a MachineOptimizer is reduced by <code>reduction</code>.
+		 * A <code>reduction</code> of <code>null</code> means: the MachineOptimizer is removed completely.
+		 */
+		private static double computeLossOfMachineOptimizer(ActiveMachineOptimizer amo, Double reduction)
+		{
+			double loss = 0;
+			for (NearActiveWorldObject nawo : amo.nearAWOs)
+			{
+				ActiveWorldObject awo = nawo.awo;
+				Double newMOMulti;
+				if (reduction!=null)
+					newMOMulti = awo.moMulti - reduction;
+				else if (awo.nearMachineOptimizers.size()<=1)
+					newMOMulti = null;
+				else
+					newMOMulti = awo.moMulti - amo.fuseMulti;
+				loss += awo.baseValue * ( computeMultiplier(awo.multiplier, awo.moMulti) - computeMultiplier(awo.multiplier, newMOMulti) );
+			}
+			return loss;
+		}
+
+		private void addMarginal(WorldObject wo, MarginalSource source, double value)
+		{
+			Marginal marginal = marginals.get(wo);
+			marginals.put(wo, marginal==null ? new Marginal(wo, source, value) : marginal.add(value));
+		}
+
+		private static ContentKey getContentSignature(WorldObject[] worldObjs)
+		{
+			// sorted multiset of object type indices -> identical contents give identical signatures
+			int[] typeIndices = new int[worldObjs.length];
+			int n = 0;
+			for (WorldObject wo : worldObjs)
+				if (wo!=null && wo.objectType!=null)
+					typeIndices[n++] = ContentKey.getTypeIndex(wo.objectType);
+			if (n<typeIndices.length) typeIndices = Arrays.copyOf(typeIndices, n);
+			Arrays.sort(typeIndices);
+			return new ContentKey(typeIndices);
 		}
 
 		private Double getMultiplierFromStoredObjects(WorldObject wo, Function<ObjectType, Double> getMultiplier)
@@ -269,8 +557,12 @@ class TerraformingCalculation
 			if (wo.list.worldObjs.length==0) return null;
 			// TODO Can wo.specialLists be ignored in <TerraformingAspect.getMultiplierFromStoredObjects> ? 
 			
-			ObjectType[] objectTypes = WorldObject.getObjectTypes(wo.list.worldObjs);
-			return ObjectTypes.sumUpMultipliers(objectTypes, getMultiplier);
+			double multiplier = storedMultiplierCache.computeIfAbsent(getContentSignature(wo.list.worldObjs), sig->{
+				ObjectType[] objectTypes = WorldObject.getObjectTypes(wo.list.worldObjs);
+				Double sum = ObjectTypes.sumUpMultipliers(objectTypes, getMultiplier);
+				return sum==null ? Double.NaN : sum;
+			});
+			return Double.isNaN(multiplier) ? null : multiplier;
 		}
 
 		private ActiveMachineOptimizer computeMachineOptimizer(WorldObject wo)
@@ -288,18 +580,21 @@ class TerraformingCalculation
 			if ( ot.moCapacity == null) return null;
 			
 			
-			double moMulti = Double.NaN;
-			for (WorldObject fuse : wo.list.worldObjs) {
-				if (fuse            == null) continue;
-				if (fuse.objectType == null) continue;
-				ObjectType ot_fuse = fuse.objectType;
-				
-				if (ot_fuse.isMOFuse != physicalValue) continue;
-				if (ot_fuse.moFuseMultiplier  == null) continue;
-				
-				if (Double.isNaN(moMulti)) moMulti = 0;
-				moMulti += ot_fuse.moFuseMultiplier; // values of multiple fuses in one optimizer will be summarized
-			}
+			double moMulti = fuseMultiplierCache.computeIfAbsent(getContentSignature(wo.list.worldObjs), sig->{
+				double sum = Double.NaN;
+				for (WorldObject fuse : wo.list.worldObjs) {
+					if (fuse            == null) continue;
+					if (fuse.objectType == null) continue;
+					ObjectType ot_fuse = fuse.objectType;
+					
+					if (ot_fuse.isMOFuse != physicalValue) continue;
+					if (ot_fuse.moFuseMultiplier  == null) continue;
+					
+					if (Double.isNaN(sum)) sum = 0;
+					sum += ot_fuse.moFuseMultiplier; // values of multiple fuses in one optimizer will be summarized
+				}
+				return sum;
+			});
 			if (Double.isNaN(moMulti))
 				return null;
 			
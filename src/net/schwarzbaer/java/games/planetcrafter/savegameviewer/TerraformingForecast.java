@@ -0,0 +1,170 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.util.EnumMap;
+import java.util.Vector;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Achievements.Achievement;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Achievements.AchievementList;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Achievements.PlanetAchievements;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.PhysicalValue;
+
+class TerraformingForecast
+{
+	private final PlanetAchievements achievements;
+	private final EnumMap<AchievementList,ListForecast> lists;
+	private final EnumMap<PhysicalValue,Double> calculatedRates;
+
+	TerraformingForecast(PlanetAchievements achievements, Data.AchievedValues levels)
+	{
+		this.achievements = achievements;
+		lists = new EnumMap<>(AchievementList.class);
+		calculatedRates = new EnumMap<>(PhysicalValue.class);
+
+		for (AchievementList al : AchievementList.values())
+			lists.put(al, new ListForecast(getLevel(levels, al)));
+
+		updateAchievements();
+	}
+
+	private static double getLevel(Data.AchievedValues levels, AchievementList al)
+	{
+		return switch (al)
+		{
+			case Oxygen   -> levels.oxygenLevel;
+			case Heat     -> levels.heatLevel;
+			case Pressure -> levels.pressureLevel;
+			case Plants   -> levels.plantsLevel;
+			case Insects  -> levels.insectsLevel;
+			case Animals  -> levels.animalsLevel;
+			case Biomass  -> levels.getBiomassLevel();
+			case Terraformation, Stages -> levels.getTerraformLevel();
+		};
+	}
+
+	private static AchievementList getAchievementList(PhysicalValue phVal)
+	{
+		return switch (phVal)
+		{
+			case Oxygen   -> AchievementList.Oxygen;
+			case Heat     -> AchievementList.Heat;
+			case Pressure -> AchievementList.Pressure;
+			case Plants   -> AchievementList.Plants;
+			case Insects  -> AchievementList.Insects;
+			case Animals  -> AchievementList.Animals;
+		};
+	}
+
+	void updateAchievements()
+	{
+		lists.forEach((al,list)->list.setAchievements(achievements.getSortedList(al)));
+	}
+
+	void setCalculatedRate(PhysicalValue phVal, double rate)
+	{
+		calculatedRates.put(phVal, rate);
+		lists.get(getAchievementList(phVal)).setCalculatedRate(rate);
+
+		double biomassRate = getCalculatedRate(PhysicalValue.Plants) + getCalculatedRate(PhysicalValue.Insects) + getCalculatedRate(PhysicalValue.Animals);
+		double terraformRate = biomassRate + getCalculatedRate(PhysicalValue.Oxygen) + getCalculatedRate(PhysicalValue.Heat) + getCalculatedRate(PhysicalValue.Pressure);
+		lists.get(AchievementList.Biomass       ).setCalculatedRate(biomassRate);
+		lists.get(AchievementList.Terraformation).setCalculatedRate(terraformRate);
+		lists.get(AchievementList.Stages        ).setCalculatedRate(terraformRate);
+	}
+
+	private double getCalculatedRate(PhysicalValue phVal)
+	{
+		Double rate = calculatedRates.get(phVal);
+		return rate==null ? 0 : rate;
+	}
+
+	/**
+	 * Sets a rate measured between two save states (e.g. from a history of autosaves).
+	 * A measured rate has precedence over the calculated rate. <code>null</code> removes it.
+	 */
+	void setMeasuredRate(AchievementList al, Double rate)
+	{
+		lists.get(al).setMeasuredRate(rate);
+	}
+
+	boolean isRateMeasured(AchievementList al)
+	{
+		return lists.get(al).measuredRate!=null;
+	}
+
+	Vector<Forecast> getForecasts(AchievementList al)
+	{
+		return lists.get(al).getForecasts();
+	}
+
+	record Forecast(
+			Achievement achievement,
+			double level,
+			double duration_s // NaN, if not reachable with current rate
+	) {}
+
+	private static class ListForecast
+	{
+		private final double level;
+		private Vector<Achievement> sortedAchievements; // only achievements with a level
+		private double calculatedRate;
+		private Double measuredRate;
+		private Vector<Forecast> forecasts;
+
+		ListForecast(double level)
+		{
+			this.level = level;
+			sortedAchievements = new Vector<>();
+			calculatedRate = 0;
+			measuredRate = null;
+			forecasts = null;
+		}
+
+		void setAchievements(Vector<Achievement> list)
+		{
+			// pre: list is sorted by level, with level==null at end of list
+			int n = 0;
+			if (list!=null)
+				while (n<list.size() && list.get(n).getLevel()!=null)
+					n++;
+			sortedAchievements = n==0 ? new Vector<>() : new Vector<>(list.subList(0, n));
+			forecasts = null;
+		}
+
+		void setCalculatedRate(double rate)
+		{
+			if (calculatedRate == rate) return;
+			calculatedRate = rate;
+			if (measuredRate==null) forecasts = null;
+		}
+
+		void setMeasuredRate(Double rate)
+		{
+			if (rate!=null && !Double.isFinite(rate)) rate = null;
+			if (measuredRate==null ? rate==null : measuredRate.equals(rate)) return;
+			measuredRate = rate;
+			forecasts = null;
+		}
+
+		double getEffectiveRate()
+		{
+			return measuredRate!=null ? measuredRate : calculatedRate;
+		}
+
+		Vector<Forecast> getForecasts()
+		{
+			if (forecasts==null)
+			{
+				double rate = getEffectiveRate();
+				forecasts = new Vector<>();
+				for (int i=PlanetAchievements.findFirstIndexAbove(sortedAchievements, level); i<sortedAchievements.size(); i++)
+				{
+					Achievement achievement = sortedAchievements.get(i);
+					double achievementLevel = achievement.getLevel();
+					double duration_s = rate>0 ? (achievementLevel-level) / rate : Double.NaN;
+					forecasts.add(new Forecast(achievement, achievementLevel, duration_s));
+				}
+			}
+			return forecasts;
+		}
+	}
+}
@@ -0,0 +1,375 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+
+import javax.swing.SwingUtilities;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.WorldObject;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.PhysicalValue;
+
+class TerraformingHistory
+{
+	private static TerraformingHistory instance = null;
+	static TerraformingHistory getInstance()
+	{
+		return instance == null
+				? instance = new TerraformingHistory()
+				: instance;
+	}
+
+	private static final int FILE_MAGIC = 0x50435448; // "PCTH"
+	private static final int N_PHVALUES = PhysicalValue.values().length;
+	static final int RECORD_SIZE = 8 + 4 + N_PHVALUES*8 + N_PHVALUES*8 + 4 + 4 + 8 + 8;
+	private static final int HEADER_SIZE = 8;
+	private static final int RING_BUFFER_CAPACITY = 20000;
+
+	private final File file;
+	private final Record[] ringBuffer;
+	private int ringBufferStart;
+	private int ringBufferSize;
+	private final ExecutorService writer;
+	private final Vector<Runnable> listeners;
+
+	private TerraformingHistory()
+	{
+		file = new File(PlanetCrafterSaveGameViewer.FILE_TERRAFORMING_HISTORY);
+		ringBuffer = new Record[RING_BUFFER_CAPACITY];
+		ringBufferStart = 0;
+		ringBufferSize = 0;
+		listeners = new Vector<>();
+		writer = GUI.createDaemonExecutor("TerraformingHistory.Writer");
+	}
+
+	void    addListener(Runnable listener) { listeners.add(listener); }
+	void clearListeners()                  { listeners.clear(); }
+
+	static int getSaveGameID(File saveGame)
+	{
+		return saveGame.getAbsolutePath().hashCode();
+	}
+
+	record Record(
+			long timestamp_ms,
+			int saveGameID,
+			double[] levels, // indexed by PhysicalValue.ordinal()
+			double[] rates,  // indexed by PhysicalValue.ordinal()
+			int objectCount,
+			int installedObjectCount,
+			double energyProduced,
+			double energyConsumed
+	) {
+		double getLevel(PhysicalValue phVal) { return levels[phVal.ordinal()]; }
+		double getRate (PhysicalValue phVal) { return rates [phVal.ordinal()]; }
+
+		double getBiomassLevel()
+		{
+			return getLevel(PhysicalValue.Plants) + getLevel(PhysicalValue.Insects) + getLevel(PhysicalValue.Animals);
+		}
+
+		double getTerraformLevel()
+		{
+			return getLevel(PhysicalValue.Oxygen) + getLevel(PhysicalValue.Heat) + getLevel(PhysicalValue.Pressure) + getBiomassLevel();
+		}
+
+		private void write(DataOutputStream out) throws IOException
+		{
+			out.writeLong(timestamp_ms);
+			out.writeInt(saveGameID);
+			for (double d : levels) out.writeDouble(d);
+			for (double d : rates ) out.writeDouble(d);
+			out.writeInt(objectCount);
+			out.writeInt(installedObjectCount);
+			out.writeDouble(energyProduced);
+			out.writeDouble(energyConsumed);
+		}
+
+		private static Record read(DataInputStream in) throws IOException
+		{
+			long timestamp_ms = in.readLong();
+			int saveGameID = in.readInt();
+			double[] levels = new double[N_PHVALUES];
+			double[] rates  = new double[N_PHVALUES];
+			for (int i=0; i<levels.length; i++) levels[i] = in.readDouble();
+			for (int i=0; i<rates .length; i++) rates [i] = in.readDouble();
+			int objectCount = in.readInt();
+			int installedObjectCount = in.readInt();
+			double energyProduced = in.readDouble();
+			double energyConsumed = in.readDouble();
+			return new Record(timestamp_ms, saveGameID, levels, rates, objectCount, installedObjectCount, energyProduced, energyConsumed);
+		}
+	}
+
+	private static double getLevel(Data.AchievedValues achievedValues, PhysicalValue phVal)
+	{
+		return switch (phVal)
+		{
+			case Heat     -> achievedValues.heatLevel;
+			case Pressure -> achievedValues.pressureLevel;
+			case Oxygen   -> achievedValues.oxygenLevel;
+			case Plants   -> achievedValues.plantsLevel;
+			case Insects  -> achievedValues.insectsLevel;
+			case Animals  -> achievedValues.animalsLevel;
+		};
+	}
+
+	/**
+	 * Records the state of a just loaded save game.<br>
+	 * Only the rates are taken here (from the TerraformingCalculation snapshot of <code>data</code>), everything else is done in a background thread.
+	 */
+	void record(File saveGame, long timestamp_ms, Data data)
+	{
+		if (data.achievedValues==null) return;
+
+		int saveGameID = getSaveGameID(saveGame);
+		double[] levels = new double[N_PHVALUES];
+		double[] rates  = new double[N_PHVALUES];
+		TerraformingCalculation.Snapshot snapshot = TerraformingCalculation.getInstance().getSnapshot(data);
+		for (PhysicalValue phVal : PhysicalValue.values())
+		{
+			levels[phVal.ordinal()] = getLevel(data.achievedValues, phVal);
+			rates [phVal.ordinal()] = snapshot.getAspect(phVal).getTotalSumBoosted();
+		}
+
+		writer.execute(() -> {
+			Record last = getLastRecord(saveGameID);
+			if (last!=null && last.timestamp_ms==timestamp_ms)
+				return; // same save state was loaded again
+
+			int objectCount = 0;
+			int installedObjectCount = 0;
+			double energyProduced = 0;
+			double energyConsumed = 0;
+			if (data.worldObjects!=null)
+				for (WorldObject wo : data.worldObjects)
+				{
+					if (wo == null) continue;
+					objectCount++;
+					if (!wo.isInstalled()) continue;
+					installedObjectCount++;
+					if (wo.objectType == null || wo.objectType.energy == null) continue;
+					double energy = wo.objectType.energy.doubleValue();
+					if (energy>0) energyProduced += energy;
+					else          energyConsumed -= energy;
+				}
+
+			Record record = new Record(timestamp_ms, saveGameID, levels, rates, objectCount, installedObjectCount, energyProduced, energyConsumed);
+			addToRingBuffer(record);
+			appendToFile(record);
+
+			SwingUtilities.invokeLater(() -> {
+				for (Runnable listener : listeners)
+					listener.run();
+			});
+		});
+	}
+
+	private synchronized void addToRingBuffer(Record record)
+	{
+		if (ringBufferSize < ringBuffer.length)
+			ringBuffer[(ringBufferStart + ringBufferSize++) % ringBuffer.length] = record;
+		else
+		{
+			ringBuffer[ringBufferStart] = record;
+			ringBufferStart = (ringBufferStart+1) % ringBuffer.length;
+		}
+	}
+
+	synchronized Record getLastRecord(int saveGameID)
+	{
+		for (int i=ringBufferSize-1; i>=0; i--)
+		{
+			Record record = ringBuffer[(ringBufferStart + i) % ringBuffer.length];
+			if (record.saveGameID==saveGameID)
+				return record;
+		}
+		return null;
+	}
+
+	synchronized Vector<Record> getRecords(int saveGameID)
+	{
+		Vector<Record> records = new Vector<>();
+		for (int i=0; i<ringBufferSize; i++)
+		{
+			Record record = ringBuffer[(ringBufferStart + i) % ringBuffer.length];
+			if (record.saveGameID==saveGameID)
+				records.add(record);
+		}
+		return records;
+	}
+
+	/**
+	 * Computes the rates of change of all levels between the last two records of a save game.
+	 * Returns <code>null</code>, if there are less than 2 records or if they are too far apart in time (game was probably not running).
+	 */
+	EnumMap<Achievements.AchievementList,Double> getMeasuredRates(int saveGameID, long maxTimeSpan_ms)
+	{
+		Record last = null;
+		Record prev = null;
+		synchronized (this)
+		{
+			for (int i=ringBufferSize-1; i>=0 && prev==null; i--)
+			{
+				Record record = ringBuffer[(ringBufferStart + i) % ringBuffer.length];
+				if (record.saveGameID!=saveGameID) continue;
+				if (last==null) last = record;
+				else            prev = record;
+			}
+		}
+		if (last==null || prev==null) return null;
+
+		double timeSpan_s = (last.timestamp_ms - prev.timestamp_ms) / 1000.0;
+		if (timeSpan_s <= 0 || timeSpan_s*1000 > maxTimeSpan_ms) return null;
+
+		EnumMap<Achievements.AchievementList,Double> rates = new EnumMap<>(Achievements.AchievementList.class);
+		for (Achievements.AchievementList al : Achievements.AchievementList.values())
+		{
+			double delta = switch (al)
+			{
+				case Oxygen   -> last.getLevel(PhysicalValue.Oxygen  ) - prev.getLevel(PhysicalValue.Oxygen  );
+				case Heat     -> last.getLevel(PhysicalValue.Heat    ) - prev.getLevel(PhysicalValue.Heat    );
+				case Pressure -> last.getLevel(PhysicalValue.Pressure) - prev.getLevel(PhysicalValue.Pressure);
+				case Plants   -> last.getLevel(PhysicalValue.Plants  ) - prev.getLevel(PhysicalValue.Plants  );
+				case Insects  -> last.getLevel(PhysicalValue.Insects ) - prev.getLevel(PhysicalValue.Insects );
+				case Animals  -> last.getLevel(PhysicalValue.Animals ) - prev.getLevel(PhysicalValue.Animals );
+				case Biomass  -> last.getBiomassLevel() - prev.getBiomassLevel();
+				case Terraformation, Stages -> last.getTerraformLevel() - prev.getTerraformLevel();
+			};
+			rates.put(al, delta / timeSpan_s);
+		}
+		return rates;
+	}
+
+	void readFromFile()
+	{
+		if (!file.isFile()) return;
+
+		System.out.printf("Read TerraformingHistory from file \"%s\" ...%n", file.getAbsolutePath());
+
+		long nRecordsInFile = (file.length() - HEADER_SIZE) / RECORD_SIZE;
+		long nSkippedRecords = Math.max(0, nRecordsInFile - RING_BUFFER_CAPACITY);
+
+		boolean hasValidHeader = true;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+			hasValidHeader = file.length() < HEADER_SIZE || (in.readInt() == FILE_MAGIC && in.readInt() == RECORD_SIZE);
+			if (hasValidHeader)
+			{
+				in.skipNBytes(nSkippedRecords * RECORD_SIZE);
+				for (long i=nSkippedRecords; i<nRecordsInFile; i++)
+					addToRingBuffer(Record.read(in));
+			}
+
+		} catch (FileNotFoundException ex) {
+			//ex.printStackTrace();
+		} catch (IOException ex) {
+			System.err.printf("IOException while reading TerraformingHistory: %s%n", ex.getMessage());
+			//ex.printStackTrace();
+		}
+
+		if (!hasValidHeader)
+		{
+			// file is closed now and can be renamed
+			System.err.printf("Unexpected file format of TerraformingHistory file. File will be ignored.%n");
+			moveInvalidFileAside(file);
+			return;
+		}
+
+		System.out.printf("Done%n");
+	}
+
+	/**
+	 * Makes sure, that a new record is appended directly behind a valid header and complete records.
+	 * A file with an unexpected header is moved aside, a partial header or a truncated last record is cut off.
+	 * @return <code>true</code>, if a header has to be written
+	 */
+	private boolean prepareFileForAppend() throws IOException
+	{
+		if (!file.isFile()) return true;
+
+		long length = file.length();
+		if (length < HEADER_SIZE)
+		{
+			truncateFile(file, 0);
+			return true;
+		}
+
+		boolean hasValidHeader;
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			hasValidHeader = in.readInt() == FILE_MAGIC && in.readInt() == RECORD_SIZE;
+		}
+		if (!hasValidHeader)
+		{
+			if (!moveInvalidFileAside(file))
+				throw new IOException("File with unexpected format can't be moved aside.");
+			return true;
+		}
+
+		long validLength = HEADER_SIZE + (length - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+		if (validLength < length)
+			truncateFile(file, validLength);
+		return false;
+	}
+
+	static void truncateFile(File file, long length) throws IOException
+	{
+		System.err.printf("Truncate file \"%s\" from %d to %d bytes.%n", file.getAbsolutePath(), file.length(), length);
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(length);
+		}
+	}
+
+	/**
+	 * Renames <code>file</code> to "&lt;name&gt;.invalid", so a new file can be started.
+	 * @return <code>true</code>, if renaming was successful
+	 */
+	static boolean moveInvalidFileAside(File file)
+	{
+		File invalidFile = new File(file.getPath()+".invalid");
+		if (invalidFile.isFile() && !invalidFile.delete())
+			System.err.printf("Can't delete old file \"%s\".%n", invalidFile.getAbsolutePath());
+		if (!file.renameTo(invalidFile))
+		{
+			System.err.printf("Can't rename file \"%s\".%n", file.getAbsolutePath());
+			return false;
+		}
+		System.err.printf("File \"%s\" was renamed to \"%s\". A new file will be started.%n", file.getAbsolutePath(), invalidFile.getName());
+		return true;
+	}
+
+	private void appendToFile(Record record)
+	{
+		try {
+			boolean writeHeader = prepareFileForAppend();
+			writeRecord(record, writeHeader);
+		} catch (IOException ex) {
+			System.err.printf("IOException while writing TerraformingHistory: %s%n", ex.getMessage());
+			//ex.printStackTrace();
+		}
+	}
+
+	private void writeRecord(Record record, boolean writeHeader) throws IOException
+	{
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+
+			if (writeHeader)
+			{
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(RECORD_SIZE);
+			}
+			record.write(out);
+		}
+	}
+}
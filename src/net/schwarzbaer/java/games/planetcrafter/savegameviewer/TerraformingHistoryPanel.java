@@ -0,0 +1,193 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.BasicStroke;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.io.File;
+import java.util.Locale;
+import java.util.Vector;
+import java.util.function.DoubleFunction;
+import java.util.function.ToDoubleFunction;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.PhysicalValue;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.TerraformingHistory.Record;
+
+class TerraformingHistoryPanel extends JPanel
+{
+	private static final long serialVersionUID = -2706284117216316950L;
+
+	private final int saveGameID;
+	private final JComboBox<ChartValue> valueSelector;
+	private final Chart chart;
+	private final JLabel statusOutput;
+
+	TerraformingHistoryPanel(File saveGame)
+	{
+		super(new BorderLayout(3,3));
+		setBorder(BorderFactory.createEmptyBorder(3,3,3,3));
+		saveGameID = TerraformingHistory.getSaveGameID(saveGame);
+
+		chart = new Chart();
+		statusOutput = new JLabel(" ");
+
+		valueSelector = new JComboBox<>(ChartValue.createAll().toArray(ChartValue[]::new));
+		valueSelector.addActionListener(e -> updateChart());
+
+		JPanel northPanel = new JPanel(new BorderLayout(3,3));
+		northPanel.add(new JLabel("Value: "), BorderLayout.WEST);
+		northPanel.add(valueSelector, BorderLayout.CENTER);
+
+		add(northPanel, BorderLayout.NORTH);
+		add(chart, BorderLayout.CENTER);
+		add(statusOutput, BorderLayout.SOUTH);
+
+		updateChart();
+	}
+
+	void updateChart()
+	{
+		Vector<Record> records = TerraformingHistory.getInstance().getRecords(saveGameID);
+		ChartValue chartValue = valueSelector.getItemAt(valueSelector.getSelectedIndex());
+		chart.setData(records, chartValue);
+
+		if (records.isEmpty())
+			statusOutput.setText("No recorded states of this save game");
+		else
+		{
+			Record first = records.firstElement();
+			Record last  = records.lastElement();
+			statusOutput.setText(String.format(
+					"%d recorded states, from %s to %s",
+					records.size(),
+					PlanetCrafterSaveGameViewer.dtFormatter.getTimeStr(first.timestamp_ms(), false, true, false, true, false),
+					PlanetCrafterSaveGameViewer.dtFormatter.getTimeStr(last .timestamp_ms(), false, true, false, true, false)
+			));
+		}
+	}
+
+	private record ChartValue(String label, ToDoubleFunction<Record> getValue, DoubleFunction<String> format)
+	{
+		@Override public String toString() { return label; }
+
+		static Vector<ChartValue> createAll()
+		{
+			Vector<ChartValue> values = new Vector<>();
+			values.add(new ChartValue("Terraformation Level", Record::getTerraformLevel, Data.AchievedValues::formatTerraformation));
+			values.add(new ChartValue("Biomass Level"       , Record::getBiomassLevel  , Data.AchievedValues::formatBiomassLevel  ));
+			for (PhysicalValue phVal : PhysicalValue.values())
+				values.add(new ChartValue(phVal+" Level", r->r.getLevel(phVal), getLevelFormatter(phVal)));
+			for (PhysicalValue phVal : PhysicalValue.values())
+				values.add(new ChartValue(phVal+" Rate", r->r.getRate(phVal), phVal::formatRate));
+			values.add(new ChartValue("Number of Objects"          , r->r.objectCount()         , v->String.format(Locale.ENGLISH, "%1.0f", v)));
+			values.add(new ChartValue("Number of installed Objects", r->r.installedObjectCount(), v->String.format(Locale.ENGLISH, "%1.0f", v)));
+			values.add(new ChartValue("Energy Production"          , r->r.energyProduced()      , ObjectTypes::formatEnergyRate));
+			values.add(new ChartValue("Energy Consumption"         , r->r.energyConsumed()      , ObjectTypes::formatEnergyRate));
+			values.add(new ChartValue("Energy Budget"              , r->r.energyProduced()-r.energyConsumed(), ObjectTypes::formatEnergyRate));
+			return values;
+		}
+
+		private static DoubleFunction<String> getLevelFormatter(PhysicalValue phVal)
+		{
+			return switch (phVal)
+			{
+				case Heat     -> Data.AchievedValues::formatHeatLevel;
+				case Pressure -> Data.AchievedValues::formatPressureLevel;
+				case Oxygen   -> Data.AchievedValues::formatOxygenLevel;
+				case Plants, Insects, Animals -> Data.AchievedValues::formatBiomassLevel;
+			};
+		}
+	}
+
+	private static class Chart extends JComponent
+	{
+		private static final long serialVersionUID = 4453713880005779307L;
+		private static final int BORDER = 20;
+		private static final Color COLOR_AXIS = Color.GRAY;
+		private static final Color COLOR_LINE = new Color(0x0070C0);
+
+		private long[] times_ms;
+		private double[] values;
+		private ChartValue chartValue;
+
+		Chart()
+		{
+			times_ms = new long[0];
+			values = new double[0];
+			chartValue = null;
+			setBorder(BorderFactory.createEtchedBorder());
+		}
+
+		void setData(Vector<Record> records, ChartValue chartValue)
+		{
+			this.chartValue = chartValue;
+			times_ms = new long  [records.size()];
+			values   = new double[records.size()];
+			for (int i=0; i<times_ms.length; i++)
+			{
+				Record record = records.get(i);
+				times_ms[i] = record.timestamp_ms();
+				values  [i] = chartValue==null ? 0 : chartValue.getValue.applyAsDouble(record);
+			}
+			repaint();
+		}
+
+		@Override
+		protected void paintComponent(Graphics g)
+		{
+			if (!(g instanceof Graphics2D g2)) return;
+
+			int width  = getWidth();
+			int height = getHeight();
+			g2.setColor(getBackground());
+			g2.fillRect(0, 0, width, height);
+			if (times_ms.length==0 || chartValue==null) return;
+
+			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+			long minTime = times_ms[0];
+			long maxTime = times_ms[times_ms.length-1];
+			double minValue = Double.POSITIVE_INFINITY;
+			double maxValue = Double.NEGATIVE_INFINITY;
+			for (double v : values) {
+				minValue = Math.min(minValue, v);
+				maxValue = Math.max(maxValue, v);
+			}
+			if (maxTime==minTime) maxTime = minTime+1;
+			if (maxValue==minValue) { maxValue += 0.5; minValue -= 0.5; }
+
+			int x0 = BORDER, x1 = width -BORDER;
+			int y0 = height-BORDER, y1 = BORDER;
+
+			g2.setColor(COLOR_AXIS);
+			g2.drawLine(x0, y0, x1, y0);
+			g2.drawLine(x0, y0, x0, y1);
+			g2.drawString(chartValue.format.apply(maxValue), x0+3, y1+12);
+			g2.drawString(chartValue.format.apply(minValue), x0+3, y0-3);
+			g2.drawString(String.format(Locale.ENGLISH, "%1.2f h", (maxTime-minTime)/3600000.0), x1-60, y0+15);
+
+			Path2D.Double path = new Path2D.Double();
+			for (int i=0; i<times_ms.length; i++)
+			{
+				double x = x0 + (x1-x0) * (times_ms[i]-minTime) / (double)(maxTime-minTime);
+				double y = y0 + (y1-y0) * (values  [i]-minValue) / (maxValue-minValue);
+				if (i==0) path.moveTo(x, y);
+				else      path.lineTo(x, y);
+			}
+			g2.setColor(COLOR_LINE);
+			g2.setStroke(new BasicStroke(1.5f));
+			g2.draw(path);
+			if (times_ms.length==1)
+				g2.fillOval(x0-2, (y0+y1)/2-2, 5, 5);
+		}
+	}
+}
@@ -13,12 +13,14 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Vector;
 import java.util.function.Supplier;
 
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
@@ -31,6 +33,7 @@ import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypes.Physi
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypesPanel.ObjectTypesChangeEvent;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.ObjectTypesPanel.ObjectTypesChangeListener;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.TerraformingCalculation.ActiveWorldObject;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.TerraformingCalculation.Marginal;
 import net.schwarzbaer.java.games.planetcrafter.savegameviewer.TerraformingCalculation.TerraformingAspect;
 import net.schwarzbaer.java.lib.gui.Tables;
 
@@ -61,8 +64,7 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 	
 	private static SubPanel addPanel(TerraformingPanel main, Data data, TerraformingStatesPanel terraformingStatesPanel, PhysicalValue physicalValue)
 	{
-		TerraformingAspect aspect = TerraformingCalculation.getInstance().getAspect(physicalValue);
-		SubPanel subPanel = new SubPanel(data, terraformingStatesPanel, physicalValue, aspect);
+		SubPanel subPanel = new SubPanel(data, terraformingStatesPanel, physicalValue);
 		main.add(subPanel);
 		main.subPanels.put(physicalValue, subPanel);
 		return subPanel;
@@ -76,6 +78,14 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 		if (event.changedValue==null)
 			return;
 		
+		switch (event.changedValue) {
+		case OxygenMultiplier: case InsectsMultiplier: case AnimalsMultiplier:
+		case IsMOFuse: case MOFuseMultiplier:
+			TerraformingCalculation.getInstance().clearMultiplierCache();
+			break;
+		default: break;
+		}
+		
 		switch (event.changedValue) {
 		case Label_en: case Label_de:
 		case Energy:
@@ -115,24 +125,24 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 	
 	private static class SubPanel extends JPanel {
 		private static final long serialVersionUID = -6895163439241941603L;
+		private static final int TOP_MARGINALS_COUNT = 20;
 		
 		private final ObjectsTableModel tableModel;
+		private final MarginalsTableModel marginalsTableModel;
 		private final JTextField fieldProductionRate;
 		private final JTextField fieldBoosterRockets;
 		private final JTextField fieldProductionRateFinal;
 
 		private final Data data;
 		private final PhysicalValue physicalValue;
-		private final TerraformingAspect terraformingAspect;
 		
 		private final TerraformingStatesPanel terraformingStatesPanel;
 
-		SubPanel(Data data, TerraformingStatesPanel terraformingStatesPanel, PhysicalValue physicalValue, TerraformingAspect terraformingAspect) {
+		SubPanel(Data data, TerraformingStatesPanel terraformingStatesPanel, PhysicalValue physicalValue) {
 			super(new BorderLayout(3,3));
 			this.data = data;
 			this.terraformingStatesPanel = terraformingStatesPanel;
 			this.physicalValue = physicalValue;
-			this.terraformingAspect = terraformingAspect;
 			
 			JPanel resumePanel = new JPanel(new GridBagLayout());
 			GridBagConstraints c = new GridBagConstraints();
@@ -165,19 +175,44 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 			size.height = 150;
 			tableScrollPane.setPreferredSize(size);
 			
+			marginalsTableModel = new MarginalsTableModel(this.physicalValue);
+			JTable marginalsTable = new JTable(marginalsTableModel);
+			JScrollPane marginalsTableScrollPane = new JScrollPane(marginalsTable);
+			marginalsTable.setRowSorter(new Tables.SimplifiedRowSorter(marginalsTableModel));
+			marginalsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+			marginalsTable.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+			
+			marginalsTableModel.setTable(marginalsTable);
+			marginalsTableModel.setColumnWidths(marginalsTable);
+			marginalsTableModel.setDefaultCellEditorsAndRenderers();
+			
+			new GUI.ObjectsTableContextMenu(marginalsTable, marginalsTableModel);
+			
+			JTabbedPane tablesPanel = new JTabbedPane();
+			tablesPanel.addTab("Object Types", tableScrollPane);
+			tablesPanel.addTab("Top %d Marginals".formatted(TOP_MARGINALS_COUNT), marginalsTableScrollPane);
+			
 			add(resumePanel, BorderLayout.NORTH);
-			add(tableScrollPane, BorderLayout.CENTER);
+			add(tablesPanel, BorderLayout.CENTER);
 			setBorder(BorderFactory.createTitledBorder(this.physicalValue.toString()));
 			
 			Data.addRemoveStateListener(tableModel::updateRemoveStates);
+			Data.addRemoveStateListener(marginalsTableModel::updateRemoveStates);
 			
-			SwingUtilities.invokeLater(this::updateContent);
+			SwingUtilities.invokeLater(()->{
+				// uses an already computed snapshot, if there is one for this data
+				showContent(TerraformingCalculation.getInstance().getSnapshot(this.data).getAspect(this.physicalValue));
+			});
 		}
 
 		void updateContent()
+		{
+			showContent(TerraformingCalculation.getInstance().recalculate(data, physicalValue));
+		}
+
+		private void showContent(TerraformingAspect terraformingAspect)
 		{
 			HashMap<RowIndex,ObjectsTableRow> tableContent = new HashMap<>();
-			terraformingAspect.calculate(data.worldObjects);
 			
 			terraformingAspect.forEachAWO((wo,awo) -> {
 				RowIndex rowIndex = new RowIndex(
@@ -190,9 +225,13 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 				if (row==null)
 					tableContent.put(rowIndex, row = new ObjectsTableRow(wo.getName(), awo.multiplier, awo.moMulti));
 				
-				row.add(awo);
+				row.add(awo, terraformingAspect.getMarginal(wo));
 			});
 			
+			Vector<MarginalsTableRow> marginalsTableContent = new Vector<>();
+			for (Marginal marginal : terraformingAspect.getTopMarginals(TOP_MARGINALS_COUNT))
+				marginalsTableContent.add(new MarginalsTableRow(marginal));
+			
 			int numberOfBoosterRockets = terraformingAspect.getNumberOfBoosterRockets();
 			double totalSum            = terraformingAspect.getTotalSum();
 			double boosterMultiplier   = terraformingAspect.getBoosterMultiplier();
@@ -203,6 +242,7 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 			fieldBoosterRockets     .setText(strBoosterRockets);
 			fieldProductionRateFinal.setText(physicalValue.formatRate(totalSumBoosted));
 			tableModel.setData(tableContent.values());
+			marginalsTableModel.setData(marginalsTableContent);
 			
 			terraformingStatesPanel.setRateOfPhysicalValue(physicalValue, totalSumBoosted);
 		}
@@ -252,6 +292,7 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 			final Double moMulti;
 			double baseSum;
 			double energySum;
+			double marginalSum;
 			
 			ObjectsTableRow(String name, Double multiplier, Double moMulti) {
 				super(name);
@@ -259,14 +300,30 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 				this.moMulti = moMulti;
 				baseSum = 0;
 				energySum = 0;
+				marginalSum = 0;
 			}
 
-			public void add(ActiveWorldObject awo)
+			public void add(ActiveWorldObject awo, Marginal marginal)
 			{
 				add(awo.wo);
 				baseSum += awo.baseValue;
 				if (awo.wo.objectType!=null && awo.wo.objectType.energy!=null)
 					energySum += awo.wo.objectType.energy;
+				if (marginal!=null)
+					marginalSum += marginal.value();
+			}
+		}
+		
+		private static class MarginalsTableRow extends GUI.ObjectsTableRow {
+			
+			final TerraformingCalculation.MarginalSource source;
+			final double value;
+			
+			MarginalsTableRow(Marginal marginal) {
+				super(marginal.wo().getName());
+				source = marginal.source();
+				value = marginal.value();
+				add(marginal.wo());
 			}
 		}
 		
@@ -303,7 +360,7 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 							valueStr = String.format(Locale.ENGLISH, "%1.2f %s", value, ObjectTypes.EnergyRateUnit); break;
 						case Efficiency:
 							valueStr = String.format(Locale.ENGLISH, "%1.2f (%s)/%s", value, tableModel.physicalValue.rateUnit, ObjectTypes.EnergyRateUnit); break;
-						case BaseSum: case FinalSum:
+						case BaseSum: case FinalSum: case Marginal:
 							valueStr = tableModel.physicalValue.formatRate((Double) value); break;
 						}
 				}
@@ -329,6 +386,7 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 				Multiplier("Multi"     , Double .class,  50),
 				MOMulti   ("MO Multi"  , Double .class,  55),
 				FinalSum  ("Final Sum" , Double .class, 100),
+				Marginal  ("Marginal"  , Double .class, 100),
 				Energy    ("Energy"    , Double .class,  80),
 				Efficiency("Efficiency", Double .class, 110),
 				;
@@ -359,6 +417,7 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 					//	ColumnID.Multiplier,
 						ColumnID.MOMulti   ,
 						ColumnID.FinalSum  ,
+						ColumnID.Marginal  ,
 						ColumnID.Energy    ,
 						ColumnID.Efficiency,
 				};
@@ -399,12 +458,96 @@ class TerraformingPanel extends JPanel implements ObjectTypesChangeListener {
 				case Multiplier: return row.multiplier;
 				case MOMulti   : return row.moMulti;
 				case FinalSum  : return computeMultipliedValue(row.baseSum, row.multiplier, row.moMulti);
+				case Marginal  : return row.marginalSum;
 				case Energy    : return row.energySum;
 				case Efficiency: return computeMultipliedValue(row.baseSum, row.multiplier, row.moMulti) / Math.abs(row.energySum);
 				}
 				return null;
 			}
 		}
+		
+		private static class MarginalsTableCellRenderer implements TableCellRenderer {
+			
+			private final Tables.LabelRendererComponent rendererComponent;
+			private final MarginalsTableModel tableModel;
+
+			MarginalsTableCellRenderer(MarginalsTableModel tableModel) {
+				this.tableModel = tableModel;
+				rendererComponent = new Tables.LabelRendererComponent();
+			}
+
+			@Override
+			public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int rowV, int columnV) {
+				int    rowM =    rowV<0 ? -1 : table.   convertRowIndexToModel(   rowV);
+				int columnM = columnV<0 ? -1 : table.convertColumnIndexToModel(columnV);
+				MarginalsTableRow  row = rowM<0 ? null : tableModel.getRow(rowM);
+				MarginalsTableModel.ColumnID columnID = columnM<0 ? null : tableModel.getColumnID(columnM);
+				
+				String valueStr;
+				if (value==null)
+					valueStr = null;
+				else if (columnID==MarginalsTableModel.ColumnID.Marginal)
+					valueStr = tableModel.physicalValue.formatRate((Double) value);
+				else
+					valueStr = value.toString();
+				
+				Supplier<Color> getCustomBackground = GUI.ObjectsTableRow.createCustomBackgroundFunction(row);
+				rendererComponent.configureAsTableCellRendererComponent(table, null, valueStr, isSelected, hasFocus, getCustomBackground, null);
+				if (value instanceof Number)
+					rendererComponent.setHorizontalAlignment(SwingConstants.RIGHT);
+				else
+					rendererComponent.setHorizontalAlignment(SwingConstants.LEFT);
+				
+				return rendererComponent;
+			}
+		}
+		
+		private static class MarginalsTableModel extends GUI.ObjectsTableModel<MarginalsTableRow, MarginalsTableModel.ColumnID> {
+			
+			enum ColumnID implements Tables.SimplifiedColumnIDInterface {
+				Name      ("Name"      , String .class, 130),
+				Source    ("Source"    , TerraformingCalculation.MarginalSource.class, 110),
+				Marginal  ("Marginal"  , Double .class, 100),
+				;
+				private final Tables.SimplifiedColumnConfig cfg;
+				ColumnID(String name, Class<?> colClass, int width) {
+					cfg = new Tables.SimplifiedColumnConfig(name, colClass, 20, -1, width, width);
+				}
+				@Override public Tables.SimplifiedColumnConfig getColumnConfig() {
+					return cfg;
+				}
+			}
+
+			private final PhysicalValue physicalValue;
+
+			MarginalsTableModel(PhysicalValue physicalValue) {
+				super( ColumnID.values() );
+				this.physicalValue = Objects.requireNonNull( physicalValue );
+			}
+			
+			void setDefaultCellEditorsAndRenderers() {
+				MarginalsTableCellRenderer tcr = new MarginalsTableCellRenderer(this);
+				setDefaultRenderers(class_ -> tcr);
+			}
+
+			@Override protected void setData(Collection<MarginalsTableRow> data) {
+				super.setData(data);
+				fireTableUpdate();
+			}
+
+			@Override
+			public Object getValueAt(int rowIndex, int columnIndex, ColumnID columnID) {
+				MarginalsTableRow row = getRow(rowIndex);
+				if (row==null) return null;
+				
+				switch (columnID) {
+				case Name    : return row.name;
+				case Source  : return row.source;
+				case Marginal: return row.value;
+				}
+				return null;
+			}
+		}
 	}
 
 }
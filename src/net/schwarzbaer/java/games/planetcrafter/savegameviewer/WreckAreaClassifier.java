@@ -0,0 +1,184 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Vector;
+import java.util.stream.IntStream;
+
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.GeneratedWreck;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.Data.WorldObject;
+import net.schwarzbaer.java.games.planetcrafter.savegameviewer.FarWreckAreas.WreckArea;
+
+/**
+ * Counts wrecks, objects dropped by wrecks and installed objects inside of the polygon of a WreckArea.<br>
+ * Results are cached per area and only recomputed, if the points of that area have changed.
+ */
+class WreckAreaClassifier
+{
+	enum Category { Wreck, DroppedObject, InstalledObject }
+
+	record Position(Category category, Data.MapPos pos) {}
+
+	record Counts(int wrecks, int droppedObjects, int installedObjects)
+	{
+		static final Counts EMPTY = new Counts(0,0,0);
+	}
+
+	private record CachedCounts(List<Point2D.Double> points, Counts counts) {}
+
+	private final Vector<Position> positions;
+	private final MapSpatialIndex<Position> index;
+	private final HashMap<WreckArea,CachedCounts> cache;
+
+	WreckAreaClassifier(Data data)
+	{
+		positions = new Vector<>();
+		HashSet<WorldObject> droppedObjects = new HashSet<>();
+		if (data.generatedWrecks!=null)
+			for (GeneratedWreck wreck : data.generatedWrecks)
+			{
+				if (wreck.position!=null)
+					positions.add(new Position(Category.Wreck, wreck.position));
+				if (wreck.worldObjsDropped!=null)
+					for (WorldObject wo : wreck.worldObjsDropped)
+						if (wo!=null && wo.position!=null && wo.isInstalled())
+						{
+							positions.add(new Position(Category.DroppedObject, wo.position));
+							droppedObjects.add(wo);
+						}
+			}
+		if (data.worldObjects!=null)
+			for (WorldObject wo : data.worldObjects)
+				if (wo!=null && wo.position!=null && wo.isInstalled() && !droppedObjects.contains(wo))
+					positions.add(new Position(Category.InstalledObject, wo.position));
+
+		index = new MapSpatialIndex<>(positions, Position::pos);
+		cache = new HashMap<>();
+	}
+
+	synchronized Counts getCounts(WreckArea area)
+	{
+		if (area==null) return Counts.EMPTY;
+
+		CachedCounts cached = cache.get(area);
+		if (cached!=null && cached.points.equals(area.points))
+			return cached.counts;
+
+		List<Point2D.Double> points = area.points.stream().map(p->new Point2D.Double(p.x, p.y)).toList();
+		Counts counts = computeCounts(points);
+		cache.put(area, new CachedCounts(points, counts));
+		return counts;
+	}
+
+	/**
+	 * Removes cached counts of all areas, that are not in <code>existingAreas</code> (e.g. deleted areas).
+	 */
+	synchronized void retainAreas(Collection<WreckArea> existingAreas)
+	{
+		HashSet<WreckArea> areas = new HashSet<>(existingAreas);
+		cache.keySet().retainAll(areas);
+	}
+
+	private Counts computeCounts(List<Point2D.Double> points)
+	{
+		if (points.size()<3) return Counts.EMPTY;
+
+		PolygonIndex polygon = new PolygonIndex(points);
+		IntStream.Builder candidates = IntStream.builder();
+		index.forEachInRect(polygon.minX, polygon.minY, polygon.maxX, polygon.maxY, candidates::add);
+
+		// only candidates within bounding box are tested against polygon
+		int nCategories = Category.values().length;
+		int[] categoryCounts = candidates.build()
+			.parallel()
+			.filter(i -> polygon.contains(index.getX(i), index.getY(i)))
+			.collect(
+					() -> new int[nCategories],
+					(counts, i) -> counts[index.get(i).category.ordinal()]++,
+					(counts1, counts2) -> { for (int c=0; c<nCategories; c++) counts1[c] += counts2[c]; }
+			);
+
+		return new Counts(
+				categoryCounts[Category.Wreck          .ordinal()],
+				categoryCounts[Category.DroppedObject  .ordinal()],
+				categoryCounts[Category.InstalledObject.ordinal()]
+		);
+	}
+
+	/**
+	 * Edges of a polygon sorted into horizontal bands,
+	 * so a point-in-polygon test (even-odd rule) only checks the edges of one band.
+	 */
+	static class PolygonIndex
+	{
+		private static final int MAX_BANDS = 64;
+
+		final double minX, minY, maxX, maxY;
+		private final double[] edgeX0, edgeY0, edgeX1, edgeY1;
+		private final double bandHeight;
+		private final int[][] bands;
+
+		PolygonIndex(List<Point2D.Double> points)
+		{
+			int n = points.size();
+			edgeX0 = new double[n]; edgeY0 = new double[n];
+			edgeX1 = new double[n]; edgeY1 = new double[n];
+			double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+			for (int i=0; i<n; i++)
+			{
+				Point2D.Double p0 = points.get(i);
+				Point2D.Double p1 = points.get((i+1)%n);
+				edgeX0[i] = p0.x; edgeY0[i] = p0.y;
+				edgeX1[i] = p1.x; edgeY1[i] = p1.y;
+				minX = Math.min(minX, p0.x); maxX = Math.max(maxX, p0.x);
+				minY = Math.min(minY, p0.y); maxY = Math.max(maxY, p0.y);
+			}
+			this.minX = minX; this.maxX = maxX;
+			this.minY = minY; this.maxY = maxY;
+
+			int nBands = Math.max(1, Math.min(n, MAX_BANDS));
+			bandHeight = Math.max((maxY-minY)/nBands, 1e-9);
+
+			int[][] bands = new int[nBands][];
+			int[] bandSizes = new int[nBands];
+			for (int i=0; i<n; i++)
+			{
+				int band0 = getBand(Math.min(edgeY0[i], edgeY1[i]), nBands);
+				int band1 = getBand(Math.max(edgeY0[i], edgeY1[i]), nBands);
+				for (int b=band0; b<=band1; b++)
+				{
+					if (bands[b]==null) bands[b] = new int[4];
+					else if (bands[b].length<=bandSizes[b]) bands[b] = Arrays.copyOf(bands[b], bands[b].length*2);
+					bands[b][bandSizes[b]++] = i;
+				}
+			}
+			for (int b=0; b<nBands; b++)
+				bands[b] = bands[b]==null ? new int[0] : Arrays.copyOf(bands[b], bandSizes[b]);
+			this.bands = bands;
+		}
+
+		private int getBand(double y, int nBands)
+		{
+			return Math.min(Math.max(0, (int)Math.floor((y-minY)/bandHeight)), nBands-1);
+		}
+
+		boolean contains(double x, double y)
+		{
+			if (x<minX || x>maxX || y<minY || y>maxY) return false;
+
+			boolean inside = false;
+			for (int i : bands[getBand(y, bands.length)])
+				if ((edgeY0[i]>y) != (edgeY1[i]>y))
+				{
+					double crossingX = edgeX0[i] + (y-edgeY0[i]) * (edgeX1[i]-edgeX0[i]) / (edgeY1[i]-edgeY0[i]);
+					if (x<crossingX) inside = !inside;
+				}
+			return inside;
+		}
+	}
+}
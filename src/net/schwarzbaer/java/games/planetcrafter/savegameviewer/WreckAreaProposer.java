@@ -0,0 +1,161 @@
+package net.schwarzbaer.java.games.planetcrafter.savegameviewer;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Proposes WreckAreas by clustering positions with DBSCAN and computing the convex hull of each cluster.<br>
+ * Neighbors of a point are found via a MapSpatialIndex, so only nearby points are compared.
+ */
+class WreckAreaProposer
+{
+	private static final int NOISE = -1;
+	private static final int UNVISITED = -2;
+
+	record Result(Vector<Vector<Point2D.Double>> hulls, int nClusters, int nNoisePoints) {}
+
+	private final MapSpatialIndex<Data.MapPos> index;
+
+	WreckAreaProposer(List<Data.MapPos> positions)
+	{
+		index = new MapSpatialIndex<>(positions, pos -> pos);
+	}
+
+	int getPointCount()
+	{
+		return index.size();
+	}
+
+	/**
+	 * Returns the hulls of all clusters or <code>null</code>, if computation was cancelled.
+	 * @param eps      max. distance of neighbors
+	 * @param minPts   min. number of points (incl. itself) in the neighborhood of a core point
+	 */
+	Result propose(double eps, int minPts, BooleanSupplier isCancelled)
+	{
+		int[] labels = findClusters(eps, minPts, isCancelled);
+		if (labels==null) return null;
+
+		int nClusters = 0;
+		int nNoisePoints = 0;
+		for (int label : labels)
+			if (label==NOISE) nNoisePoints++;
+			else nClusters = Math.max(nClusters, label+1);
+
+		Vector<Vector<Point2D.Double>> clusters = new Vector<>(nClusters);
+		for (int c=0; c<nClusters; c++) clusters.add(new Vector<>());
+		for (int i=0; i<labels.length; i++)
+			if (labels[i]>=0)
+				clusters.get(labels[i]).add(new Point2D.Double(index.getX(i), index.getY(i)));
+
+		Vector<Vector<Point2D.Double>> hulls = new Vector<>();
+		for (Vector<Point2D.Double> cluster : clusters)
+			hulls.add(computeConvexHull(cluster));
+
+		return new Result(hulls, nClusters, nNoisePoints);
+	}
+
+	private int[] findClusters(double eps, int minPts, BooleanSupplier isCancelled)
+	{
+		int n = index.size();
+		int[] labels = new int[n];
+		Arrays.fill(labels, UNVISITED);
+		double squaredEps = eps*eps;
+
+		int[] queue = new int[n];
+		boolean[] isQueued = new boolean[n];
+		int[] neighbors = new int[n];
+		int[] nNeighbors = new int[1];
+		int nextCluster = 0;
+
+		for (int start=0; start<n; start++)
+		{
+			if (labels[start]!=UNVISITED) continue;
+			if (isCancelled.getAsBoolean()) return null;
+
+			if (findNeighbors(start, eps, squaredEps, neighbors, nNeighbors) < minPts)
+			{
+				labels[start] = NOISE; // may become a border point of a cluster later
+				continue;
+			}
+
+			int cluster = nextCluster++;
+			labels[start] = cluster;
+			int queueStart = 0, queueEnd = 0;
+			for (int k=0; k<nNeighbors[0]; k++)
+				if (!isQueued[neighbors[k]] && neighbors[k]!=start)
+				{
+					isQueued[neighbors[k]] = true;
+					queue[queueEnd++] = neighbors[k];
+				}
+
+			while (queueStart<queueEnd)
+			{
+				int i = queue[queueStart++];
+				if (labels[i]==NOISE) labels[i] = cluster; // border point
+				if (labels[i]!=UNVISITED) continue;
+				labels[i] = cluster;
+
+				if (findNeighbors(i, eps, squaredEps, neighbors, nNeighbors) >= minPts) // core point -> expand
+					for (int k=0; k<nNeighbors[0]; k++)
+						if (!isQueued[neighbors[k]] && labels[neighbors[k]]<0)
+						{
+							isQueued[neighbors[k]] = true;
+							queue[queueEnd++] = neighbors[k];
+						}
+			}
+			// queue is reused by next cluster
+			for (int k=0; k<queueEnd; k++) isQueued[queue[k]] = false;
+		}
+		return labels;
+	}
+
+	private int findNeighbors(int i, double eps, double squaredEps, int[] neighbors, int[] nNeighbors)
+	{
+		double x = index.getX(i);
+		double y = index.getY(i);
+		nNeighbors[0] = 0;
+		index.forEachInRect(x-eps, y-eps, x+eps, y+eps, j -> {
+			if (index.getSquaredDist(j, x, y) <= squaredEps)
+				neighbors[nNeighbors[0]++] = j;
+		});
+		return nNeighbors[0];
+	}
+
+	/**
+	 * Returns the convex hull (counterclockwise, monotone chain algorithm).
+	 */
+	static Vector<Point2D.Double> computeConvexHull(List<Point2D.Double> points)
+	{
+		Point2D.Double[] sorted = points.stream()
+				.sorted(Comparator.<Point2D.Double>comparingDouble(p->p.x).thenComparingDouble(p->p.y))
+				.distinct()
+				.toArray(Point2D.Double[]::new);
+		if (sorted.length<3)
+			return new Vector<>(Arrays.asList(sorted));
+
+		Point2D.Double[] hull = new Point2D.Double[2*sorted.length];
+		int k = 0;
+		for (Point2D.Double p : sorted) // lower hull
+		{
+			while (k>=2 && cross(hull[k-2], hull[k-1], p)<=0) k--;
+			hull[k++] = p;
+		}
+		for (int i=sorted.length-2, lower=k+1; i>=0; i--) // upper hull
+		{
+			Point2D.Double p = sorted[i];
+			while (k>=lower && cross(hull[k-2], hull[k-1], p)<=0) k--;
+			hull[k++] = p;
+		}
+		return new Vector<>(Arrays.asList(hull).subList(0, k-1)); // last point = first point
+	}
+
+	private static double cross(Point2D.Double o, Point2D.Double a, Point2D.Double b)
+	{
+		return (a.x-o.x)*(b.y-o.y) - (a.y-o.y)*(b.x-o.x);
+	}
+}